@@ -0,0 +1,53 @@
+package com.ProductModule.benchmark;
+
+import com.ProductModule.ProductApplication;
+import com.ProductModule.cache.ProductSnapshot;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Boots the application against a private in-memory H2 database and seeds it for a benchmark trial.
+ */
+final class BenchmarkApplication {
+    private static final int SEED_BATCH_SIZE = 10_000;
+
+    private BenchmarkApplication() {
+    }
+
+    /**
+     * @param properties extra application properties for the trial, e.g. product.snapshot.enabled=true
+     */
+    static ConfigurableApplicationContext start(WebApplicationType webApplicationType, int rows, String... properties) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ProductApplication.class)
+                .web(webApplicationType)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "server.port=0",
+                        "product.reactive.enabled=false",
+                        "logging.level.root=WARN")
+                .properties(properties)
+                .run();
+        seed(context.getBean(JdbcTemplate.class), rows);
+        // the seed bypasses the service, so a snapshot loaded at startup would be empty
+        context.getBean(ProductSnapshot.class).load();
+        return context;
+    }
+
+    static void seed(JdbcTemplate jdbcTemplate, int rows) {
+        List<Object[]> batch = new ArrayList<>(SEED_BATCH_SIZE);
+        for (long id = 1; id <= rows; id++) {
+            batch.add(new Object[]{id, "Product " + id, BigDecimal.valueOf(id % 1000), 0L});
+            if (batch.size() == SEED_BATCH_SIZE || id == rows) {
+                jdbcTemplate.batchUpdate("INSERT INTO product (product_id, product_name, price, version) VALUES (?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.ProductModule.benchmark;
+
+import com.ProductModule.Entity.Product;
+import com.ProductModule.payLoad.ProductDto;
+import com.ProductModule.service.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ProductService.convertToDto / convertToEntity as wired in the application, including the null checks,
+ * the error handling and the logging guard around the mapper.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductConversionBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private Product product;
+    private ProductDto productDto;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start(WebApplicationType.NONE, 0);
+        productService = context.getBean(ProductService.class);
+        product = Product.builder().product_id(1L).product_name("Apple").price(new BigDecimal("45")).build();
+        productDto = ProductDto.builder().product_id(1L).product_name("Apple").price(new BigDecimal("45")).build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ProductDto convertToDto() {
+        return productService.convertToDto(product);
+    }
+
+    @Benchmark
+    public Product convertToEntity() {
+        return productService.convertToEntity(productDto);
+    }
+}
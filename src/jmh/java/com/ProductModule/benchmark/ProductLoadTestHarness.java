@@ -0,0 +1,148 @@
+package com.ProductModule.benchmark;
+
+import com.ProductModule.payLoad.BulkItemResult;
+import com.ProductModule.payLoad.ProductDto;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Closed-loop load generator for comparing the platform-thread and virtual-thread modes of a running instance.
+ * Seeds products through the bulk endpoint, then keeps {@code concurrency} connections busy with
+ * GET /api/product/{id} and prints throughput and latency percentiles for the measured window.
+ * <p>
+ * Start the service once with PRODUCT_VIRTUAL_THREADS=false and once with PRODUCT_VIRTUAL_THREADS=true
+ * and run the harness against each with the same arguments:
+ * {@code <baseUrl> <concurrency> <durationSeconds> [warmupSeconds] [productCount]}.
+ */
+public final class ProductLoadTestHarness {
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private ProductLoadTestHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 5000;
+        int durationSeconds = args.length > 2 ? Integer.parseInt(args[2]) : 60;
+        int warmupSeconds = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+        int productCount = args.length > 4 ? Integer.parseInt(args[4]) : 1000;
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient client = HttpClient.newBuilder()
+                    .executor(executor)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+            long[] productIds = seed(client, baseUrl, productCount);
+            System.out.printf("Seeded %d products, running %d connections for %ds after %ds warmup%n",
+                    productIds.length, concurrency, durationSeconds, warmupSeconds);
+
+            long measureFrom = System.nanoTime() + Duration.ofSeconds(warmupSeconds).toNanos();
+            long measureUntil = measureFrom + Duration.ofSeconds(durationSeconds).toNanos();
+            List<Future<Result>> workers = new ArrayList<>(concurrency);
+            for (int i = 0; i < concurrency; i++) {
+                workers.add(executor.submit(() -> runWorker(client, baseUrl, productIds, measureFrom, measureUntil)));
+            }
+            Result total = new Result();
+            for (Future<Result> worker : workers) {
+                total.merge(worker.get());
+            }
+            total.print(durationSeconds);
+        }
+    }
+
+    private static long[] seed(HttpClient client, String baseUrl, int productCount) throws Exception {
+        List<ProductDto> products = new ArrayList<>(productCount);
+        for (int i = 0; i < productCount; i++) {
+            products.add(ProductDto.builder().product_name("Load test product " + i).price(BigDecimal.valueOf(i)).build());
+        }
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/product/bulk"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(products)))
+                .build();
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        List<BulkItemResult> results = objectMapper.readValue(response.body(), new TypeReference<>() {
+        });
+        return results.stream().filter(result -> result.getStatus() == 201).mapToLong(BulkItemResult::getProduct_id).toArray();
+    }
+
+    private static Result runWorker(HttpClient client, String baseUrl, long[] productIds, long measureFrom, long measureUntil) {
+        Result result = new Result();
+        long now = System.nanoTime();
+        while (now < measureUntil) {
+            long productId = productIds[ThreadLocalRandom.current().nextInt(productIds.length)];
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/product/" + productId))
+                    .timeout(Duration.ofSeconds(30))
+                    .GET()
+                    .build();
+            long start = System.nanoTime();
+            boolean ok;
+            try {
+                ok = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+            } catch (Exception e) {
+                ok = false;
+            }
+            now = System.nanoTime();
+            if (start >= measureFrom && now < measureUntil) {
+                result.record(now - start, ok);
+            }
+        }
+        return result;
+    }
+
+    private static final class Result {
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+
+        void record(long latencyNanos, boolean ok) {
+            if (!ok) {
+                errors++;
+                return;
+            }
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latencyNanos;
+        }
+
+        void merge(Result other) {
+            if (count + other.count > latencies.length) {
+                latencies = Arrays.copyOf(latencies, count + other.count);
+            }
+            System.arraycopy(other.latencies, 0, latencies, count, other.count);
+            count += other.count;
+            errors += other.errors;
+        }
+
+        void print(int durationSeconds) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            System.out.printf("requests=%d errors=%d throughput=%.0f req/s%n", count, errors, (double) count / durationSeconds);
+            System.out.printf("p50=%.2fms p90=%.2fms p99=%.2fms p99.9=%.2fms max=%.2fms%n",
+                    percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99),
+                    percentile(sorted, 0.999), percentile(sorted, 1.0));
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1);
+            return sorted[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+}
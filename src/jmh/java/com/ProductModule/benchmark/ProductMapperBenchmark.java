@@ -0,0 +1,90 @@
+package com.ProductModule.benchmark;
+
+import com.ProductModule.Entity.Product;
+import com.ProductModule.mapper.ProductMapper;
+import com.ProductModule.payLoad.ProductDto;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reflective ModelMapper (the previous implementation) against the direct {@link ProductMapper},
+ * for a single conversion and for the bulk list conversion used by getAllProduct.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductMapperBenchmark {
+
+    @Param({"1000"})
+    public int listSize;
+
+    private ModelMapper modelMapper;
+    private ProductMapper productMapper;
+    private Product product;
+    private ProductDto productDto;
+    private List<Product> products;
+
+    @Setup
+    public void setUp() {
+        modelMapper = new ModelMapper();
+        productMapper = new ProductMapper();
+        product = Product.builder().product_id(1L).product_name("Apple").price(new BigDecimal("45")).build();
+        productDto = ProductDto.builder().product_id(1L).product_name("Apple").price(new BigDecimal("45")).build();
+        products = new ArrayList<>(listSize);
+        for (long i = 0; i < listSize; i++) {
+            products.add(Product.builder().product_id(i).product_name("Product " + i).price(BigDecimal.valueOf(i)).build());
+        }
+    }
+
+    @Benchmark
+    public ProductDto modelMapperToDto() {
+        return modelMapper.map(product, ProductDto.class);
+    }
+
+    @Benchmark
+    public ProductDto productMapperToDto() {
+        return productMapper.toDto(product);
+    }
+
+    @Benchmark
+    public Product modelMapperToEntity() {
+        return modelMapper.map(productDto, Product.class);
+    }
+
+    @Benchmark
+    public Product productMapperToEntity() {
+        return productMapper.toEntity(productDto);
+    }
+
+    @Benchmark
+    public List<ProductDto> modelMapperToDtoList() {
+        List<ProductDto> productDtos = new ArrayList<>(products.size());
+        for (Product each : products) {
+            productDtos.add(modelMapper.map(each, ProductDto.class));
+        }
+        return productDtos;
+    }
+
+    @Benchmark
+    public List<ProductDto> productMapperToDtoList() {
+        return productMapper.toDtoList(products);
+    }
+}
@@ -5,17 +5,51 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.SQLRestriction;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.math.BigDecimal;
+import java.time.Instant;
 
 @Entity
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
-@Table(name = "product")  // Ensure this matches your actual table name
+@Table(name = "product", // Ensure this matches your actual table name
+        indexes = {@Index(name = "idx_product_price", columnList = "price, product_id"),
+                @Index(name = "idx_product_last_modified", columnList = "last_modified, product_id")})
+// soft-deleted rows are invisible to every entity and JPQL read; only the /changes native query sees them
+@SQLRestriction("deleted = false")
 
 public class Product {
     @Id
     public Long product_id;
     public String product_name;
-    public String price;
+    /**
+     * Fixed-point price; scale 2 keeps cents exact. Indexed together with the id for keyset paging by price.
+     */
+    @Column(precision = 19, scale = 2)
+    public BigDecimal price;
+    /**
+     * Incremented on every update; optimistic lock and the source of the product's ETag. Null only before the first persist.
+     */
+    @Version
+    @Column(nullable = false)
+    public Long version;
+    /**
+     * Time of the last write, from the application clock; with the id it orders /changes. Set by Hibernate on
+     * persist and dirty-checked updates, and passed explicitly by the JPQL and JDBC updates.
+     */
+    @UpdateTimestamp
+    @ColumnDefault("CURRENT_TIMESTAMP(6)")
+    @Column(nullable = false)
+    public Instant last_modified;
+    /**
+     * Tombstone: a deleted product stays until product.changes.tombstone-retention so /changes can report it.
+     */
+    @ColumnDefault("false")
+    @Column(nullable = false)
+    public boolean deleted;
 }
@@ -0,0 +1,40 @@
+package com.ProductModule.Entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * One row of the product change log (transactional outbox). Written in the transaction of the product write,
+ * so a change is logged exactly when it commits; {@code event_id} orders the log.
+ */
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Table(name = "product_event",
+        indexes = @Index(name = "idx_product_event_created_at", columnList = "created_at"))
+public class ProductEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    public Long event_id;
+    @Column(nullable = false, length = 16)
+    public String change_type;
+    @Column(nullable = false)
+    public Long product_id;
+    /**
+     * Product state after the change; null for deletes.
+     */
+    public String product_name;
+    @Column(precision = 19, scale = 2)
+    public BigDecimal price;
+    public Long version;
+    @Column(nullable = false)
+    public Instant created_at;
+}
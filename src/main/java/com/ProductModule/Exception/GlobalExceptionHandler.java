@@ -2,8 +2,11 @@ package com.ProductModule.Exception;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
@@ -23,7 +26,7 @@ public class GlobalExceptionHandler {
     }
     @ExceptionHandler(InvalidProductIdException.class)
     public ResponseEntity<String> getInvalidProductIdException(InvalidProductIdException invalidProductIdException){
-        logger.error("Product id can't null and negative:{}"+invalidProductIdException.getMessage());
+        logger.error("Product id can't null and negative:{}", invalidProductIdException.getMessage());
         return new ResponseEntity<>(invalidProductIdException.getMessage(),HttpStatus.BAD_REQUEST);
     }
     @ExceptionHandler(InvalidProductDataException.class)
@@ -31,4 +34,27 @@ public class GlobalExceptionHandler {
         logger.error("ProductDto is empty:{}",invalidProductDataException.getMessage());
         return new ResponseEntity<>(invalidProductDataException.getMessage(),HttpStatus.BAD_REQUEST);
     }
+    @ExceptionHandler(ProductVersionConflictException.class)
+    public ResponseEntity<String> getProductVersionConflictException(ProductVersionConflictException productVersionConflictException){
+        logger.warn("Product version conflict: {}", productVersionConflictException.getMessage());
+        return new ResponseEntity<>(productVersionConflictException.getMessage(), productVersionConflictException.getHttpStatus());
+    }
+    /**
+     * A concurrent write won and the automatic retries were used up.
+     */
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<String> getOptimisticLockingFailure(ObjectOptimisticLockingFailureException optimisticLockingFailureException){
+        logger.warn("Product was modified concurrently: {}", optimisticLockingFailureException.getMessage());
+        return new ResponseEntity<>("Product was modified concurrently, retry the request", HttpStatus.CONFLICT);
+    }
+    /**
+     * No database connection within the wait limits; the client may retry, unlike after a failure of the request.
+     */
+    @ExceptionHandler(CannotCreateTransactionException.class)
+    public ResponseEntity<String> getCannotCreateTransactionException(CannotCreateTransactionException cannotCreateTransactionException){
+        logger.warn("No database connection available: {}", cannotCreateTransactionException.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("Database is busy, retry the request");
+    }
 }
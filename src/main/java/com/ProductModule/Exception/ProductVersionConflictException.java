@@ -0,0 +1,27 @@
+package com.ProductModule.Exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * The product was changed since the version the client based its write on.
+ * {@link HttpStatus#PRECONDITION_FAILED} when the version came from If-Match,
+ * {@link HttpStatus#CONFLICT} when it came from the request body.
+ */
+public class ProductVersionConflictException extends RuntimeException {
+    public HttpStatus httpStatus;
+    public Long currentVersion;
+
+    public ProductVersionConflictException(String message, HttpStatus httpStatus, Long currentVersion) {
+        super(message);
+        this.httpStatus = httpStatus;
+        this.currentVersion = currentVersion;
+    }
+
+    public HttpStatus getHttpStatus() {
+        return httpStatus;
+    }
+
+    public Long getCurrentVersion() {
+        return currentVersion;
+    }
+}
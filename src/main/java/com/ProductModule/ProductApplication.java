@@ -2,7 +2,13 @@ package com.ProductModule;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-@SpringBootApplication
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+
+/**
+ * R2DBC auto-configuration is excluded because an auto-configured ConnectionFactory bean would switch off the
+ * JDBC DataSource used by JPA; the reactive endpoints build their own pool in ReactiveProductRepository.
+ */
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
 public class ProductApplication {
 
 	public static void main(String[] args) {
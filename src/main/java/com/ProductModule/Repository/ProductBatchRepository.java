@@ -0,0 +1,26 @@
+package com.ProductModule.Repository;
+
+import com.ProductModule.Entity.Product;
+
+import java.util.List;
+
+/**
+ * Batched writes for the bulk endpoints. Every method must run inside a transaction.
+ */
+public interface ProductBatchRepository {
+
+    /**
+     * Persists new products through Hibernate JDBC batching (hibernate.jdbc.batch_size).
+     */
+    void insertAll(List<Product> products);
+
+    /**
+     * @return affected row count per product, in input order; 0 means the product does not exist
+     */
+    int[] updateAll(List<Product> products);
+
+    /**
+     * @return affected row count per id, in input order; 0 means the product does not exist
+     */
+    int[] deleteAllByIds(List<Long> productIds);
+}
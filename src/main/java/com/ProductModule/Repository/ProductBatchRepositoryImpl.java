@@ -0,0 +1,70 @@
+package com.ProductModule.Repository;
+
+import com.ProductModule.Entity.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Inserts go through the EntityManager so Hibernate batches them; updates and deletes use
+ * {@link JdbcTemplate#batchUpdate} because it reports the affected row count of every statement.
+ * Both share the transaction's connection.
+ */
+public class ProductBatchRepositoryImpl implements ProductBatchRepository {
+    private static final String UPDATE_SQL = "UPDATE product SET product_name = ?, price = ?, version = version + 1, last_modified = ? "
+            + "WHERE product_id = ? AND deleted = false";
+    // soft delete, like ProductRepository#deleteProduct
+    private static final String DELETE_SQL = "UPDATE product SET deleted = true, version = version + 1, last_modified = ? "
+            + "WHERE product_id = ? AND deleted = false";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public ProductBatchRepositoryImpl(JdbcTemplate jdbcTemplate,
+                                      @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void insertAll(List<Product> products) {
+        for (int i = 0; i < products.size(); i++) {
+            entityManager.persist(products.get(i));
+            if ((i + 1) % batchSize == 0) {
+                // send the batch and drop the managed copies so the persistence context stays small
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Override
+    public int[] updateAll(List<Product> products) {
+        Timestamp lastModified = Timestamp.from(Instant.now());
+        List<Object[]> args = new ArrayList<>(products.size());
+        for (Product product : products) {
+            args.add(new Object[]{product.getProduct_name(), product.getPrice(), lastModified, product.getProduct_id()});
+        }
+        return jdbcTemplate.batchUpdate(UPDATE_SQL, args);
+    }
+
+    @Override
+    public int[] deleteAllByIds(List<Long> productIds) {
+        Timestamp deletedAt = Timestamp.from(Instant.now());
+        List<Object[]> args = new ArrayList<>(productIds.size());
+        for (Long productId : productIds) {
+            args.add(new Object[]{deletedAt, productId});
+        }
+        return jdbcTemplate.batchUpdate(DELETE_SQL, args);
+    }
+}
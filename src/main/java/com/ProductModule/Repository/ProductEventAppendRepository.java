@@ -0,0 +1,20 @@
+package com.ProductModule.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Appends to the product change log. Must run in the transaction of the product write it records.
+ */
+public interface ProductEventAppendRepository {
+
+    /**
+     * Logs the current row of every given product, as seen by the calling transaction; missing products are skipped.
+     */
+    void appendCurrentState(String changeType, List<Long> productIds, Instant createdAt);
+
+    /**
+     * Logs a delete of every given product.
+     */
+    void appendDeleted(List<Long> productIds, Instant createdAt);
+}
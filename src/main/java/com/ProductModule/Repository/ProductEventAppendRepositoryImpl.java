@@ -0,0 +1,63 @@
+package com.ProductModule.Repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Copies the product rows into the log with INSERT ... SELECT, so the logged state (including the version) is what
+ * the transaction wrote, without reading it into the application. Runs on the transaction's connection and is not
+ * seen by Hibernate statement statistics.
+ */
+public class ProductEventAppendRepositoryImpl implements ProductEventAppendRepository {
+    private static final String APPEND_STATE_SQL = "INSERT INTO product_event (change_type, product_id, product_name, price, version, created_at) "
+            + "SELECT :changeType, product_id, product_name, price, version, :createdAt FROM product WHERE product_id IN (:productIds) ORDER BY product_id";
+    private static final String APPEND_DELETED_SQL = "INSERT INTO product_event (change_type, product_id, created_at) VALUES (:changeType, :productId, :createdAt)";
+    private static final String DELETED = "DELETED";
+    // keeps the IN list well below driver and database parameter limits
+    private static final int IN_LIST_SIZE = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public ProductEventAppendRepositoryImpl(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void appendCurrentState(String changeType, List<Long> productIds, Instant createdAt) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            // pending inserts of the persistence context must reach the table the SELECT reads
+            entityManager.flush();
+        }
+        Timestamp timestamp = Timestamp.from(createdAt);
+        for (int from = 0; from < productIds.size(); from += IN_LIST_SIZE) {
+            List<Long> chunk = productIds.subList(from, Math.min(from + IN_LIST_SIZE, productIds.size()));
+            jdbcTemplate.update(APPEND_STATE_SQL, new MapSqlParameterSource()
+                    .addValue("changeType", changeType)
+                    .addValue("createdAt", timestamp)
+                    .addValue("productIds", chunk));
+        }
+    }
+
+    @Override
+    public void appendDeleted(List<Long> productIds, Instant createdAt) {
+        Timestamp timestamp = Timestamp.from(createdAt);
+        List<MapSqlParameterSource> args = new ArrayList<>(productIds.size());
+        for (Long productId : productIds) {
+            args.add(new MapSqlParameterSource()
+                    .addValue("changeType", DELETED)
+                    .addValue("productId", productId)
+                    .addValue("createdAt", timestamp));
+        }
+        jdbcTemplate.batchUpdate(APPEND_DELETED_SQL, args.toArray(new MapSqlParameterSource[0]));
+    }
+}
@@ -0,0 +1,24 @@
+package com.ProductModule.Repository;
+
+import com.ProductModule.Entity.ProductEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface ProductEventRepository extends JpaRepository<ProductEvent, Long>, ProductEventAppendRepository {
+
+    /**
+     * Log entries after the given offset, in log order.
+     */
+    @Query("SELECT e FROM ProductEvent e WHERE e.event_id > :afterId ORDER BY e.event_id ASC")
+    List<ProductEvent> findAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM ProductEvent e WHERE e.created_at < :before")
+    int deleteOlderThan(@Param("before") Instant before);
+}
@@ -1,7 +1,150 @@
 package com.ProductModule.Repository;
 
 import com.ProductModule.Entity.Product;
+import com.ProductModule.payLoad.ProductDto;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface ProductRepository extends JpaRepository<Product, Long> {
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductBatchRepository {
+
+    /**
+     * Keyset page: products with an id strictly greater than {@code afterId}, in id order.
+     * Uses the primary key index, so the cost of a page does not grow with its position in the table.
+     */
+    @Query("SELECT p FROM Product p WHERE p.product_id > :afterId ORDER BY p.product_id ASC")
+    List<Product> findPageAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Keyset page in id order restricted to a price range; the range predicate is evaluated by the database.
+     */
+    @Query("SELECT p FROM Product p WHERE p.price BETWEEN :minPrice AND :maxPrice AND p.product_id > :afterId "
+            + "ORDER BY p.product_id ASC")
+    List<Product> findPageAfterInPriceRange(@Param("minPrice") BigDecimal minPrice, @Param("maxPrice") BigDecimal maxPrice,
+                                            @Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Keyset page ordered by price then id, starting after the (afterPrice, afterId) position.
+     * Walks the (price, product_id) index, so neither filtering nor sorting happens in the JVM.
+     */
+    @Query("SELECT p FROM Product p WHERE p.price BETWEEN :minPrice AND :maxPrice "
+            + "AND (p.price > :afterPrice OR (p.price = :afterPrice AND p.product_id > :afterId)) "
+            + "ORDER BY p.price ASC, p.product_id ASC")
+    List<Product> findPageByPriceAsc(@Param("minPrice") BigDecimal minPrice, @Param("maxPrice") BigDecimal maxPrice,
+                                     @Param("afterPrice") BigDecimal afterPrice, @Param("afterId") Long afterId,
+                                     Pageable pageable);
+
+    /**
+     * Descending counterpart of {@link #findPageByPriceAsc}: continues below the (beforePrice, beforeId) position.
+     */
+    @Query("SELECT p FROM Product p WHERE p.price BETWEEN :minPrice AND :maxPrice "
+            + "AND (p.price < :beforePrice OR (p.price = :beforePrice AND p.product_id < :beforeId)) "
+            + "ORDER BY p.price DESC, p.product_id DESC")
+    List<Product> findPageByPriceDesc(@Param("minPrice") BigDecimal minPrice, @Param("maxPrice") BigDecimal maxPrice,
+                                      @Param("beforePrice") BigDecimal beforePrice, @Param("beforeId") Long beforeId,
+                                      Pageable pageable);
+
+    /**
+     * Streams every product as a DTO projection. The rows are never attached to the persistence context,
+     * so memory stays flat while the cursor is consumed. Must be called inside a transaction and closed.
+     * On MySQL add useCursorFetch=true to the JDBC url so the fetch size is honoured by the driver.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.ProductModule.payLoad.ProductDto(p.product_id, p.product_name, p.price, p.version) FROM Product p ORDER BY p.product_id ASC")
+    Stream<ProductDto> streamAllAsDto();
+
+    /**
+     * {@link #streamAllAsDto()} starting at {@code fromId}, inclusive; lets an export resume mid-catalog.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.ProductModule.payLoad.ProductDto(p.product_id, p.product_name, p.price, p.version) FROM Product p "
+            + "WHERE p.product_id >= :fromId ORDER BY p.product_id ASC")
+    Stream<ProductDto> streamAllAsDtoFrom(@Param("fromId") long fromId);
+
+    /**
+     * Current state of the given products as DTOs, read straight from the table; missing ids are absent.
+     */
+    @Query("SELECT new com.ProductModule.payLoad.ProductDto(p.product_id, p.product_name, p.price, p.version) FROM Product p WHERE p.product_id IN :productIds")
+    List<ProductDto> findAllAsDtoByIdIn(@Param("productIds") Collection<Long> productIds);
+
+    /**
+     * Version of a product without loading the row into the persistence context; backs conditional GETs.
+     */
+    @Query("SELECT p.version FROM Product p WHERE p.product_id = :productId")
+    Optional<Long> findVersionById(@Param("productId") Long productId);
+
+    /**
+     * A bulk JPQL update bypasses Hibernate's versioning and timestamps, so both are set explicitly.
+     *
+     * @return number of updated rows, 0 when the product does not exist
+     */
+    default int updateProduct(Long productId, String productName, BigDecimal price) {
+        return updateProduct(productId, productName, price, Instant.now());
+    }
+
+    @Modifying
+    @Query("UPDATE Product p SET p.product_name = :productName, p.price = :price, p.version = p.version + 1, "
+            + "p.last_modified = :lastModified WHERE p.product_id = :productId AND p.deleted = false")
+    int updateProduct(@Param("productId") Long productId, @Param("productName") String productName, @Param("price") BigDecimal price,
+                      @Param("lastModified") Instant lastModified);
+
+    /**
+     * Compare-and-set variant of {@link #updateProduct}: only writes when the stored version is still {@code version}.
+     *
+     * @return number of updated rows, 0 when the product does not exist or has a different version
+     */
+    default int updateProductIfVersion(Long productId, String productName, BigDecimal price, Long version) {
+        return updateProductIfVersion(productId, productName, price, version, Instant.now());
+    }
+
+    @Modifying
+    @Query("UPDATE Product p SET p.product_name = :productName, p.price = :price, p.version = p.version + 1, "
+            + "p.last_modified = :lastModified WHERE p.product_id = :productId AND p.version = :version AND p.deleted = false")
+    int updateProductIfVersion(@Param("productId") Long productId, @Param("productName") String productName,
+                               @Param("price") BigDecimal price, @Param("version") Long version,
+                               @Param("lastModified") Instant lastModified);
+
+    /**
+     * Soft delete: the row becomes a tombstone that /changes reports until it is purged.
+     *
+     * @return number of deleted rows, 0 when the product does not exist
+     */
+    default int deleteProduct(Long productId) {
+        return softDeleteProduct(productId, Instant.now());
+    }
+
+    @Modifying
+    @Query("UPDATE Product p SET p.deleted = true, p.version = p.version + 1, p.last_modified = :deletedAt "
+            + "WHERE p.product_id = :productId AND p.deleted = false")
+    int softDeleteProduct(@Param("productId") Long productId, @Param("deletedAt") Instant deletedAt);
+
+    /**
+     * Rows, tombstones included, written after the (sinceTime, sinceId) position and no later than {@code until},
+     * in (last_modified, product_id) order; a range scan on idx_product_last_modified. Native, so the soft-delete
+     * restriction does not hide the tombstones.
+     */
+    @Query(value = "SELECT * FROM product WHERE last_modified <= :until "
+            + "AND (last_modified > :sinceTime OR (last_modified = :sinceTime AND product_id > :sinceId)) "
+            + "ORDER BY last_modified ASC, product_id ASC", nativeQuery = true)
+    List<Product> findModifiedAfter(@Param("sinceTime") Instant sinceTime, @Param("sinceId") long sinceId,
+                                    @Param("until") Instant until, Pageable pageable);
+
+    /**
+     * @return number of tombstones removed for good
+     */
+    @Modifying
+    @Query(value = "DELETE FROM product WHERE deleted = true AND last_modified < :before", nativeQuery = true)
+    int purgeDeletedBefore(@Param("before") Instant before);
 }
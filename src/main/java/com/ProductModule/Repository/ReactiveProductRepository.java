@@ -0,0 +1,137 @@
+package com.ProductModule.Repository;
+
+import com.ProductModule.payLoad.ProductDto;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Non-blocking access to the product table through R2DBC.
+ * The connection pool is deliberately not a Spring bean: a ConnectionFactory bean would make Spring Boot
+ * back off from creating the JDBC DataSource that JPA and the blocking controller rely on.
+ */
+@Repository
+@ConditionalOnProperty(name = "product.reactive.enabled", havingValue = "true")
+public class ReactiveProductRepository implements DisposableBean {
+    private static final String COLUMNS = "product_id, product_name, price, version";
+    private final ConnectionPool connectionPool;
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+
+    public ReactiveProductRepository(@Value("${product.reactive.r2dbc-url}") String url,
+                                     @Value("${product.reactive.username:${spring.datasource.username:}}") String username,
+                                     @Value("${product.reactive.password:${spring.datasource.password:}}") String password,
+                                     @Value("${product.reactive.max-pool-size:20}") int maxPoolSize) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+        this.connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .maxSize(maxPoolSize)
+                .build());
+        this.databaseClient = DatabaseClient.create(connectionPool);
+        this.transactionalOperator = TransactionalOperator.create(new R2dbcTransactionManager(connectionPool));
+    }
+
+    public Mono<ProductDto> findById(Long productId) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM product WHERE product_id = :productId AND deleted = false")
+                .bind("productId", productId)
+                .map(ReactiveProductRepository::toDto)
+                .one();
+    }
+
+    /**
+     * Rows are pulled from the driver as the subscriber requests them.
+     */
+    public Flux<ProductDto> findAll() {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM product WHERE deleted = false ORDER BY product_id")
+                .map(ReactiveProductRepository::toDto)
+                .all();
+    }
+
+    public Mono<Long> insert(ProductDto productDto) {
+        return bindNullable(databaseClient.sql("INSERT INTO product (" + COLUMNS + ", last_modified, deleted) "
+                        + "VALUES (:productId, :productName, :price, 0, :lastModified, false)")
+                .bind("productId", productDto.getProduct_id())
+                .bind("lastModified", Instant.now()), productDto)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Replaces name and price; emits the updated row, or completes empty when no product matched.
+     */
+    public Mono<ProductDto> update(ProductDto productDto) {
+        return updateAndRead(productDto.getProduct_id(), bindNullable(databaseClient.sql("UPDATE product SET product_name = :productName, price = :price, version = version + 1, "
+                        + "last_modified = :lastModified WHERE product_id = :productId AND deleted = false")
+                .bind("productId", productDto.getProduct_id())
+                .bind("lastModified", Instant.now()), productDto)
+                .fetch()
+                .rowsUpdated());
+    }
+
+    /**
+     * Updates only the non-null fields of the DTO; emits the updated row, or completes empty when no product matched.
+     */
+    public Mono<ProductDto> patch(ProductDto productDto) {
+        return updateAndRead(productDto.getProduct_id(), bindNullable(databaseClient.sql("UPDATE product SET product_name = COALESCE(:productName, product_name), "
+                        + "price = COALESCE(:price, price), version = version + 1, last_modified = :lastModified "
+                        + "WHERE product_id = :productId AND deleted = false")
+                .bind("productId", productDto.getProduct_id())
+                .bind("lastModified", Instant.now()), productDto)
+                .fetch()
+                .rowsUpdated());
+    }
+
+    /**
+     * Soft delete, like the blocking API, so /changes reports it.
+     */
+    public Mono<Long> deleteById(Long productId) {
+        return databaseClient.sql("UPDATE product SET deleted = true, version = version + 1, last_modified = :deletedAt "
+                        + "WHERE product_id = :productId AND deleted = false")
+                .bind("productId", productId)
+                .bind("deletedAt", Instant.now())
+                .fetch()
+                .rowsUpdated();
+    }
+
+    @Override
+    public void destroy() {
+        connectionPool.dispose();
+    }
+
+    /**
+     * Runs the UPDATE and reads the row back in one transaction. The UPDATE keeps the row locked until the commit,
+     * so the row read is the one just written, with its incremented version, not a later writer's.
+     */
+    private Mono<ProductDto> updateAndRead(Long productId, Mono<Long> update) {
+        return update.flatMap(updated -> updated == 0 ? Mono.<ProductDto>empty() : findById(productId))
+                .as(transactionalOperator::transactional);
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindNullable(DatabaseClient.GenericExecuteSpec spec, ProductDto productDto) {
+        spec = productDto.getProduct_name() == null
+                ? spec.bindNull("productName", String.class) : spec.bind("productName", productDto.getProduct_name());
+        return productDto.getPrice() == null
+                ? spec.bindNull("price", BigDecimal.class) : spec.bind("price", productDto.getPrice());
+    }
+
+    private static ProductDto toDto(Readable row) {
+        return new ProductDto(row.get("product_id", Long.class), row.get("product_name", String.class),
+                row.get("price", BigDecimal.class), row.get("version", Long.class));
+    }
+}
@@ -0,0 +1,104 @@
+package com.ProductModule.cache;
+
+import com.ProductModule.event.ProductInvalidation;
+import com.ProductModule.mapper.ProductMapper;
+import com.ProductModule.payLoad.ProductDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * In-JVM stand-in for the shared cache: a Caffeine cache with the same tombstone rules as the Redis one, and
+ * subscribers called synchronously on the publishing thread. Instances in the same JVM that share it behave like
+ * separate nodes, which is how tests exercise cross-node invalidation.
+ */
+@Component
+@ConditionalOnProperty(name = "product.cache.l2.type", havingValue = "local", matchIfMissing = true)
+public class LocalProductSharedCache implements ProductSharedCache {
+    private record Entry(ProductDto product) {
+    }
+
+    private static final Entry TOMBSTONE = new Entry(null);
+    private final ProductMapper productMapper;
+    private final Cache<Long, Entry> cache;
+    private final List<Consumer<ProductInvalidation>> listeners = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    public LocalProductSharedCache(ProductMapper productMapper,
+                                   @Value("${product.cache.l2.maximum-size:100000}") long maximumSize,
+                                   @Value("${product.cache.l2.ttl:30m}") Duration ttl,
+                                   @Value("${product.cache.l2.tombstone-ttl:5s}") Duration tombstoneTtl) {
+        this.productMapper = productMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<Long, Entry>() {
+                    @Override
+                    public long expireAfterCreate(Long productId, Entry entry, long currentTime) {
+                        return lifetime(entry);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Long productId, Entry entry, long currentTime, long currentDuration) {
+                        return lifetime(entry);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Long productId, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    private long lifetime(Entry entry) {
+                        return (entry == TOMBSTONE ? tombstoneTtl : ttl).toNanos();
+                    }
+                })
+                .build();
+    }
+
+    @Override
+    public ProductDto get(Long productId) {
+        Entry entry = cache.getIfPresent(productId);
+        return entry == null ? null : productMapper.copy(entry.product());
+    }
+
+    @Override
+    public Map<Long, ProductDto> getAll(Collection<Long> productIds) {
+        Map<Long, ProductDto> products = new HashMap<>();
+        cache.getAllPresent(productIds).forEach((productId, entry) -> {
+            if (entry != TOMBSTONE) {
+                products.put(productId, productMapper.copy(entry.product()));
+            }
+        });
+        return products;
+    }
+
+    @Override
+    public void putAll(Collection<ProductDto> products) {
+        for (ProductDto productDto : products) {
+            cache.asMap().putIfAbsent(productDto.getProduct_id(), new Entry(productMapper.copy(productDto)));
+        }
+    }
+
+    @Override
+    public void invalidate(ProductInvalidation invalidation) {
+        invalidation.productIds().forEach(productId -> cache.put(productId, TOMBSTONE));
+        listeners.forEach(listener -> listener.accept(invalidation));
+    }
+
+    @Override
+    public void subscribe(Consumer<ProductInvalidation> listener, Runnable onGap) {
+        // messages are delivered synchronously and never lost
+        listeners.add(listener);
+    }
+}
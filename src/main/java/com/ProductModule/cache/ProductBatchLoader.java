@@ -0,0 +1,165 @@
+package com.ProductModule.cache;
+
+import com.ProductModule.payLoad.ProductDto;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Merges concurrent product loads into shared database queries. It sits behind {@link ProductCache}, which
+ * already makes concurrent misses for the same id share one load; this class handles different ids.
+ * <p>
+ * The first caller to arrive becomes the leader of a new batch. Callers that arrive before the batch closes add
+ * their id to it, and the leader runs one query for all of them. While no load is running the leader runs at
+ * once, so an idle service adds no latency and a batch of one id uses the single-product loader. While loads
+ * are running, the leader waits up to product.batch-loader.window, or until product.batch-loader.max-batch-size
+ * ids have joined, and then runs one bulk (IN) query. Under a thundering herd the number of queries therefore
+ * follows the number of concurrent loads divided by the batch size, not the number of requests.
+ * <p>
+ * Callers wait on futures rather than monitors, so waiting does not pin virtual threads. The meters
+ * {@code product.batch-loader.lookups} and {@code product.batch-loader.queries} show the reduction.
+ */
+@Component
+public class ProductBatchLoader implements MeterBinder {
+    private final boolean enabled;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final ReentrantLock lock = new ReentrantLock();
+    // batch that new ids join; guarded by lock
+    private Batch open;
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicLong lookups = new AtomicLong();
+    private final AtomicLong queries = new AtomicLong();
+
+    @Autowired
+    public ProductBatchLoader(@Value("${product.batch-loader.enabled:true}") boolean enabled,
+                              @Value("${product.batch-loader.window:2ms}") Duration window,
+                              @Value("${product.batch-loader.max-batch-size:200}") int maxBatchSize) {
+        this.enabled = enabled;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    private static final class Batch {
+        // written under the lock until the batch is closed, read-only afterwards
+        private final Map<Long, CompletableFuture<ProductDto>> futures = new HashMap<>();
+        private final CountDownLatch full = new CountDownLatch(1);
+    }
+
+    /**
+     * Loads one product, possibly as part of a batch led by another caller. All callers must pass equivalent loaders.
+     *
+     * @param loader     loads a single product, null when it does not exist
+     * @param bulkLoader loads several products; ids it leaves out do not exist
+     * @return null when the product does not exist
+     */
+    public ProductDto load(Long productId, Function<Long, ProductDto> loader,
+                           Function<Set<Long>, Map<Long, ProductDto>> bulkLoader) {
+        lookups.incrementAndGet();
+        if (!enabled) {
+            queries.incrementAndGet();
+            return loader.apply(productId);
+        }
+        Batch batch;
+        CompletableFuture<ProductDto> future;
+        boolean leader = false;
+        lock.lock();
+        try {
+            if (open == null) {
+                open = new Batch();
+                leader = true;
+            }
+            batch = open;
+            future = batch.futures.computeIfAbsent(productId, id -> new CompletableFuture<>());
+            if (batch.futures.size() >= maxBatchSize) {
+                open = null;
+                batch.full.countDown();
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (leader) {
+            if (running.get() > 0) {
+                awaitFill(batch);
+            }
+            close(batch);
+            execute(batch, loader, bulkLoader);
+        }
+        return join(future);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("product.batch-loader.lookups", lookups, AtomicLong::get)
+                .description("Product loads requested from the batch loader")
+                .register(registry);
+        FunctionCounter.builder("product.batch-loader.queries", queries, AtomicLong::get)
+                .description("Database queries the batch loader ran for them")
+                .register(registry);
+    }
+
+    private void awaitFill(Batch batch) {
+        try {
+            batch.full.await(windowNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void close(Batch batch) {
+        lock.lock();
+        try {
+            if (open == batch) {
+                open = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void execute(Batch batch, Function<Long, ProductDto> loader, Function<Set<Long>, Map<Long, ProductDto>> bulkLoader) {
+        running.incrementAndGet();
+        queries.incrementAndGet();
+        try {
+            if (batch.futures.size() == 1) {
+                Map.Entry<Long, CompletableFuture<ProductDto>> only = batch.futures.entrySet().iterator().next();
+                only.getValue().complete(loader.apply(only.getKey()));
+            } else {
+                Map<Long, ProductDto> found = bulkLoader.apply(Set.copyOf(batch.futures.keySet()));
+                batch.futures.forEach((productId, future) -> future.complete(found.get(productId)));
+            }
+        } catch (RuntimeException | Error e) {
+            // never leave followers waiting
+            batch.futures.values().forEach(future -> future.completeExceptionally(e));
+        } finally {
+            running.decrementAndGet();
+        }
+    }
+
+    private static ProductDto join(CompletableFuture<ProductDto> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package com.ProductModule.cache;
+
+import com.ProductModule.event.ProductChangedEvent;
+import com.ProductModule.event.ProductInvalidation;
+import com.ProductModule.mapper.ProductMapper;
+import com.ProductModule.payLoad.ProductCacheStats;
+import com.ProductModule.payLoad.ProductDto;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of product DTOs keyed by product id.
+ * Entries are evicted by size (W-TinyLFU) and by age, and invalidated after every committed write.
+ * Callers always receive a copy, so a mutated DTO never leaks back into the cache.
+ * <p>
+ * This in-heap cache is the first level in front of the {@link ProductSharedCache} that all instances share; a
+ * miss reads the shared cache before the database. After a local write commits, the shared entries are replaced
+ * with tombstones and an invalidation is broadcast. Other instances evict the products and republish the write as
+ * a remote {@link ProductChangedEvent}, so their other per-node caches and indexes follow as well. The propagation
+ * delay is measured by {@code product.cache.invalidation.lag}. Invalidations arrive on the shared cache's I/O thread;
+ * only the in-heap eviction runs there, and the remote event is published on a single thread of its own, in arrival
+ * order, because its listeners reload rows from the database and would otherwise stall the channel. An invalidation lost in transit is repaired when the
+ * entry expires, so product.cache.expire-after-write bounds how stale this cache can get, published as
+ * {@code product.cache.max-staleness}; after a reported gap in the channel the whole cache is dropped at once.
+ * <p>
+ * The cache holds futures: a miss installs an empty future and the calling thread loads it outside of
+ * Caffeine's internal lock. Concurrent callers for the same id wait on that future instead of querying again,
+ * and a blocking database load never runs inside a synchronized block, which would pin a virtual thread's carrier.
+ * <p>
+ * Hit, miss, eviction and size meters are published under {@code cache.*} with {@code cache="product"}.
+ */
+@Component
+public class ProductCache implements MeterBinder {
+    public static final String CACHE_NAME = "product";
+    private static final Logger logger = LoggerFactory.getLogger(ProductCache.class);
+    private final AsyncCache<Long, ProductDto> cache;
+    private final ProductMapper productMapper;
+    private final ProductSharedCache sharedCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration expireAfterWrite;
+    private final Executor invalidationExecutor;
+    // tells this instance's broadcasts apart from those of the others
+    private final String instance = Long.toHexString(ThreadLocalRandom.current().nextLong());
+    private final AtomicLong invalidationsSent = new AtomicLong();
+    private final AtomicLong invalidationsReceived = new AtomicLong();
+    private final AtomicLong invalidationGaps = new AtomicLong();
+    private volatile Timer invalidationLag;
+
+    @Autowired
+    public ProductCache(ProductMapper productMapper, ProductSharedCache sharedCache, ApplicationEventPublisher eventPublisher,
+                        @Value("${product.cache.maximum-size:10000}") long maximumSize,
+                        @Value("${product.cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        this(productMapper, sharedCache, eventPublisher, maximumSize, expireAfterWrite,
+                Executors.newSingleThreadExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "product-invalidation");
+                    thread.setDaemon(true);
+                    return thread;
+                }));
+    }
+
+    /**
+     * @param invalidationExecutor publishes the events of received invalidations; must keep their order
+     */
+    public ProductCache(ProductMapper productMapper, ProductSharedCache sharedCache, ApplicationEventPublisher eventPublisher,
+                        long maximumSize, Duration expireAfterWrite, Executor invalidationExecutor) {
+        this.productMapper = productMapper;
+        this.sharedCache = sharedCache;
+        this.eventPublisher = eventPublisher;
+        this.expireAfterWrite = expireAfterWrite;
+        this.invalidationExecutor = invalidationExecutor;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .buildAsync();
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        sharedCache.subscribe(this::onInvalidation, this::onInvalidationGap);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (invalidationExecutor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Returns the cached product or loads it on the calling thread. Concurrent misses for the same id share one load.
+     *
+     * @param loader returns null when the product does not exist; nulls are not cached
+     */
+    public ProductDto get(Long productId, Function<Long, ProductDto> loader) {
+        CompletableFuture<ProductDto> created = new CompletableFuture<>();
+        CompletableFuture<ProductDto> future = cache.get(productId, (key, executor) -> created);
+        if (future == created) {
+            try {
+                created.complete(loadThrough(productId, loader));
+            } catch (RuntimeException e) {
+                created.completeExceptionally(e);
+            }
+        }
+        return productMapper.copy(join(future));
+    }
+
+    /**
+     * Bulk form of {@link #get}: the ids that are neither cached nor being loaded are passed to the loader in one
+     * call on the calling thread, and ids being loaded by another caller are waited for.
+     *
+     * @param loader returns the products it found; ids it leaves out are absent from the result and not cached
+     * @return copies of the products found, keyed by id
+     */
+    public Map<Long, ProductDto> getAll(Collection<Long> productIds, Function<Set<Long>, Map<Long, ProductDto>> loader) {
+        CompletableFuture<Map<Long, ProductDto>> created = new CompletableFuture<>();
+        AtomicReference<Set<Long>> missing = new AtomicReference<>();
+        CompletableFuture<Map<Long, ProductDto>> future = cache.getAll(productIds, (keys, executor) -> {
+            missing.set(Set.copyOf(keys));
+            return created;
+        });
+        if (missing.get() != null) {
+            try {
+                created.complete(loadAllThrough(missing.get(), loader));
+            } catch (RuntimeException e) {
+                created.completeExceptionally(e);
+            }
+        }
+        Map<Long, ProductDto> products = new HashMap<>();
+        join(future).forEach((productId, productDto) -> products.put(productId, productMapper.copy(productDto)));
+        return products;
+    }
+
+    /**
+     * Version of a cached product, or null when it is not cached; never loads.
+     */
+    public Long cachedVersion(Long productId) {
+        CompletableFuture<ProductDto> future = cache.getIfPresent(productId);
+        if (future == null || !future.isDone() || future.isCompletedExceptionally()) {
+            return null;
+        }
+        ProductDto productDto = future.getNow(null);
+        return productDto == null ? null : productDto.getVersion();
+    }
+
+    public void evict(Iterable<Long> productIds) {
+        cache.synchronous().invalidateAll(productIds);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        logger.debug("Evicting {} products from cache after {}", event.getProductIds().size(), event.getChangeType());
+        evict(event.getProductIds());
+        if (!event.isRemote() && !event.getProductIds().isEmpty()) {
+            sharedCache.invalidate(ProductInvalidation.of(instance, event));
+            invalidationsSent.incrementAndGet();
+        }
+    }
+
+    private void onInvalidation(ProductInvalidation invalidation) {
+        if (instance.equals(invalidation.origin())) {
+            return;
+        }
+        invalidationsReceived.incrementAndGet();
+        Timer lag = invalidationLag;
+        if (lag != null) {
+            lag.record(Math.max(0, System.currentTimeMillis() - invalidation.sentAt()), TimeUnit.MILLISECONDS);
+        }
+        evict(invalidation.productIds());
+        invalidationExecutor.execute(() -> eventPublisher.publishEvent(invalidation.toEvent()));
+    }
+
+    private void onInvalidationGap() {
+        invalidationGaps.incrementAndGet();
+        cache.synchronous().invalidateAll();
+    }
+
+    public ProductCacheStats stats() {
+        CacheStats stats = cache.synchronous().stats();
+        return ProductCacheStats.builder()
+                .size(cache.synchronous().estimatedSize())
+                .hit_count(stats.hitCount())
+                .miss_count(stats.missCount())
+                .eviction_count(stats.evictionCount())
+                .hit_rate(stats.hitRate())
+                .build();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new CaffeineCacheMetrics<>(cache.synchronous(), CACHE_NAME, Tags.empty()).bindTo(registry);
+        Gauge.builder("product.cache.hit.ratio", cache, c -> c.synchronous().stats().hitRate())
+                .description("Share of product lookups served from the cache since startup")
+                .register(registry);
+        invalidationLag = Timer.builder("product.cache.invalidation.lag")
+                .description("Time from a write on another instance until its invalidation arrived here")
+                .register(registry);
+        FunctionCounter.builder("product.cache.invalidations.sent", invalidationsSent, AtomicLong::get)
+                .description("Invalidations broadcast after local writes")
+                .register(registry);
+        FunctionCounter.builder("product.cache.invalidations.received", invalidationsReceived, AtomicLong::get)
+                .description("Invalidations received from other instances")
+                .register(registry);
+        FunctionCounter.builder("product.cache.invalidation.gaps", invalidationGaps, AtomicLong::get)
+                .description("Times the invalidation channel may have lost messages and the cache was dropped")
+                .register(registry);
+        TimeGauge.builder("product.cache.max-staleness", expireAfterWrite, TimeUnit.MILLISECONDS, Duration::toMillis)
+                .description("Longest a lost invalidation can leave a product stale in this instance")
+                .register(registry);
+    }
+
+    private ProductDto loadThrough(Long productId, Function<Long, ProductDto> loader) {
+        ProductDto shared = sharedCache.get(productId);
+        if (shared != null) {
+            return shared;
+        }
+        ProductDto loaded = loader.apply(productId);
+        if (loaded != null) {
+            sharedCache.putAll(List.of(loaded));
+        }
+        return loaded;
+    }
+
+    private Map<Long, ProductDto> loadAllThrough(Set<Long> productIds, Function<Set<Long>, Map<Long, ProductDto>> loader) {
+        Map<Long, ProductDto> products = new HashMap<>(sharedCache.getAll(productIds));
+        if (products.size() < productIds.size()) {
+            Set<Long> remaining = new HashSet<>(productIds);
+            remaining.removeAll(products.keySet());
+            Map<Long, ProductDto> loaded = loader.apply(remaining);
+            sharedCache.putAll(loaded.values());
+            products.putAll(loaded);
+        }
+        return products;
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.ProductModule.cache;
+
+import com.ProductModule.event.ProductChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version of the catalog as a whole, used as the ETag of collection responses. It moves forward after every
+ * committed product write, so an unchanged token means no product was created, updated or deleted since.
+ * The token carries a random per-instance prefix: counters restart with the process and are not shared
+ * between instances, so a token issued elsewhere never matches by accident.
+ */
+@Component
+public class ProductCatalogVersion {
+    private final String instance = Long.toHexString(ThreadLocalRandom.current().nextLong());
+    private final AtomicLong changes = new AtomicLong();
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        changes.incrementAndGet();
+    }
+
+    /**
+     * Read before loading the collection: a write that commits in between makes the token older than the body,
+     * which only costs the client one extra download.
+     */
+    public String current() {
+        return instance + "-" + changes.get();
+    }
+}
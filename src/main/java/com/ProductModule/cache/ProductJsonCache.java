@@ -0,0 +1,241 @@
+package com.ProductModule.cache;
+
+import com.ProductModule.Exception.InvalidProductIdException;
+import com.ProductModule.Exception.ProductNotFoundException;
+import com.ProductModule.event.ProductChangedEvent;
+import com.ProductModule.payLoad.ProductDto;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Products already encoded as UTF-8 JSON, so a repeated GET skips both the DTO mapping and Jackson and the
+ * controller writes the stored bytes as they are.
+ * <ul>
+ *     <li>one entry per product id, bounded by product.json-cache.maximum-bytes of encoded JSON</li>
+ *     <li>the whole /getAll array for the current catalog version, held as 64 KB chunks so no single array of
+ *     the full body size is allocated; bodies over product.json-cache.catalog-max-bytes are encoded per request</li>
+ * </ul>
+ * Entries of written products are dropped after commit, and the catalog body is only served for the catalog
+ * version it was encoded at. A load that overlaps a write does not keep its possibly older encoding.
+ * <p>
+ * Hit, miss, eviction and size meters are published under {@code cache.*} with {@code cache="product.json"}.
+ */
+@Component
+public class ProductJsonCache implements MeterBinder {
+    public static final String CACHE_NAME = "product.json";
+    private static final Logger logger = LoggerFactory.getLogger(ProductJsonCache.class);
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter productWriter;
+    private final Cache<Long, EncodedProduct> cache;
+    private final long catalogMaxBytes;
+    // bumped before every invalidation, so a load can tell whether a write committed while it ran
+    private final AtomicLong generation = new AtomicLong();
+    private final ReentrantLock catalogLock = new ReentrantLock();
+    private volatile EncodedCatalog catalog;
+
+    @Autowired
+    public ProductJsonCache(ObjectMapper objectMapper,
+                            @Value("${product.json-cache.maximum-bytes:67108864}") long maximumBytes,
+                            @Value("${product.json-cache.catalog-max-bytes:134217728}") long catalogMaxBytes) {
+        this.objectMapper = objectMapper;
+        this.productWriter = objectMapper.writerFor(ProductDto.class);
+        this.catalogMaxBytes = catalogMaxBytes;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maximumBytes)
+                .weigher((Long productId, EncodedProduct encoded) -> encoded.json().length)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Loads a product for {@link #get}; the checked exceptions are those of the service lookup.
+     */
+    @FunctionalInterface
+    public interface ProductLoader {
+        ProductDto load() throws ProductNotFoundException, InvalidProductIdException;
+    }
+
+    /**
+     * @param json    the product as UTF-8 JSON; must not be modified
+     * @param version product version, the ETag
+     */
+    public record EncodedProduct(byte[] json, Long version) {
+    }
+
+    /**
+     * @param chunks the JSON array split into chunks; must not be modified
+     * @param length total length in bytes
+     */
+    public record EncodedCatalog(String catalogVersion, List<byte[]> chunks, long length) {
+
+        public void writeTo(OutputStream outputStream) throws IOException {
+            for (byte[] chunk : chunks) {
+                outputStream.write(chunk);
+            }
+        }
+    }
+
+    /**
+     * Returns the encoded product, encoding what the loader returns on a miss.
+     *
+     * @return null when the loader returns null
+     */
+    public EncodedProduct get(Long productId, ProductLoader loader) throws ProductNotFoundException, InvalidProductIdException {
+        EncodedProduct cached = cache.getIfPresent(productId);
+        if (cached != null) {
+            return cached;
+        }
+        long loadedAt = generation.get();
+        ProductDto productDto = loader.load();
+        if (productDto == null) {
+            return null;
+        }
+        EncodedProduct encoded = new EncodedProduct(encode(productDto), productDto.getVersion());
+        cache.put(productId, encoded);
+        if (generation.get() != loadedAt) {
+            // a write committed while loading; its invalidation may have run before the put
+            cache.asMap().remove(productId, encoded);
+        }
+        return encoded;
+    }
+
+    /**
+     * Returns the /getAll body for the given catalog version. Concurrent callers at a new version wait for one
+     * encoding instead of each loading the catalog.
+     */
+    public EncodedCatalog getCatalog(String catalogVersion, Supplier<List<ProductDto>> loader) {
+        EncodedCatalog current = catalog;
+        if (current != null && Objects.equals(current.catalogVersion(), catalogVersion)) {
+            return current;
+        }
+        catalogLock.lock();
+        try {
+            current = catalog;
+            if (current != null && Objects.equals(current.catalogVersion(), catalogVersion)) {
+                return current;
+            }
+            EncodedCatalog encoded = encodeCatalog(catalogVersion, loader.get());
+            if (encoded.length() <= catalogMaxBytes) {
+                catalog = encoded;
+            } else {
+                logger.debug("Catalog body of {} bytes exceeds the cache limit, not kept", encoded.length());
+            }
+            return encoded;
+        } finally {
+            catalogLock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        generation.incrementAndGet();
+        cache.invalidateAll(event.getProductIds());
+        // unusable once the catalog version moves on; release the memory now
+        catalog = null;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new CaffeineCacheMetrics<>(cache, CACHE_NAME, Tags.empty()).bindTo(registry);
+    }
+
+    private byte[] encode(ProductDto productDto) {
+        try {
+            return productWriter.writeValueAsBytes(productDto);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private EncodedCatalog encodeCatalog(String catalogVersion, List<ProductDto> products) {
+        ChunkedOutputStream outputStream = new ChunkedOutputStream();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.writeStartArray();
+            for (ProductDto productDto : products) {
+                productWriter.writeValue(generator, productDto);
+            }
+            generator.writeEndArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new EncodedCatalog(catalogVersion, outputStream.chunks(), outputStream.length());
+    }
+
+    /**
+     * Collects written bytes in fixed-size chunks; the last chunk is trimmed.
+     */
+    private static final class ChunkedOutputStream extends OutputStream {
+        private final List<byte[]> chunks = new ArrayList<>();
+        private byte[] current = new byte[CHUNK_SIZE];
+        private int position;
+        private long length;
+
+        @Override
+        public void write(int b) {
+            if (position == current.length) {
+                nextChunk();
+            }
+            current[position++] = (byte) b;
+            length++;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int count) {
+            while (count > 0) {
+                if (position == current.length) {
+                    nextChunk();
+                }
+                int copied = Math.min(count, current.length - position);
+                System.arraycopy(bytes, offset, current, position, copied);
+                position += copied;
+                offset += copied;
+                count -= copied;
+                length += copied;
+            }
+        }
+
+        List<byte[]> chunks() {
+            List<byte[]> all = new ArrayList<>(chunks);
+            if (position > 0) {
+                all.add(Arrays.copyOf(current, position));
+            }
+            return all;
+        }
+
+        long length() {
+            return length;
+        }
+
+        private void nextChunk() {
+            chunks.add(current);
+            current = new byte[CHUNK_SIZE];
+            position = 0;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.ProductModule.cache;
+
+import com.ProductModule.event.ProductInvalidation;
+import com.ProductModule.payLoad.ProductDto;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Second-level product cache shared by all instances, together with the pub/sub channel that carries
+ * {@link ProductInvalidation}s between them. Selected with product.cache.l2.type: {@code local} keeps both in the
+ * JVM, which is enough for a single instance and for tests; {@code redis} uses a Redis-compatible server.
+ * <p>
+ * An invalidation leaves a short-lived tombstone in place of the entry, and {@link #putAll} never replaces an
+ * existing entry or tombstone. A load that read the database before a write committed therefore cannot put its
+ * older copy back, as long as it finishes within product.cache.l2.tombstone-ttl.
+ * <p>
+ * The shared cache is an optimisation only: implementations report failures of the server as misses and log them
+ * rather than failing the request.
+ */
+public interface ProductSharedCache {
+
+    /**
+     * @return the cached product, null on a miss or a tombstone
+     */
+    ProductDto get(Long productId);
+
+    /**
+     * @return the cached products among the ids, keyed by id
+     */
+    Map<Long, ProductDto> getAll(Collection<Long> productIds);
+
+    /**
+     * Caches products loaded from the database unless an entry or tombstone for them already exists.
+     */
+    void putAll(Collection<ProductDto> products);
+
+    /**
+     * Replaces the entries of the written products with tombstones, then publishes the invalidation to every
+     * subscribed instance, including this one.
+     */
+    void invalidate(ProductInvalidation invalidation);
+
+    /**
+     * @param listener called with every published invalidation
+     * @param onGap    called after messages may have been lost, such as after a reconnect to the server
+     */
+    void subscribe(Consumer<ProductInvalidation> listener, Runnable onGap);
+}
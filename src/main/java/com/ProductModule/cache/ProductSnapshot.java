@@ -0,0 +1,434 @@
+package com.ProductModule.cache;
+
+import com.ProductModule.Repository.ProductRepository;
+import com.ProductModule.event.ProductChangedEvent;
+import com.ProductModule.mapper.ProductMapper;
+import com.ProductModule.payLoad.ProductDto;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Read-only copy of the whole catalog for read-heavy serving, enabled with product.snapshot.enabled=true.
+ * <p>
+ * Products are packed into one direct (off-heap) buffer, id and version followed by length-prefixed UTF-8 name
+ * and price, and found through an open-addressing table of primitive {@code long} keys. A million products are a
+ * handful of heap objects instead of millions of Product, Long, String and BigDecimal instances, so the garbage
+ * collector has nothing to trace and memory per product is predictable; a read allocates only the DTO it returns.
+ * <p>
+ * The packed snapshot is immutable. After each committed write the changed rows are re-read from the database into
+ * a small overlay that takes precedence over it; once the overlay holds product.snapshot.compact-threshold entries
+ * it is merged into a new snapshot without querying the database. Reads take no locks.
+ */
+@Component
+public class ProductSnapshot implements MeterBinder {
+    private static final Logger logger = LoggerFactory.getLogger(ProductSnapshot.class);
+    // overlay value of a deleted product; compared by identity
+    private static final ProductDto DELETED = new ProductDto();
+    private static final int RELOAD_CHUNK_SIZE = 1000;
+
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+    private final boolean enabled;
+    private final int compactThreshold;
+    private final ConcurrentHashMap<Long, ProductDto> overlay = new ConcurrentHashMap<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile Snapshot snapshot;
+
+    @Autowired
+    public ProductSnapshot(ProductRepository productRepository, ProductMapper productMapper,
+                           @Value("${product.snapshot.enabled:false}") boolean enabled,
+                           @Value("${product.snapshot.compact-threshold:10000}") int compactThreshold) {
+        this.productRepository = productRepository;
+        this.productMapper = productMapper;
+        this.enabled = enabled;
+        this.compactThreshold = compactThreshold;
+    }
+
+    /**
+     * True once the snapshot is enabled and loaded; until then callers read from the database.
+     */
+    public boolean isServing() {
+        return snapshot != null;
+    }
+
+    /**
+     * Packs every product from the streaming DTO query. Writes committed meanwhile are already in the overlay and
+     * keep precedence over the rows read here.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        Snapshot.Builder builder = new Snapshot.Builder(1024);
+        try (Stream<ProductDto> products = productRepository.streamAllAsDto()) {
+            products.forEachOrdered(builder::add);
+        }
+        Snapshot loaded = builder.build();
+        writeLock.lock();
+        try {
+            snapshot = loaded;
+            // changes the loaded rows already contain no longer need to be overlaid
+            overlay.entrySet().removeIf(entry -> entry.getValue() != DELETED
+                    && isAtLeast(loaded.version(entry.getKey()), entry.getValue().getVersion()));
+        } finally {
+            writeLock.unlock();
+        }
+        logger.info("Product snapshot loaded {} products into {} off-heap bytes", loaded.size(), loaded.bytes());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        boolean deleted = event.getChangeType() == ProductChangedEvent.ChangeType.DELETED;
+        // the event may not carry the stored version, so the committed rows are read back
+        List<ProductDto> current = deleted ? List.of() : reload(event.getProductIds());
+        writeLock.lock();
+        try {
+            if (deleted) {
+                event.getProductIds().forEach(productId -> overlay.put(productId, DELETED));
+            } else {
+                for (ProductDto productDto : current) {
+                    if (isNewer(productDto)) {
+                        overlay.put(productDto.getProduct_id(), productDto);
+                    }
+                }
+            }
+            Snapshot base = snapshot;
+            if (base != null && overlay.size() >= compactThreshold) {
+                compact(base);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * @return a copy of the product, or null when it is not in the snapshot
+     */
+    public ProductDto get(long productId) {
+        // overlay before snapshot: compaction publishes the new snapshot before it drops overlay entries
+        ProductDto overlaid = overlay.get(productId);
+        if (overlaid != null) {
+            return overlaid == DELETED ? null : productMapper.copy(overlaid);
+        }
+        Snapshot current = snapshot;
+        if (current == null) {
+            return null;
+        }
+        int offset = current.find(productId);
+        return offset < 0 ? null : current.read(offset);
+    }
+
+    /**
+     * Version of a product without decoding its name or price, or null when it is not in the snapshot.
+     */
+    public Long version(long productId) {
+        ProductDto overlaid = overlay.get(productId);
+        if (overlaid != null) {
+            return overlaid == DELETED ? null : overlaid.getVersion();
+        }
+        Snapshot current = snapshot;
+        return current == null ? null : current.version(productId);
+    }
+
+    /**
+     * Every product in id order: the packed records merged with the overlay.
+     */
+    public List<ProductDto> getAll() {
+        Map<Long, ProductDto> changes = new HashMap<>(overlay);
+        Snapshot current = snapshot;
+        if (current == null) {
+            return List.of();
+        }
+        List<ProductDto> changed = liveSortedById(changes);
+        List<ProductDto> products = new ArrayList<>(current.size() + changed.size());
+        int next = 0;
+        for (int offset : current.order) {
+            long productId = current.id(offset);
+            while (next < changed.size() && changed.get(next).getProduct_id() < productId) {
+                products.add(productMapper.copy(changed.get(next++)));
+            }
+            if (!changes.containsKey(productId)) {
+                products.add(current.read(offset));
+            }
+        }
+        while (next < changed.size()) {
+            products.add(productMapper.copy(changed.get(next++)));
+        }
+        return products;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!enabled) {
+            return;
+        }
+        Gauge.builder("product.snapshot.products", this, s -> s.snapshot == null ? 0 : s.snapshot.size())
+                .description("Products packed in the read snapshot, excluding the overlay")
+                .register(registry);
+        Gauge.builder("product.snapshot.overlay", overlay, Map::size)
+                .description("Products written since the read snapshot was last packed")
+                .register(registry);
+        Gauge.builder("product.snapshot.bytes", this, s -> s.snapshot == null ? 0 : s.snapshot.bytes())
+                .description("Off-heap bytes held by the read snapshot")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    private List<ProductDto> reload(List<Long> productIds) {
+        List<ProductDto> products = new ArrayList<>(productIds.size());
+        for (int from = 0; from < productIds.size(); from += RELOAD_CHUNK_SIZE) {
+            List<Long> chunk = productIds.subList(from, Math.min(from + RELOAD_CHUNK_SIZE, productIds.size()));
+            products.addAll(productRepository.findAllAsDtoByIdIn(chunk));
+        }
+        return products;
+    }
+
+    /**
+     * Listeners of concurrent writes to one product can finish out of order; only a higher version is applied.
+     */
+    private boolean isNewer(ProductDto productDto) {
+        ProductDto overlaid = overlay.get(productDto.getProduct_id());
+        if (overlaid == DELETED) {
+            return false;
+        }
+        Long known = overlaid != null ? overlaid.getVersion() : version(productDto.getProduct_id());
+        return !isAtLeast(known, productDto.getVersion());
+    }
+
+    private static boolean isAtLeast(Long version, Long other) {
+        return version != null && other != null && version >= other;
+    }
+
+    /**
+     * Packs the snapshot and the overlay into a new snapshot by copying records, then drops the merged overlay.
+     * Called with the write lock held.
+     */
+    private void compact(Snapshot base) {
+        Map<Long, ProductDto> changes = new HashMap<>(overlay);
+        List<ProductDto> changed = liveSortedById(changes);
+        Snapshot.Builder builder = new Snapshot.Builder(base.size() + changed.size());
+        int next = 0;
+        for (int offset : base.order) {
+            long productId = base.id(offset);
+            while (next < changed.size() && changed.get(next).getProduct_id() < productId) {
+                builder.add(changed.get(next++));
+            }
+            if (!changes.containsKey(productId)) {
+                builder.copy(base, offset);
+            }
+        }
+        while (next < changed.size()) {
+            builder.add(changed.get(next++));
+        }
+        snapshot = builder.build();
+        changes.forEach(overlay::remove);
+        logger.debug("Compacted {} overlaid changes into a snapshot of {} products", changes.size(), snapshot.size());
+    }
+
+    private static List<ProductDto> liveSortedById(Map<Long, ProductDto> changes) {
+        List<ProductDto> live = new ArrayList<>(changes.size());
+        for (ProductDto productDto : changes.values()) {
+            if (productDto != DELETED) {
+                live.add(productDto);
+            }
+        }
+        live.sort(Comparator.comparing(ProductDto::getProduct_id));
+        return live;
+    }
+
+    /**
+     * Immutable packed catalog. A record at an offset is: id (8 bytes), version (8), name length (2, -1 for null),
+     * name as UTF-8, price length (1, -1 for null), price as plain digits.
+     */
+    private static final class Snapshot {
+        private static final long EMPTY = -1L;
+
+        private final ByteBuffer data;
+        // record offsets in id order
+        private final int[] order;
+        // open addressing with linear probing, at most half full; EMPTY marks a free slot
+        private final long[] keys;
+        private final int[] offsets;
+        private final int mask;
+
+        private Snapshot(ByteBuffer data, int[] order) {
+            this.data = data;
+            this.order = order;
+            int capacity = Math.max(16, Integer.highestOneBit(Math.max(1, order.length * 2 - 1)) << 1);
+            this.keys = new long[capacity];
+            this.offsets = new int[capacity];
+            this.mask = capacity - 1;
+            Arrays.fill(keys, EMPTY);
+            for (int offset : order) {
+                long productId = id(offset);
+                int slot = slot(productId);
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = productId;
+                offsets[slot] = offset;
+            }
+        }
+
+        int size() {
+            return order.length;
+        }
+
+        long bytes() {
+            return data.capacity();
+        }
+
+        int find(long productId) {
+            if (productId < 0) {
+                return -1;
+            }
+            int slot = slot(productId);
+            while (true) {
+                long key = keys[slot];
+                if (key == productId) {
+                    return offsets[slot];
+                }
+                if (key == EMPTY) {
+                    return -1;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+
+        long id(int offset) {
+            return data.getLong(offset);
+        }
+
+        Long version(long productId) {
+            int offset = find(productId);
+            return offset < 0 ? null : data.getLong(offset + 8);
+        }
+
+        ProductDto read(int offset) {
+            int nameLength = data.getShort(offset + 16);
+            int priceAt = offset + 18 + Math.max(nameLength, 0);
+            int priceLength = data.get(priceAt);
+            return new ProductDto(data.getLong(offset), decode(offset + 18, nameLength),
+                    priceLength < 0 ? null : new BigDecimal(decode(priceAt + 1, priceLength)), data.getLong(offset + 8));
+        }
+
+        int length(int offset) {
+            int nameLength = Math.max(data.getShort(offset + 16), 0);
+            int priceLength = Math.max(data.get(offset + 18 + nameLength), 0);
+            return 18 + nameLength + 1 + priceLength;
+        }
+
+        private String decode(int at, int length) {
+            if (length < 0) {
+                return null;
+            }
+            byte[] bytes = new byte[length];
+            data.get(at, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private int slot(long productId) {
+            long hash = productId * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ (hash >>> 32)) & mask;
+        }
+
+        /**
+         * Appends records in id order into a growing direct buffer, trimmed to size by {@link #build()}.
+         */
+        static final class Builder {
+            private static final int ESTIMATED_RECORD_BYTES = 48;
+
+            private ByteBuffer data;
+            private int[] order;
+            private int size;
+
+            Builder(int expectedProducts) {
+                int expected = Math.max(16, expectedProducts);
+                this.data = ByteBuffer.allocateDirect((int) Math.min(Integer.MAX_VALUE, (long) expected * ESTIMATED_RECORD_BYTES));
+                this.order = new int[expected];
+            }
+
+            void add(ProductDto productDto) {
+                byte[] name = productDto.getProduct_name() == null ? null
+                        : productDto.getProduct_name().getBytes(StandardCharsets.UTF_8);
+                byte[] price = productDto.getPrice() == null ? null
+                        : productDto.getPrice().toPlainString().getBytes(StandardCharsets.US_ASCII);
+                if ((name != null && name.length > Short.MAX_VALUE) || (price != null && price.length > Byte.MAX_VALUE)) {
+                    throw new IllegalStateException("Product " + productDto.getProduct_id() + " is too large for the snapshot");
+                }
+                startRecord(18 + (name == null ? 0 : name.length) + 1 + (price == null ? 0 : price.length));
+                data.putLong(productDto.getProduct_id());
+                data.putLong(productDto.getVersion() == null ? 0L : productDto.getVersion());
+                data.putShort((short) (name == null ? -1 : name.length));
+                if (name != null) {
+                    data.put(name);
+                }
+                data.put((byte) (price == null ? -1 : price.length));
+                if (price != null) {
+                    data.put(price);
+                }
+            }
+
+            /**
+             * Appends a record of another snapshot as raw bytes, without decoding it.
+             */
+            void copy(Snapshot source, int offset) {
+                int length = source.length(offset);
+                startRecord(length);
+                data.put(data.position(), source.data, offset, length);
+                data.position(data.position() + length);
+            }
+
+            Snapshot build() {
+                ByteBuffer packed = ByteBuffer.allocateDirect(Math.max(1, data.position()));
+                packed.put(0, data, 0, data.position());
+                return new Snapshot(packed, Arrays.copyOf(order, size));
+            }
+
+            private void startRecord(int length) {
+                if (data.remaining() < length) {
+                    long grown = Math.max((long) data.position() + length, data.capacity() * 2L);
+                    if (grown > Integer.MAX_VALUE) {
+                        throw new IllegalStateException("Product snapshot exceeds 2 GB");
+                    }
+                    ByteBuffer bigger = ByteBuffer.allocateDirect((int) grown);
+                    bigger.put(0, data, 0, data.position());
+                    bigger.position(data.position());
+                    data = bigger;
+                }
+                if (size == order.length) {
+                    order = Arrays.copyOf(order, size * 2);
+                }
+                order[size++] = data.position();
+            }
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.ProductModule.cache;
+
+import com.ProductModule.event.ProductInvalidation;
+import com.ProductModule.payLoad.ProductDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.KeyValue;
+import io.lettuce.core.LettuceFutures;
+import io.lettuce.core.RedisChannelHandler;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisConnectionStateAdapter;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.RedisException;
+import io.lettuce.core.SetArgs;
+import io.lettuce.core.TimeoutOptions;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.pubsub.RedisPubSubAdapter;
+import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.net.SocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Shared cache on a Redis-compatible server through Lettuce. Products are stored as their JSON under
+ * {@code <key-prefix><id>}; a tombstone is an empty value. Invalidations are published on one channel.
+ * <p>
+ * Like the R2DBC pool, the client is deliberately not a Spring bean, so Spring Boot does not auto-configure Redis
+ * health checks or repositories around it. Commands time out after product.cache.l2.timeout, and a failed read is a
+ * miss. Pub/sub delivery is at most once: after the subscription connection reconnects, subscribers are told that
+ * messages may have been lost.
+ */
+@Component
+@ConditionalOnProperty(name = "product.cache.l2.type", havingValue = "redis")
+public class RedisProductSharedCache implements ProductSharedCache, DisposableBean {
+    private static final Logger logger = LoggerFactory.getLogger(RedisProductSharedCache.class);
+    private static final String TOMBSTONE = "";
+
+    private final RedisClient redisClient;
+    private final StatefulRedisConnection<String, String> connection;
+    private final StatefulRedisPubSubConnection<String, String> pubSubConnection;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter productWriter;
+    private final ObjectReader productReader;
+    private final String keyPrefix;
+    private final String channel;
+    private final Duration ttl;
+    private final Duration tombstoneTtl;
+    private final Duration timeout;
+    private final List<Consumer<ProductInvalidation>> listeners = new CopyOnWriteArrayList<>();
+    private final List<Runnable> gapListeners = new CopyOnWriteArrayList<>();
+    private volatile boolean pubSubLost;
+
+    @Autowired
+    public RedisProductSharedCache(ObjectMapper objectMapper,
+                                   @Value("${product.cache.l2.redis-url}") String url,
+                                   @Value("${product.cache.l2.key-prefix:product:}") String keyPrefix,
+                                   @Value("${product.cache.l2.channel:product-invalidations}") String channel,
+                                   @Value("${product.cache.l2.ttl:30m}") Duration ttl,
+                                   @Value("${product.cache.l2.tombstone-ttl:5s}") Duration tombstoneTtl,
+                                   @Value("${product.cache.l2.timeout:200ms}") Duration timeout) {
+        this.objectMapper = objectMapper;
+        this.productWriter = objectMapper.writerFor(ProductDto.class);
+        this.productReader = objectMapper.readerFor(ProductDto.class);
+        this.keyPrefix = keyPrefix;
+        this.channel = channel;
+        this.ttl = ttl;
+        this.tombstoneTtl = tombstoneTtl;
+        this.timeout = timeout;
+        this.redisClient = RedisClient.create(url);
+        this.redisClient.setOptions(ClientOptions.builder()
+                .timeoutOptions(TimeoutOptions.enabled(timeout))
+                .build());
+        this.connection = redisClient.connect();
+        this.pubSubConnection = redisClient.connectPubSub();
+        this.pubSubConnection.addListener(new RedisPubSubAdapter<>() {
+            @Override
+            public void message(String messageChannel, String message) {
+                receive(message);
+            }
+        });
+        this.redisClient.addListener(new RedisConnectionStateAdapter() {
+            @Override
+            public void onRedisDisconnected(RedisChannelHandler<?, ?> handler) {
+                if (handler == pubSubConnection) {
+                    pubSubLost = true;
+                }
+            }
+
+            @Override
+            public void onRedisConnected(RedisChannelHandler<?, ?> handler, SocketAddress socketAddress) {
+                // Lettuce subscribes again on reconnect, but messages published while disconnected are gone
+                if (handler == pubSubConnection && pubSubLost) {
+                    pubSubLost = false;
+                    logger.warn("Product invalidation channel reconnected, messages may have been lost");
+                    gapListeners.forEach(Runnable::run);
+                }
+            }
+        });
+        this.pubSubConnection.sync().subscribe(channel);
+    }
+
+    @Override
+    public ProductDto get(Long productId) {
+        try {
+            return decode(connection.sync().get(key(productId)));
+        } catch (RedisException e) {
+            logger.warn("Shared cache read of product {} failed: {}", productId, e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public Map<Long, ProductDto> getAll(Collection<Long> productIds) {
+        Map<Long, ProductDto> products = new HashMap<>();
+        if (productIds.isEmpty()) {
+            return products;
+        }
+        try {
+            List<KeyValue<String, String>> values = connection.sync().mget(productIds.stream().map(this::key).toArray(String[]::new));
+            for (KeyValue<String, String> value : values) {
+                ProductDto productDto = value.hasValue() ? decode(value.getValue()) : null;
+                if (productDto != null) {
+                    products.put(productDto.getProduct_id(), productDto);
+                }
+            }
+        } catch (RedisException e) {
+            logger.warn("Shared cache read of {} products failed: {}", productIds.size(), e.getMessage());
+        }
+        return products;
+    }
+
+    @Override
+    public void putAll(Collection<ProductDto> products) {
+        SetArgs ifAbsent = SetArgs.Builder.nx().px(ttl.toMillis());
+        List<RedisFuture<String>> writes = new ArrayList<>(products.size());
+        for (ProductDto productDto : products) {
+            writes.add(connection.async().set(key(productDto.getProduct_id()), encode(productDto), ifAbsent));
+        }
+        await(writes, "write of " + products.size() + " products");
+    }
+
+    @Override
+    public void invalidate(ProductInvalidation invalidation) {
+        SetArgs expiring = SetArgs.Builder.px(tombstoneTtl.toMillis());
+        List<RedisFuture<String>> writes = new ArrayList<>(invalidation.productIds().size());
+        for (Long productId : invalidation.productIds()) {
+            writes.add(connection.async().set(key(productId), TOMBSTONE, expiring));
+        }
+        await(writes, "invalidation of " + invalidation.productIds().size() + " products");
+        // published after the tombstones, so a receiver that reloads cannot read the old entry
+        try {
+            connection.sync().publish(channel, objectMapper.writeValueAsString(invalidation));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot encode product invalidation", e);
+        } catch (RedisException e) {
+            logger.warn("Publishing the invalidation of products {} failed: {}", invalidation.productIds(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<ProductInvalidation> listener, Runnable onGap) {
+        listeners.add(listener);
+        gapListeners.add(onGap);
+    }
+
+    @Override
+    public void destroy() {
+        pubSubConnection.close();
+        connection.close();
+        redisClient.shutdown();
+    }
+
+    private void receive(String message) {
+        ProductInvalidation invalidation;
+        try {
+            invalidation = objectMapper.readValue(message, ProductInvalidation.class);
+        } catch (JsonProcessingException e) {
+            logger.warn("Ignoring unreadable product invalidation: {}", e.getMessage());
+            return;
+        }
+        listeners.forEach(listener -> listener.accept(invalidation));
+    }
+
+    private void await(List<RedisFuture<String>> writes, String description) {
+        if (writes.isEmpty()) {
+            return;
+        }
+        try {
+            if (!LettuceFutures.awaitAll(timeout.toMillis(), TimeUnit.MILLISECONDS, writes.toArray(RedisFuture[]::new))) {
+                logger.warn("Shared cache {} timed out", description);
+            }
+        } catch (RedisException e) {
+            logger.warn("Shared cache {} failed: {}", description, e.getMessage());
+        }
+    }
+
+    private String key(Long productId) {
+        return keyPrefix + productId;
+    }
+
+    private String encode(ProductDto productDto) {
+        try {
+            return productWriter.writeValueAsString(productDto);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot encode product " + productDto.getProduct_id(), e);
+        }
+    }
+
+    private ProductDto decode(String value) {
+        if (value == null || TOMBSTONE.equals(value)) {
+            return null;
+        }
+        try {
+            return productReader.readValue(value);
+        } catch (JsonProcessingException e) {
+            logger.warn("Ignoring unreadable shared cache entry: {}", e.getMessage());
+            return null;
+        }
+    }
+}
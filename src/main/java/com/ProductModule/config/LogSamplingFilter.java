@@ -0,0 +1,79 @@
+package com.ProductModule.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Samples repetitive log lines, configured in logback-spring.xml. Per logger and message pattern, at most
+ * {@code allowedPerInterval} events pass each {@code interval}; the rest are dropped before they are formatted or
+ * queued. The pattern is the unformatted message, so "Product not found: {}" is one key whatever the id. When a
+ * key logs again after its interval, the number dropped in the previous one is reported once at WARN, so the
+ * volume stays visible as an aggregate.
+ * <p>
+ * Keys are kept for at most {@code maxKeys} patterns; beyond that the counts start over rather than grow.
+ */
+public class LogSamplingFilter extends TurboFilter {
+    private static final String REPORT_LOGGER = LogSamplingFilter.class.getName();
+
+    private final ConcurrentHashMap<String, Window> windows = new ConcurrentHashMap<>();
+    private int allowedPerInterval = 50;
+    private long intervalMillis = 10_000;
+    private int maxKeys = 1024;
+
+    private static final class Window {
+        private long start;
+        private int passed;
+        private int dropped;
+    }
+
+    public void setAllowedPerInterval(int allowedPerInterval) {
+        this.allowedPerInterval = allowedPerInterval;
+    }
+
+    public void setInterval(String interval) {
+        this.intervalMillis = Duration.parse(interval).toMillis();
+    }
+
+    public void setMaxKeys(int maxKeys) {
+        this.maxKeys = maxKeys;
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // format is null for isXxxEnabled() checks; disabled levels are rejected later and must not be counted
+        if (format == null || !isStarted() || allowedPerInterval <= 0
+                || !level.isGreaterOrEqual(logger.getEffectiveLevel()) || REPORT_LOGGER.equals(logger.getName())) {
+            return FilterReply.NEUTRAL;
+        }
+        if (windows.size() >= maxKeys) {
+            windows.clear();
+        }
+        Window window = windows.computeIfAbsent(logger.getName() + '|' + format, key -> new Window());
+        long now = System.currentTimeMillis();
+        int reported = 0;
+        boolean passes;
+        synchronized (window) {
+            if (now - window.start >= intervalMillis) {
+                reported = window.dropped;
+                window.start = now;
+                window.passed = 0;
+                window.dropped = 0;
+            }
+            passes = ++window.passed <= allowedPerInterval;
+            if (!passes) {
+                window.dropped++;
+            }
+        }
+        if (reported > 0) {
+            logger.getLoggerContext().getLogger(REPORT_LOGGER)
+                    .warn("Dropped {} \"{}\" messages of {} in the last sampling interval", reported, format, logger.getName());
+        }
+        return passes ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+}
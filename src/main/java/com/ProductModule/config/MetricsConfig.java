@@ -0,0 +1,33 @@
+package com.ProductModule.config;
+
+import com.ProductModule.metrics.ProductStatementInspector;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Metrics wiring. Everything is scraped from /actuator/prometheus.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Makes {@code @Timed} on Spring beans record timers; without this aspect the annotation is ignored.
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    /**
+     * Registers the statement counter with Hibernate so every prepared statement is counted by type.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer statementMetricsCustomizer(MeterRegistry meterRegistry) {
+        return hibernateProperties -> hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR,
+                new ProductStatementInspector(meterRegistry));
+    }
+}
@@ -0,0 +1,90 @@
+package com.ProductModule.config;
+
+import com.ProductModule.event.ProductChangedEvent;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Read-your-writes for clients of a replicated database. When a request commits a product write, the response sets
+ * a cookie holding the time until which that client's reads must come from the primary; requests carrying it are
+ * routed there by {@link ReplicaRoutingDataSource}. The cookie, rather than state on this instance, makes the
+ * stickiness hold on whichever instance serves the next request. product.datasource.replicas.sticky-window should
+ * be at least max-lag, the most a serving replica can be behind.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+    public static final String COOKIE_NAME = "product-primary-until";
+    private final Duration stickyWindow;
+
+    public ReadYourWritesFilter(Duration stickyWindow) {
+        this.stickyWindow = stickyWindow;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean sticky = isSticky(request);
+        if (sticky) {
+            ReplicaRoutingDataSource.setPrimaryOnly();
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (sticky) {
+                ReplicaRoutingDataSource.clearPrimaryOnly();
+            }
+        }
+    }
+
+    /**
+     * Runs on the request thread once the write has committed, before the controller writes the response body.
+     * Writes without a request, such as import jobs, and writes received from other instances are skipped.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (event.isRemote() || !(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return;
+        }
+        HttpServletResponse response = servletAttributes.getResponse();
+        if (response == null || response.isCommitted()) {
+            return;
+        }
+        long until = System.currentTimeMillis() + stickyWindow.toMillis();
+        ResponseCookie cookie = ResponseCookie.from(COOKIE_NAME, Long.toString(until))
+                .path("/")
+                .maxAge(stickyWindow.toSeconds() + 1)
+                .httpOnly(true)
+                .build();
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+    }
+
+    private static boolean isSticky(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return false;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue()) > System.currentTimeMillis();
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,18 @@
+package com.ProductModule.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a read that may be served by a replica, up to product.datasource.replicas.max-lag behind the primary.
+ * Only for results that go straight to the client: anything kept in a cache must be read from the primary,
+ * or it would outlive the lag. Without replicas configured the annotation has no effect.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ReplicaRead {
+}
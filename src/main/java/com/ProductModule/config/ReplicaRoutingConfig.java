@@ -0,0 +1,94 @@
+package com.ProductModule.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read/write splitting, enabled with product.datasource.replicas.enabled. spring.datasource.* stays the primary;
+ * product.datasource.replicas.urls lists the replicas, which use the primary's credentials and driver.
+ * <p>
+ * The DataSource used by JPA is a {@link LazyConnectionDataSourceProxy} over the {@link ReplicaRoutingDataSource}:
+ * it takes the physical connection at the first statement, so a transaction started inside a {@link ReplicaRead}
+ * method is routed with the scope already open. Only {@link ReplicaRead} methods read from replicas; everything
+ * else, including the loads behind the caches, stays on the primary.
+ */
+@Configuration
+@ConditionalOnProperty(name = "product.datasource.replicas.enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                                             DataSourceProperties properties,
+                                                             @Value("${product.datasource.replicas.urls}") List<String> urls,
+                                                             @Value("${product.datasource.replicas.max-pool-size:20}") int maxPoolSize,
+                                                             @Value("${product.datasource.replicas.max-lag:2s}") Duration maxLag) {
+        List<DataSource> replicas = new ArrayList<>(urls.size());
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + i);
+            replica.setJdbcUrl(urls.get(i));
+            replica.setUsername(properties.determineUsername());
+            replica.setPassword(properties.determinePassword());
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setMaximumPoolSize(maxPoolSize);
+            replica.setReadOnly(true);
+            // a replica that is down must not stop the application from starting
+            replica.setInitializationFailTimeout(-1);
+            replicas.add(replica);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, maxLag);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    /**
+     * Carries read-your-writes stickiness over to async request processing, such as a StreamingResponseBody.
+     */
+    @Bean
+    public TaskDecorator primaryOnlyTaskDecorator() {
+        return task -> {
+            boolean primaryOnly = ReplicaRoutingDataSource.isPrimaryOnly();
+            return () -> {
+                if (!primaryOnly) {
+                    task.run();
+                    return;
+                }
+                ReplicaRoutingDataSource.setPrimaryOnly();
+                try {
+                    task.run();
+                } finally {
+                    ReplicaRoutingDataSource.clearPrimaryOnly();
+                }
+            };
+        };
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(@Value("${product.datasource.replicas.sticky-window:5s}") Duration stickyWindow) {
+        return new ReadYourWritesFilter(stickyWindow);
+    }
+}
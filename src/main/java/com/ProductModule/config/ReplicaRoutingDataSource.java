@@ -0,0 +1,236 @@
+package com.ProductModule.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Connections for JPA and JDBC. Inside a {@link ReplicaRead} method they are spread round-robin over the replicas
+ * that are reachable and no further behind the primary than product.datasource.replicas.max-lag. Every other
+ * connection comes from the primary: writes, reads whose results are cached, reads of a thread that has to read its
+ * own writes, and replica reads while no replica qualifies. The routing does not rely on read-only transactions,
+ * which Spring Data only opens for its inherited CRUD methods, not for declared queries.
+ * <p>
+ * Lag is measured with a heartbeat row the primary rewrites every product.datasource.replicas.lag-check-interval:
+ * a replica that has the previous beat is caught up, otherwise it is behind by the age of the newest beat it has.
+ * This only needs the replicated table, so it works the same for MySQL replicas and for the H2 stand-ins of tests.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements MeterBinder, DisposableBean {
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+    private static final String HEARTBEAT_TABLE = "product_replica_heartbeat";
+    private static final ThreadLocal<Boolean> PRIMARY_ONLY = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> REPLICA_READ = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final JdbcTemplate primaryJdbc;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final long maxLagMillis;
+    private final AtomicInteger next = new AtomicInteger();
+    // replica reads that fell back to the primary
+    private final AtomicLong primaryReads = new AtomicLong();
+    private volatile boolean heartbeatTableReady;
+    // beat written by the previous check, 0 before the first one
+    private volatile long lastBeat;
+
+    private static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private final JdbcTemplate jdbc;
+        private final AtomicLong reads = new AtomicLong();
+        private volatile boolean available;
+        private volatile long lagMillis = -1;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.jdbc = new JdbcTemplate(dataSource);
+        }
+    }
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicaDataSources, Duration maxLag) {
+        this.primary = primary;
+        this.primaryJdbc = new JdbcTemplate(primary);
+        for (int i = 0; i < replicaDataSources.size(); i++) {
+            replicas.add(new Replica("replica-" + i, replicaDataSources.get(i)));
+        }
+        this.maxLagMillis = maxLag.toMillis();
+    }
+
+    /**
+     * Routes the read-only connections of the current thread to the primary until {@link #clearPrimaryOnly()}.
+     */
+    public static void setPrimaryOnly() {
+        PRIMARY_ONLY.set(Boolean.TRUE);
+    }
+
+    public static void clearPrimaryOnly() {
+        PRIMARY_ONLY.remove();
+    }
+
+    public static boolean isPrimaryOnly() {
+        return PRIMARY_ONLY.get() != null;
+    }
+
+    /**
+     * @return true when this opened the scope, and must close it with {@link #exitReplicaRead()}
+     */
+    static boolean enterReplicaRead() {
+        if (REPLICA_READ.get() != null) {
+            return false;
+        }
+        REPLICA_READ.set(Boolean.TRUE);
+        return true;
+    }
+
+    static void exitReplicaRead() {
+        REPLICA_READ.remove();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (REPLICA_READ.get() == null || inReadWriteTransaction()) {
+            return primary.getConnection();
+        }
+        Replica replica = choose();
+        if (replica != null) {
+            try {
+                Connection connection = replica.dataSource.getConnection();
+                replica.reads.incrementAndGet();
+                return connection;
+            } catch (SQLException e) {
+                // the next lag check decides when it is used again
+                replica.available = false;
+                logger.warn("Replica {} is unreachable, reading from the primary: {}", replica.name, e.getMessage());
+            }
+        }
+        primaryReads.incrementAndGet();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return getConnection();
+    }
+
+    /**
+     * Reads the heartbeat on every replica, then writes the next one on the primary.
+     */
+    @Scheduled(fixedDelayString = "${product.datasource.replicas.lag-check-interval:PT1S}")
+    public synchronized void checkLag() {
+        long previousBeat = lastBeat;
+        long now = System.currentTimeMillis();
+        for (Replica replica : replicas) {
+            try {
+                long beat = replicaBeat(replica);
+                replica.lagMillis = beat >= previousBeat ? 0 : now - beat;
+                boolean available = replica.lagMillis <= maxLagMillis;
+                if (available != replica.available) {
+                    logger.info("Replica {} {} reads, lag {} ms", replica.name, available ? "serves" : "no longer serves", replica.lagMillis);
+                }
+                replica.available = available;
+            } catch (DataAccessException e) {
+                replica.lagMillis = -1;
+                if (replica.available) {
+                    logger.warn("Lag check of replica {} failed, reading from the primary: {}", replica.name, e.getMessage());
+                }
+                replica.available = false;
+            }
+        }
+        try {
+            writeBeat(now);
+            lastBeat = now;
+        } catch (DataAccessException e) {
+            logger.warn("Writing the replica heartbeat failed: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Replica replica : replicas) {
+            Gauge.builder("product.datasource.replica.lag", replica, r -> r.lagMillis)
+                    .tag("replica", replica.name)
+                    .baseUnit("milliseconds")
+                    .description("Replication lag at the last check, -1 when the replica could not be checked")
+                    .register(registry);
+            Gauge.builder("product.datasource.replica.available", replica, r -> r.available ? 1 : 0)
+                    .tag("replica", replica.name)
+                    .description("1 while the replica serves read-only connections")
+                    .register(registry);
+            FunctionCounter.builder("product.datasource.reads", replica.reads, AtomicLong::get)
+                    .tag("target", replica.name)
+                    .description("Connections handed out for replica reads")
+                    .register(registry);
+        }
+        FunctionCounter.builder("product.datasource.reads", primaryReads, AtomicLong::get)
+                .tag("target", "primary")
+                .description("Connections handed out for replica reads")
+                .register(registry);
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private static boolean inReadWriteTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    private Replica choose() {
+        if (PRIMARY_ONLY.get() != null) {
+            return null;
+        }
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.available) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private long replicaBeat(Replica replica) {
+        try {
+            Long beat = replica.jdbc.queryForObject("SELECT beat_at FROM " + HEARTBEAT_TABLE + " WHERE id = 1", Long.class);
+            return beat == null ? 0 : beat;
+        } catch (EmptyResultDataAccessException e) {
+            return 0;
+        }
+    }
+
+    private void writeBeat(long beat) {
+        if (!heartbeatTableReady) {
+            primaryJdbc.execute("CREATE TABLE IF NOT EXISTS " + HEARTBEAT_TABLE + " (id INT PRIMARY KEY, beat_at BIGINT NOT NULL)");
+            heartbeatTableReady = true;
+        }
+        if (primaryJdbc.update("UPDATE " + HEARTBEAT_TABLE + " SET beat_at = ? WHERE id = 1", beat) == 0) {
+            primaryJdbc.update("INSERT INTO " + HEARTBEAT_TABLE + " (id, beat_at) VALUES (1, ?)", beat);
+        }
+    }
+}
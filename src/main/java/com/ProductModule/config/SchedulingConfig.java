@@ -0,0 +1,12 @@
+package com.ProductModule.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} housekeeping such as the change log retention purge.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,39 @@
+package com.ProductModule.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+
+/**
+ * Database back-pressure for virtual-thread mode (spring.threads.virtual.enabled). Every request gets its own
+ * virtual thread, so the connection pool would otherwise be the first thing to say no, with a 500 after
+ * connection-timeout. The pool is instead wrapped in a {@link ConcurrencyLimitedDataSource} allowing
+ * product.db.max-concurrency connections, the pool size by default, and queueing the rest for product.db.max-wait.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+    private static final int HIKARI_DEFAULT_POOL_SIZE = 10;
+
+    @Bean
+    public static BeanPostProcessor databaseConcurrencyLimiter(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof HikariDataSource pool)) {
+                    return bean;
+                }
+                // -1 until the pool starts and applies its default size
+                int poolSize = pool.getMaximumPoolSize() > 0 ? pool.getMaximumPoolSize() : HIKARI_DEFAULT_POOL_SIZE;
+                int maxConcurrency = environment.getProperty("product.db.max-concurrency", Integer.class, poolSize);
+                Duration maxWait = environment.getProperty("product.db.max-wait", Duration.class, Duration.ofSeconds(10));
+                return new ConcurrencyLimitedDataSource(pool, maxConcurrency, maxWait);
+            }
+        };
+    }
+}
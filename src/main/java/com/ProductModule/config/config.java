@@ -2,7 +2,6 @@ package com.ProductModule.config;
 
 import io.netty.handler.timeout.ReadTimeoutHandler;
 import io.netty.handler.timeout.WriteTimeoutHandler;
-import org.modelmapper.ModelMapper;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -15,11 +14,6 @@ import java.time.Duration;
 
 @Configuration
 public class config {
-    @Bean
-    public ModelMapper getmodel(){
-        return new ModelMapper();
-    }
-
     /**
      * setConnectTimeout(Duration.ofSeconds(5)): Sets the connection timeout to 5 seconds. This is the maximum time it will wait for a connection to be established with the remote server.
      * setReadTimeout(Duration.ofSeconds(3)): Sets the read timeout to 3 seconds, which is the maximum time to wait for data to be read after the connection has been established.
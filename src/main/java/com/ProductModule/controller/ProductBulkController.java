@@ -0,0 +1,48 @@
+package com.ProductModule.controller;
+
+import com.ProductModule.payLoad.BulkItemResult;
+import com.ProductModule.payLoad.ProductDto;
+import com.ProductModule.service.ProductBulkService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Array variants of create/update/delete for catalog syncs. The response lists one result per request item,
+ * in request order, each with the status the single-item endpoint would have returned.
+ */
+@RestController
+@RequestMapping("/api/product/bulk")
+public class ProductBulkController {
+    private static Logger logger = LoggerFactory.getLogger(ProductBulkController.class);
+    public final ProductBulkService productBulkService;
+
+    public ProductBulkController(ProductBulkService productBulkService) {
+        this.productBulkService = productBulkService;
+    }
+
+    @PostMapping
+    public ResponseEntity<List<BulkItemResult>> createAll(@RequestBody List<ProductDto> productDtos) {
+        List<BulkItemResult> results = productBulkService.createAll(productDtos);
+        logger.debug("Bulk create processed {} items", results.size());
+        return new ResponseEntity<>(results, HttpStatus.OK);
+    }
+
+    @PutMapping
+    public ResponseEntity<List<BulkItemResult>> updateAll(@RequestBody List<ProductDto> productDtos) {
+        List<BulkItemResult> results = productBulkService.updateAll(productDtos);
+        logger.debug("Bulk update processed {} items", results.size());
+        return new ResponseEntity<>(results, HttpStatus.OK);
+    }
+
+    @DeleteMapping
+    public ResponseEntity<List<BulkItemResult>> deleteAll(@RequestBody List<Long> productIds) {
+        List<BulkItemResult> results = productBulkService.deleteAll(productIds);
+        logger.debug("Bulk delete processed {} items", results.size());
+        return new ResponseEntity<>(results, HttpStatus.OK);
+    }
+}
@@ -2,16 +2,35 @@ package com.ProductModule.controller;
 
 import com.ProductModule.Exception.InvalidProductIdException;
 import com.ProductModule.Exception.ProductNotFoundException;
+import com.ProductModule.Exception.ProductVersionConflictException;
+import com.ProductModule.cache.ProductJsonCache;
+import com.ProductModule.payLoad.ProductCacheStats;
+import com.ProductModule.payLoad.ProductChanges;
 import com.ProductModule.payLoad.ProductDto;
+import com.ProductModule.payLoad.ProductMultiGet;
+import com.ProductModule.payLoad.ProductPage;
 import com.ProductModule.service.ProductService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -20,9 +39,13 @@ import java.util.stream.Collectors;
 public class ProductController {
     private static Logger logger = LoggerFactory.getLogger(ProductController.class);
     public final ProductService productService;
+    private final ObjectMapper objectMapper;
+    private final ProductJsonCache productJsonCache;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, ObjectMapper objectMapper, ProductJsonCache productJsonCache) {
         this.productService = productService;
+        this.objectMapper = objectMapper;
+        this.productJsonCache = productJsonCache;
     }
 
     @PostMapping("/createUser")
@@ -34,7 +57,7 @@ public class ProductController {
         }
         ProductDto addproduct = productService.createProduct(productDto);
         if (addproduct != null) {
-            logger.info("crete product is Successful with productDto:{}", productDto);
+            logger.debug("crete product is Successful with productDto:{}", productDto);
             return new ResponseEntity<>(addproduct, HttpStatus.CREATED);
         }
         logger.error("Failed to crete product with productDto:{}", productDto);
@@ -42,19 +65,28 @@ public class ProductController {
 
     }
 
+    /**
+     * The ETag is the product version. A request whose If-None-Match still matches gets a 304 after a version
+     * lookup only; the product is not loaded or serialized. Otherwise the body is the product's cached JSON,
+     * written as stored bytes.
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<ProductDto> getProductById(@PathVariable Long id) throws ProductNotFoundException, InvalidProductIdException {
-        ProductDto productDto = productService.getProductById(id);
-        if (productDto != null) {
-            logger.info("Product  fetched by id:{}", id);
-            return new ResponseEntity<>(productDto, HttpStatus.OK);
+    public ResponseEntity<byte[]> getProductById(@PathVariable Long id, WebRequest webRequest) throws ProductNotFoundException, InvalidProductIdException {
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                && webRequest.checkNotModified(ProductETag.of(productService.getProductVersion(id)))) {
+            return null;
+        }
+        ProductJsonCache.EncodedProduct encodedProduct = productJsonCache.get(id, () -> productService.getProductById(id));
+        if (encodedProduct != null) {
+            logger.debug("Product  fetched by id:{}", id);
+            return okWithETag(encodedProduct.version()).contentType(MediaType.APPLICATION_JSON).body(encodedProduct.json());
         }
         logger.error("Product is not found for id :{}" , id);
         return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
 //       return   ResponseEntity.badRequest().build();//it is good approach not usr null
 //        return productService.getProductById(id)
 //                .map(productDto -> {
-//                    logger.info("Product fetched by id: {}", id);
+//                    logger.debug("Product fetched by id: {}", id);
 //                    return new ResponseEntity<>(productDto, HttpStatus.OK);
 //                })
 //                .orElseGet(() -> {
@@ -63,11 +95,101 @@ public class ProductController {
 //                });
     }
 
+    /**
+     * Multi-get: replaces one GET /{id} per product with a single request, e.g. /batch?ids=1,2,3.
+     * Ids that do not exist are listed under {@code missing} instead of failing the request.
+     */
+    @GetMapping("/batch")
+    public ResponseEntity<ProductMultiGet> getProductsByIds(@RequestParam List<Long> ids) throws InvalidProductIdException {
+        return new ResponseEntity<>(productService.getProductsByIds(ids), HttpStatus.OK);
+    }
+
+    /**
+     * Multi-get with the ids as a JSON array, for id lists too long for a URL.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<ProductMultiGet> postProductsByIds(@RequestBody List<Long> ids) throws InvalidProductIdException {
+        return new ResponseEntity<>(productService.getProductsByIds(ids), HttpStatus.OK);
+    }
+
+    /**
+     * The ETag is the catalog version, which changes with every committed write; an unchanged catalog is a 304
+     * without touching the database. Otherwise the JSON array encoded once for this catalog version is copied
+     * chunk by chunk to the servlet output stream.
+     */
     @GetMapping("/getAll")
-    public ResponseEntity<List<ProductDto>> getAllProduct() {
-        List<ProductDto> productDtos = productService.getAllProduct();
-        logger.info("Fetched ProductDto list  from database . Total count :{}", productDtos.size());
-        return new ResponseEntity<>(productDtos, HttpStatus.OK);
+    public void getAllProduct(WebRequest webRequest, HttpServletResponse response) throws IOException {
+        String catalogVersion = productService.getCatalogVersion();
+        String eTag = "\"" + catalogVersion + "\"";
+        if (webRequest.checkNotModified(eTag)) {
+            return;
+        }
+        ProductJsonCache.EncodedCatalog encodedCatalog = productJsonCache.getCatalog(catalogVersion, productService::getAllProduct);
+        logger.debug("Writing product list of {} bytes for catalog version {}", encodedCatalog.length(), catalogVersion);
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setHeader(HttpHeaders.ETAG, eTag);
+        response.setContentLengthLong(encodedCatalog.length());
+        encodedCatalog.writeTo(response.getOutputStream());
+    }
+
+    /**
+     * Keyset-paginated replacement for /getAll. Pass the returned next_cursor to fetch the following page.
+     * Optional minPrice/maxPrice filter the range and sort=price|-price orders by price, both in the database.
+     */
+    @GetMapping("/list")
+    public ResponseEntity<ProductPage> getProductPage(@RequestParam(required = false) String cursor,
+                                                      @RequestParam(required = false) Integer size,
+                                                      @RequestParam(required = false) BigDecimal minPrice,
+                                                      @RequestParam(required = false) BigDecimal maxPrice,
+                                                      @RequestParam(required = false) String sort) {
+        ProductPage productPage = productService.getProductPage(cursor, size, minPrice, maxPrice, sort);
+        return new ResponseEntity<>(productPage, HttpStatus.OK);
+    }
+
+    /**
+     * Delta sync: products changed or deleted after the {@code since} watermark. Start without one, then always
+     * pass the returned next_since; repeat immediately while has_more is true.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<ProductChanges> getChanges(@RequestParam(required = false) String since,
+                                                     @RequestParam(required = false) Integer limit) {
+        return new ResponseEntity<>(productService.getChangesSince(since, limit), HttpStatus.OK);
+    }
+
+    /**
+     * Streams the whole catalog as newline-delimited JSON while the database cursor is read,
+     * so neither the service nor the response buffers the full table.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllProduct() {
+        StreamingResponseBody body = outputStream -> {
+            long count;
+            try (SequenceWriter sequenceWriter = objectMapper.writerFor(ProductDto.class)
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                    .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .withRootValueSeparator("\n")
+                    .writeValues(outputStream)) {
+                count = productService.streamAllProduct(productDto -> {
+                    try {
+                        sequenceWriter.write(productDto);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                logger.debug("Streamed ProductDto list as NDJSON. Total count :{}", count);
+            }
+            if (count > 0) {
+                outputStream.write('\n');
+            }
+            outputStream.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<ProductCacheStats> getCacheStats() {
+        return new ResponseEntity<>(productService.getCacheStats(), HttpStatus.OK);
     }
 
     @DeleteMapping("/{id}")
@@ -83,30 +205,56 @@ public class ProductController {
         }
     }
 
+    /**
+     * Conditional when an If-Match header (412 on mismatch) or a {@code version} in the body (409 on mismatch)
+     * is sent; otherwise the last write wins. Only a conditional PUT knows the new version, so only its response
+     * has an ETag (and a {@code version}); after an unconditional PUT, GET the product for its ETag.
+     */
     @PutMapping("/{id}")
-    public ResponseEntity<Object> updateProduct(@RequestBody @Valid ProductDto productDto, @PathVariable("id") Long productId, BindingResult bindingResult) throws InvalidProductIdException {
+    public ResponseEntity<Object> updateProduct(@RequestBody @Valid ProductDto productDto, @PathVariable("id") Long productId, BindingResult bindingResult,
+                                                @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) throws InvalidProductIdException {
         if (bindingResult.hasErrors()) {
             List<String> errors =getErrorMessages(bindingResult);
             logger.error("Validation error occur with ProductDto:{},error:{} ", productDto, errors);
             return new ResponseEntity<>(errors, HttpStatus.BAD_REQUEST);
         }
-        ProductDto updateProductdto = productService.updateRecord(productDto, productId);
-        return new ResponseEntity<>(updateProductdto, HttpStatus.OK);
+        ProductDto updateProductdto = productService.updateRecord(productDto, productId, ProductETag.parseIfMatch(ifMatch));
+        return okWithETag(updateProductdto.getVersion()).body(updateProductdto);
     }
 
+    /**
+     * Same preconditions as PUT. Without one, a patch that loses a race is re-applied on the fresh row.
+     */
     @PatchMapping("/partialUpdate/{id}")
-    public ResponseEntity<Object> partialUpdate(@RequestBody ProductDto productDto, @PathVariable Long id) {
+    public ResponseEntity<Object> partialUpdate(@RequestBody ProductDto productDto, @PathVariable Long id,
+                                                @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        // a malformed If-Match is answered by GlobalExceptionHandler
+        Long ifMatchVersion = ProductETag.parseIfMatch(ifMatch);
         try {
-            ProductDto partialUpdateProductDto = productService.partialUpdate(productDto, id);
-            logger.info("Partially update is successfully Done");
-            return new ResponseEntity<>(partialUpdateProductDto, HttpStatus.OK);
+            ProductDto partialUpdateProductDto = productService.partialUpdate(productDto, id, ifMatchVersion);
+            logger.debug("Partially update is successfully Done");
+            return okWithETag(partialUpdateProductDto.getVersion()).body(partialUpdateProductDto);
         } catch (ProductNotFoundException productNotFoundException) {
             logger.error("Product is not Found:{}", productNotFoundException.getMessage());
             return new ResponseEntity<>(productNotFoundException.getMessage(), HttpStatus.NOT_FOUND);
+        } catch (ProductVersionConflictException conflict) {
+            logger.warn("Partial update rejected: {}", conflict.getMessage());
+            return new ResponseEntity<>(conflict.getMessage(), conflict.getHttpStatus());
+        } catch (ObjectOptimisticLockingFailureException e) {
+            logger.warn("Partial update of productId:{} kept losing to concurrent writes", id);
+            return new ResponseEntity<>("Product was modified concurrently, retry the request", HttpStatus.CONFLICT);
         } catch (Exception e) {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
+    private static ResponseEntity.BodyBuilder okWithETag(Long version) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (version != null) {
+            response.eTag(ProductETag.of(version));
+        }
+        return response;
+    }
+
     private List<String> getErrorMessages(BindingResult bindingResult) {
         return bindingResult.getAllErrors()
                 .stream()
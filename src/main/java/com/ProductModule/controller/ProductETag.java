@@ -0,0 +1,56 @@
+package com.ProductModule.controller;
+
+import com.ProductModule.Exception.InvalidProductDataException;
+import com.ProductModule.Exception.ProductVersionConflictException;
+import org.springframework.http.HttpStatus;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Strong entity tags derived from the product version: version 3 is {@code "3"}.
+ */
+final class ProductETag {
+
+    private ProductETag() {
+    }
+
+    static String of(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * An If-Match list ({@code "1", "2"}) passes when any of its tags matches. Weak and malformed tags can never
+     * match, so they are skipped; what's left has to name a single version, the one the conditional update checks.
+     *
+     * @return the version an If-Match header requires, or null when the header is absent or {@code *}
+     * @throws ProductVersionConflictException with 412 when no tag is one this API issues, including weak tags,
+     *                                         which can't satisfy the strong comparison If-Match requires
+     * @throws InvalidProductDataException     with 400 when the tags name more than one version
+     */
+    static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        Set<Long> versions = new LinkedHashSet<>();
+        for (String element : ifMatch.split(",")) {
+            String tag = element.trim();
+            if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+                try {
+                    versions.add(Long.parseLong(tag.substring(1, tag.length() - 1)));
+                } catch (NumberFormatException e) {
+                    // not a tag this API issues
+                }
+            }
+        }
+        if (versions.size() > 1) {
+            throw new InvalidProductDataException("If-Match " + ifMatch + " names more than one version; send only the ETag of the version the update is based on",
+                    HttpStatus.BAD_REQUEST);
+        }
+        if (versions.isEmpty()) {
+            throw new ProductVersionConflictException("If-Match " + ifMatch + " does not match the current version",
+                    HttpStatus.PRECONDITION_FAILED, null);
+        }
+        return versions.iterator().next();
+    }
+}
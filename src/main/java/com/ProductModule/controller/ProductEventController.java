@@ -0,0 +1,82 @@
+package com.ProductModule.controller;
+
+import com.ProductModule.Exception.InvalidProductDataException;
+import com.ProductModule.event.ProductEventLog;
+import com.ProductModule.payLoad.ProductChange;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.function.Consumer;
+
+@RestController
+@RequestMapping("/api/product/events")
+public class ProductEventController {
+    private static final Logger logger = LoggerFactory.getLogger(ProductEventController.class);
+    private final ProductEventLog productEventLog;
+    private final ObjectMapper objectMapper;
+
+    public ProductEventController(ProductEventLog productEventLog, ObjectMapper objectMapper) {
+        this.productEventLog = productEventLog;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Product change log as newline-delimited JSON, starting after offset {@code after} (0 for the oldest retained
+     * entry). Without {@code follow} one batch of up to {@code limit} entries is returned; with follow=true the
+     * response stays open and entries are written as they commit until product.events.follow-timeout. Either way,
+     * resume by passing the last offset received as {@code after}.
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamChanges(@RequestParam(defaultValue = "0") long after,
+                                                               @RequestParam(required = false) Integer limit,
+                                                               @RequestParam(defaultValue = "false") boolean follow) {
+        if (after < 0) {
+            throw new InvalidProductDataException("after must not be negative: " + after, HttpStatus.BAD_REQUEST);
+        }
+        int batchSize = productEventLog.resolveBatchSize(limit);
+        StreamingResponseBody body = outputStream -> {
+            Consumer<List<ProductChange>> writer = changes -> write(changes, outputStream);
+            if (follow) {
+                try {
+                    long last = productEventLog.follow(after, batchSize, writer);
+                    logger.debug("Change log follow after offset {} ended at offset {}", after, last);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            } else {
+                writer.accept(productEventLog.read(after, batchSize));
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    /**
+     * Writes one line per entry and flushes, so a following client sees every batch as soon as it is read.
+     */
+    private void write(List<ProductChange> changes, OutputStream outputStream) {
+        ObjectWriter changeWriter = objectMapper.writerFor(ProductChange.class);
+        try {
+            for (ProductChange change : changes) {
+                outputStream.write(changeWriter.writeValueAsBytes(change));
+                outputStream.write('\n');
+            }
+            outputStream.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
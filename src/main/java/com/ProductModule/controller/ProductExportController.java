@@ -0,0 +1,103 @@
+package com.ProductModule.controller;
+
+import com.ProductModule.service.ExportFormat;
+import com.ProductModule.service.ProductExportService;
+import com.ProductModule.service.ProductService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
+
+/**
+ * Whole-catalog export for analytics, as a gzip file streamed from the database cursor.
+ * <p>
+ * The ETag is the catalog version plus the format. Once a full export of the current catalog version has been
+ * served, a single byte range is answered with 206, so an interrupted download can resume with
+ * {@code Range: bytes=<received>-} and {@code If-Range: <etag>}. When the catalog changed, or before the first full
+ * export, the whole file is sent with 200. Responses are streamed without a Content-Length.
+ */
+@RestController
+@RequestMapping("/api/product/export")
+public class ProductExportController {
+    private static final Logger logger = LoggerFactory.getLogger(ProductExportController.class);
+    private static final MediaType GZIP = MediaType.parseMediaType("application/gzip");
+    private final ProductService productService;
+    private final ProductExportService productExportService;
+
+    public ProductExportController(ProductService productService, ProductExportService productExportService) {
+        this.productService = productService;
+        this.productExportService = productExportService;
+    }
+
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(required = false) String format,
+                                                        @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+                                                        @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange) {
+        ExportFormat exportFormat = ExportFormat.parse(format);
+        String catalogVersion = productService.getCatalogVersion();
+        String eTag = "\"" + catalogVersion + "-" + exportFormat + "\"";
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(GZIP);
+        headers.setContentDisposition(ContentDisposition.attachment().filename(exportFormat.getFileName()).build());
+        headers.setETag(eTag);
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        ProductExportService.ExportIndex index = productExportService.completedIndex(exportFormat, catalogVersion);
+        HttpRange httpRange = index != null && (ifRange == null || ifRange.equals(eTag)) ? singleRange(range) : null;
+        if (httpRange != null) {
+            long length = index.length();
+            long start = rangeStart(httpRange, length);
+            if (start < 0) {
+                headers.set(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                return new ResponseEntity<>(headers, HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+            }
+            long end = Math.min(httpRange.getRangeEnd(length), length - 1);
+            headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            logger.debug("Resuming {} export of catalog version {} at byte {}", exportFormat, catalogVersion, start);
+            StreamingResponseBody body = outputStream -> productExportService.exportRange(exportFormat, index, start, end, outputStream);
+            return new ResponseEntity<>(body, headers, HttpStatus.PARTIAL_CONTENT);
+        }
+        StreamingResponseBody body = outputStream -> productExportService.export(exportFormat, catalogVersion, outputStream);
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
+    /**
+     * @return the first byte of the range, or -1 when the range starts beyond the end
+     */
+    private static long rangeStart(HttpRange httpRange, long length) {
+        try {
+            long start = httpRange.getRangeStart(length);
+            return start < length ? start : -1;
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * @return the requested range, or null when there is none, it is malformed or it has several parts;
+     * all of which are answered with the whole file
+     */
+    private static HttpRange singleRange(String range) {
+        if (range == null) {
+            return null;
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(range);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
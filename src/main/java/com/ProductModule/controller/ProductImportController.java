@@ -0,0 +1,53 @@
+package com.ProductModule.controller;
+
+import com.ProductModule.payLoad.ImportJobStatus;
+import com.ProductModule.service.ImportFormat;
+import com.ProductModule.service.ProductImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.net.URI;
+
+/**
+ * Catalog import from a CSV (text/csv, with a header line) or NDJSON (application/x-ndjson) upload.
+ * The POST answers 202 once the upload is received; poll the Location for progress and rejected records.
+ */
+@RestController
+@RequestMapping("/api/product/import")
+public class ProductImportController {
+    private static final Logger logger = LoggerFactory.getLogger(ProductImportController.class);
+    private final ProductImportService productImportService;
+
+    public ProductImportController(ProductImportService productImportService) {
+        this.productImportService = productImportService;
+    }
+
+    /**
+     * The body is read as a stream and never bound to an object, so uploads of any size are accepted up to
+     * product.import.max-bytes.
+     */
+    @PostMapping(consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ImportJobStatus> startImport(HttpServletRequest request) throws IOException {
+        ImportFormat format = ImportFormat.fromContentType(request.getContentType());
+        ImportJobStatus status = productImportService.startImport(request.getInputStream(), format);
+        URI location = ServletUriComponentsBuilder.fromCurrentRequest().path("/{jobId}").buildAndExpand(status.getJob_id()).toUri();
+        logger.debug("Started product import {}", status.getJob_id());
+        return ResponseEntity.accepted().location(location).body(status);
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<ImportJobStatus> getStatus(@PathVariable String jobId) {
+        ImportJobStatus status = productImportService.getStatus(jobId);
+        return status == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(status);
+    }
+}
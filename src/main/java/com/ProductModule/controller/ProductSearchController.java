@@ -0,0 +1,32 @@
+package com.ProductModule.controller;
+
+import com.ProductModule.payLoad.ProductDto;
+import com.ProductModule.search.ProductSearchIndex;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Name search served from the in-memory index, e.g. /api/product/search?q=app&mode=prefix&limit=10.
+ */
+@RestController
+@RequestMapping("/api/product/search")
+public class ProductSearchController {
+    public final ProductSearchIndex productSearchIndex;
+
+    public ProductSearchController(ProductSearchIndex productSearchIndex) {
+        this.productSearchIndex = productSearchIndex;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<ProductDto>> search(@RequestParam String q,
+                                                   @RequestParam(required = false) String mode,
+                                                   @RequestParam(required = false) Integer limit) {
+        return new ResponseEntity<>(productSearchIndex.search(q, mode, limit), HttpStatus.OK);
+    }
+}
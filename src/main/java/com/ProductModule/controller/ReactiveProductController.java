@@ -0,0 +1,71 @@
+package com.ProductModule.controller;
+
+import com.ProductModule.Exception.ProductNotFoundException;
+import com.ProductModule.payLoad.ProductDto;
+import com.ProductModule.service.ReactiveProductService;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive twin of {@link ProductController} backed by R2DBC, mounted under /api/reactive/product so both
+ * can be load tested side by side in one process. Request threads are released while the database works;
+ * /getAll is streamed as NDJSON and rows are only pulled from the driver as fast as the client reads them.
+ */
+@RestController
+@RequestMapping("/api/reactive/product")
+@ConditionalOnProperty(name = "product.reactive.enabled", havingValue = "true")
+public class ReactiveProductController {
+    private static Logger logger = LoggerFactory.getLogger(ReactiveProductController.class);
+    public final ReactiveProductService reactiveProductService;
+
+    public ReactiveProductController(ReactiveProductService reactiveProductService) {
+        this.reactiveProductService = reactiveProductService;
+    }
+
+    @PostMapping("/createUser")
+    public Mono<ResponseEntity<ProductDto>> saveProduct(@RequestBody @Valid ProductDto productDto) {
+        return reactiveProductService.createProduct(productDto)
+                .map(created -> new ResponseEntity<>(created, HttpStatus.CREATED));
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ProductDto> getProductById(@PathVariable Long id) {
+        return reactiveProductService.getProductById(id);
+    }
+
+    @GetMapping(value = "/getAll", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ProductDto> getAllProduct() {
+        return reactiveProductService.getAllProduct();
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ProductDto> updateProduct(@RequestBody @Valid ProductDto productDto, @PathVariable("id") Long productId) {
+        return reactiveProductService.updateRecord(productDto, productId);
+    }
+
+    @PatchMapping("/partialUpdate/{id}")
+    public Mono<ProductDto> partialUpdate(@RequestBody ProductDto productDto, @PathVariable Long id) {
+        return reactiveProductService.partialUpdate(productDto, id);
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<String>> deleteById(@PathVariable Long id) {
+        if (id == null || id < 0) {
+            return Mono.just(new ResponseEntity<>("Product ID must not be null and cannot be negative: " + id, HttpStatus.BAD_REQUEST));
+        }
+        return reactiveProductService.deleteById(id)
+                .thenReturn(new ResponseEntity<>("Product deleted successfully with product ID: " + id, HttpStatus.OK))
+                .onErrorResume(ProductNotFoundException.class, e -> {
+                    logger.error("Product is not found:{}", e.getMessage());
+                    return Mono.just(new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND));
+                });
+    }
+}
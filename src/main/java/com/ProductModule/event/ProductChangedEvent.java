@@ -0,0 +1,55 @@
+package com.ProductModule.event;
+
+import com.ProductModule.payLoad.ProductDto;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Published by the service layer after a product write. Listeners that keep derived state
+ * (caches, indexes) subscribe with {@code @TransactionalEventListener} so they only react once the write is committed.
+ */
+@Getter
+public class ProductChangedEvent {
+    public enum ChangeType {CREATED, UPDATED, DELETED}
+
+    private final ChangeType changeType;
+    private final List<Long> productIds;
+    /**
+     * State after the write; empty for deletes.
+     */
+    private final List<ProductDto> products;
+    /**
+     * True when the write was made by another instance and received through {@link ProductInvalidation}; the local
+     * write and its log entry already happened there.
+     */
+    private final boolean remote;
+
+    public ProductChangedEvent(ChangeType changeType, List<Long> productIds, List<ProductDto> products) {
+        this(changeType, productIds, products, false);
+    }
+
+    public ProductChangedEvent(ChangeType changeType, List<Long> productIds, List<ProductDto> products, boolean remote) {
+        this.changeType = changeType;
+        this.productIds = productIds;
+        this.products = products;
+        this.remote = remote;
+    }
+
+    public static ProductChangedEvent created(List<ProductDto> products) {
+        return new ProductChangedEvent(ChangeType.CREATED, idsOf(products), products);
+    }
+
+    public static ProductChangedEvent updated(List<ProductDto> products) {
+        return new ProductChangedEvent(ChangeType.UPDATED, idsOf(products), products);
+    }
+
+    public static ProductChangedEvent deleted(List<Long> productIds) {
+        return new ProductChangedEvent(ChangeType.DELETED, productIds, List.of());
+    }
+
+    private static List<Long> idsOf(List<ProductDto> products) {
+        return products.stream().map(ProductDto::getProduct_id).collect(Collectors.toList());
+    }
+}
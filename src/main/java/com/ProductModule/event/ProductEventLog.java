@@ -0,0 +1,175 @@
+package com.ProductModule.event;
+
+import com.ProductModule.Entity.ProductEvent;
+import com.ProductModule.Repository.ProductEventRepository;
+import com.ProductModule.payLoad.ProductChange;
+import com.ProductModule.payLoad.ProductDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Durable, ordered log of product writes in the {@code product_event} table, replacing full-table polling with
+ * incremental reads from an offset.
+ * <p>
+ * Every {@link ProductChangedEvent} is appended just before its transaction commits, so the log holds exactly the
+ * committed writes. Offsets come from an identity column and are assigned at insert, which is not commit order:
+ * a reader that sees offset n+1 while n is still committing must not move past n. {@link #read} therefore stops at a
+ * gap in the offsets until the entry after it is older than product.events.gap-timeout; gaps left by rolled-back
+ * transactions or by the retention purge are skipped once that time has passed.
+ */
+@Component
+public class ProductEventLog {
+    private static final Logger logger = LoggerFactory.getLogger(ProductEventLog.class);
+
+    private final ProductEventRepository productEventRepository;
+    private final Duration retention;
+    private final Duration gapTimeout;
+    private final Duration pollInterval;
+    private final Duration followTimeout;
+    private final int defaultBatchSize;
+    private final int maxBatchSize;
+    // completed after each local commit, waking followers without waiting for the next poll
+    private final AtomicReference<CompletableFuture<Void>> nextAppend = new AtomicReference<>(new CompletableFuture<>());
+
+    @Autowired
+    public ProductEventLog(ProductEventRepository productEventRepository,
+                           @Value("${product.events.retention:7d}") Duration retention,
+                           @Value("${product.events.gap-timeout:5s}") Duration gapTimeout,
+                           @Value("${product.events.poll-interval:1s}") Duration pollInterval,
+                           @Value("${product.events.follow-timeout:25s}") Duration followTimeout,
+                           @Value("${product.events.batch-size:500}") int defaultBatchSize,
+                           @Value("${product.events.max-batch-size:5000}") int maxBatchSize) {
+        this.productEventRepository = productEventRepository;
+        this.retention = retention;
+        this.gapTimeout = gapTimeout;
+        this.pollInterval = pollInterval;
+        this.followTimeout = followTimeout;
+        this.defaultBatchSize = defaultBatchSize;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Runs inside the writing transaction, so the log entry commits or rolls back with the write.
+     * Writes published outside a transaction (the reactive API) are appended right away in a transaction of
+     * their own, after the write, so they are not atomic with it.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void append(ProductChangedEvent event) {
+        // a remote write was logged by the instance that made it; the log table is shared
+        if (event.isRemote() || event.getProductIds().isEmpty()) {
+            return;
+        }
+        Instant now = Instant.now();
+        if (event.getChangeType() == ProductChangedEvent.ChangeType.DELETED) {
+            productEventRepository.appendDeleted(event.getProductIds(), now);
+        } else {
+            productEventRepository.appendCurrentState(event.getChangeType().name(), event.getProductIds(), now);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommitted(ProductChangedEvent event) {
+        nextAppend.getAndSet(new CompletableFuture<>()).complete(null);
+    }
+
+    public int resolveBatchSize(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return defaultBatchSize;
+        }
+        return Math.min(limit, maxBatchSize);
+    }
+
+    /**
+     * @param after offset of the last entry already consumed, 0 to start at the oldest retained entry
+     * @return up to {@code limit} entries in offset order; fewer while an earlier offset may still be committing
+     */
+    public List<ProductChange> read(long after, int limit) {
+        List<ProductEvent> events = productEventRepository.findAfter(after, PageRequest.of(0, limit));
+        Instant settled = Instant.now().minus(gapTimeout);
+        List<ProductChange> changes = new ArrayList<>(events.size());
+        long expected = after + 1;
+        for (ProductEvent event : events) {
+            if (event.getEvent_id() != expected && event.getCreated_at().isAfter(settled)) {
+                logger.debug("Holding back change log after offset {} until offset {} commits or times out", expected - 1, expected);
+                break;
+            }
+            changes.add(toChange(event));
+            expected = event.getEvent_id() + 1;
+        }
+        return changes;
+    }
+
+    /**
+     * Hands entries to the consumer batch by batch as they commit, for product.events.follow-timeout.
+     * Local commits wake the loop at once; writes of other instances are picked up every product.events.poll-interval.
+     *
+     * @return offset of the last entry handed over, or {@code after} when there was none
+     */
+    public long follow(long after, int limit, Consumer<List<ProductChange>> consumer) throws InterruptedException {
+        long deadline = System.nanoTime() + followTimeout.toNanos();
+        long offset = after;
+        while (System.nanoTime() < deadline) {
+            // taken before reading, so a commit between the read and the wait is not missed
+            CompletableFuture<Void> appended = nextAppend.get();
+            List<ProductChange> changes = read(offset, limit);
+            if (!changes.isEmpty()) {
+                consumer.accept(changes);
+                offset = changes.get(changes.size() - 1).getOffset();
+            }
+            if (changes.size() < limit) {
+                long waitNanos = Math.min(pollInterval.toNanos(), deadline - System.nanoTime());
+                if (waitNanos > 0) {
+                    try {
+                        appended.get(waitNanos, TimeUnit.NANOSECONDS);
+                    } catch (TimeoutException | ExecutionException e) {
+                        // poll again
+                    }
+                }
+            }
+        }
+        return offset;
+    }
+
+    /**
+     * Drops entries older than product.events.retention; consumers further behind must resynchronise from /getAll.
+     */
+    @Scheduled(fixedDelayString = "${product.events.purge-interval:PT1H}")
+    @Transactional
+    public void purge() {
+        int purged = productEventRepository.deleteOlderThan(Instant.now().minus(retention));
+        if (purged > 0) {
+            logger.info("Purged {} product change log entries older than {}", purged, retention);
+        }
+    }
+
+    private static ProductChange toChange(ProductEvent event) {
+        ProductDto product = ProductChangedEvent.ChangeType.DELETED.name().equals(event.getChange_type()) ? null
+                : new ProductDto(event.getProduct_id(), event.getProduct_name(), event.getPrice(), event.getVersion());
+        return ProductChange.builder()
+                .offset(event.getEvent_id())
+                .change_type(event.getChange_type())
+                .product_id(event.getProduct_id())
+                .product(product)
+                .created_at(event.getCreated_at())
+                .build();
+    }
+}
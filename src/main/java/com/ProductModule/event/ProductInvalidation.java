@@ -0,0 +1,27 @@
+package com.ProductModule.event;
+
+import com.ProductModule.payLoad.ProductDto;
+
+import java.util.List;
+
+/**
+ * A committed product write as broadcast to the other instances, so they can drop their per-node copies.
+ *
+ * @param origin instance that made the write; it ignores its own messages
+ * @param sentAt epoch millis at which the message was published, to measure the propagation lag
+ */
+public record ProductInvalidation(String origin, long sentAt, ProductChangedEvent.ChangeType changeType,
+                                  List<Long> productIds, List<ProductDto> products) {
+
+    public static ProductInvalidation of(String origin, ProductChangedEvent event) {
+        return new ProductInvalidation(origin, System.currentTimeMillis(), event.getChangeType(),
+                event.getProductIds(), event.getProducts());
+    }
+
+    /**
+     * The event listeners on the receiving instance react to, marked as remote so it is not logged or broadcast again.
+     */
+    public ProductChangedEvent toEvent() {
+        return new ProductChangedEvent(changeType, productIds, products == null ? List.of() : products, true);
+    }
+}
@@ -0,0 +1,49 @@
+package com.ProductModule.mapper;
+
+import com.ProductModule.Entity.Product;
+import com.ProductModule.payLoad.ProductDto;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Plain field-by-field mapper between {@link Product} and {@link ProductDto}.
+ * No reflection and no type-map lookups: each conversion is one allocation and a few field copies.
+ * Keep it in sync when a field is added to either class.
+ */
+@Component
+public class ProductMapper {
+
+    public ProductDto toDto(Product product) {
+        if (product == null) {
+            return null;
+        }
+        return new ProductDto(product.product_id, product.product_name, product.price, product.version);
+    }
+
+    public Product toEntity(ProductDto productDto) {
+        if (productDto == null) {
+            return null;
+        }
+        return new Product(productDto.product_id, productDto.product_name, productDto.price, productDto.version, null, false);
+    }
+
+    public ProductDto copy(ProductDto productDto) {
+        if (productDto == null) {
+            return null;
+        }
+        return new ProductDto(productDto.product_id, productDto.product_name, productDto.price, productDto.version);
+    }
+
+    /**
+     * Bulk conversion into a pre-sized list, without the stream pipeline overhead.
+     */
+    public List<ProductDto> toDtoList(List<Product> products) {
+        List<ProductDto> productDtos = new ArrayList<>(products.size());
+        for (Product product : products) {
+            productDtos.add(toDto(product));
+        }
+        return productDtos;
+    }
+}
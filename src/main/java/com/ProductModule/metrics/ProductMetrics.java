@@ -0,0 +1,56 @@
+package com.ProductModule.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Meters recorded by hand inside the service, where an annotation can't reach.
+ * Per-operation latency is measured by {@code @Timed} on {@link com.ProductModule.service.ProductService};
+ * this class covers the mapper, whose cost is otherwise folded into those timers.
+ */
+@Component
+public class ProductMetrics {
+    public static final String OPERATION_TIMER = "product.operation";
+    public static final String MAPPER_TIMER = "product.mapper";
+
+    public enum Mapping {
+        TO_DTO("to_dto"),
+        TO_ENTITY("to_entity"),
+        TO_DTO_LIST("to_dto_list");
+
+        private final String tag;
+
+        Mapping(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private final Map<Mapping, Timer> mapperTimers = new EnumMap<>(Mapping.class);
+
+    @Autowired
+    public ProductMetrics(MeterRegistry meterRegistry) {
+        for (Mapping mapping : Mapping.values()) {
+            mapperTimers.put(mapping, Timer.builder(MAPPER_TIMER)
+                    .description("Time spent converting between Product and ProductDto")
+                    .tag("mapping", mapping.tag)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofNanos(100))
+                    .maximumExpectedValue(Duration.ofSeconds(10))
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Runs the conversion and records its duration; exceptions propagate unchanged.
+     */
+    public <T> T timeMapping(Mapping mapping, Supplier<T> conversion) {
+        return mapperTimers.get(mapping).record(conversion);
+    }
+}
@@ -0,0 +1,82 @@
+package com.ProductModule.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts every SQL statement Hibernate prepares, tagged by statement type, so a change that adds
+ * round trips to a hot path shows up in {@code product.db.statements} before it shows up in latency.
+ * Statements issued through JdbcTemplate or R2DBC bypass Hibernate and are not counted here.
+ */
+public class ProductStatementInspector implements StatementInspector {
+    public static final String STATEMENT_COUNTER = "product.db.statements";
+
+    private final Counter selects;
+    private final Counter inserts;
+    private final Counter updates;
+    private final Counter deletes;
+    private final Counter others;
+
+    public ProductStatementInspector(MeterRegistry meterRegistry) {
+        this.selects = counter(meterRegistry, "select");
+        this.inserts = counter(meterRegistry, "insert");
+        this.updates = counter(meterRegistry, "update");
+        this.deletes = counter(meterRegistry, "delete");
+        this.others = counter(meterRegistry, "other");
+    }
+
+    @Override
+    public String inspect(String sql) {
+        counterFor(sql).increment();
+        return sql;
+    }
+
+    private Counter counterFor(String sql) {
+        int start = firstKeyword(sql);
+        if (startsWith(sql, start, "select") || startsWith(sql, start, "with")) {
+            return selects;
+        }
+        if (startsWith(sql, start, "insert")) {
+            return inserts;
+        }
+        if (startsWith(sql, start, "update")) {
+            return updates;
+        }
+        if (startsWith(sql, start, "delete")) {
+            return deletes;
+        }
+        return others;
+    }
+
+    /**
+     * Skips leading whitespace and a leading comment (hibernate.use_sql_comments).
+     */
+    private static int firstKeyword(String sql) {
+        int i = 0;
+        while (i < sql.length() && Character.isWhitespace(sql.charAt(i))) {
+            i++;
+        }
+        if (sql.startsWith("/*", i)) {
+            int end = sql.indexOf("*/", i + 2);
+            if (end >= 0) {
+                i = end + 2;
+                while (i < sql.length() && Character.isWhitespace(sql.charAt(i))) {
+                    i++;
+                }
+            }
+        }
+        return i;
+    }
+
+    private static boolean startsWith(String sql, int offset, String keyword) {
+        return sql.regionMatches(true, offset, keyword, 0, keyword.length());
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String type) {
+        return Counter.builder(STATEMENT_COUNTER)
+                .description("SQL statements prepared by Hibernate")
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+}
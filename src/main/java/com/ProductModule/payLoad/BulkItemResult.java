@@ -0,0 +1,21 @@
+package com.ProductModule.payLoad;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one item of a bulk request. {@code index} is the item's position in the request body,
+ * {@code status} the HTTP status the equivalent single-item call would have returned.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class BulkItemResult {
+    public int index;
+    public Long product_id;
+    public int status;
+    public ProductDto product;
+    public String error;
+}
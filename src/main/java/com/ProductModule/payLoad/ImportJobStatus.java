@@ -0,0 +1,30 @@
+package com.ProductModule.payLoad;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Progress of a product import job. {@code errors} holds the first rejected records, with {@code index} set to
+ * the record's line number in the upload; {@code failed} counts all of them. {@code error} is set when the job
+ * as a whole failed.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class ImportJobStatus {
+    public String job_id;
+    public String format;
+    public String state;
+    public long records_read;
+    public long imported;
+    public long failed;
+    public List<BulkItemResult> errors;
+    public String error;
+    public Instant created_at;
+    public Instant finished_at;
+}
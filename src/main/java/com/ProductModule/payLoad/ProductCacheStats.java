@@ -0,0 +1,17 @@
+package com.ProductModule.payLoad;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class ProductCacheStats {
+    public long size;
+    public long hit_count;
+    public long miss_count;
+    public long eviction_count;
+    public double hit_rate;
+}
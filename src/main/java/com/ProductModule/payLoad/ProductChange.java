@@ -0,0 +1,28 @@
+package com.ProductModule.payLoad;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * One entry of the product change log. Resume a stream by passing the last {@code offset} seen as {@code after}.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class ProductChange {
+    public Long offset;
+    /**
+     * CREATED, UPDATED or DELETED.
+     */
+    public String change_type;
+    public Long product_id;
+    /**
+     * State after the change; null for deletes.
+     */
+    public ProductDto product;
+    public Instant created_at;
+}
@@ -0,0 +1,22 @@
+package com.ProductModule.payLoad;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Products written after a /changes watermark. {@code next_since} is the watermark for the next call and is
+ * never null; {@code has_more} tells the client to call again right away.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class ProductChanges {
+    public List<ProductDto> changed;
+    public List<Long> deleted;
+    public String next_since;
+    public boolean has_more;
+}
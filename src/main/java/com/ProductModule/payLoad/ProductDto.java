@@ -1,15 +1,25 @@
 package com.ProductModule.payLoad;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
+
+/**
+ * The constraints mirror the product columns, so invalid items are rejected before they reach the database.
+ */
 @AllArgsConstructor
 @NoArgsConstructor
 @Data
 @Builder
 public class ProductDto {
     public Long product_id;
+    @Size(max = 255, message = "product_name can't be longer than 255 characters")
     public String product_name;
-    public String price;
-}
\ No newline at end of file
+    @Digits(integer = 17, fraction = 2, message = "price must have at most 17 integer and 2 fraction digits")
+    public BigDecimal price;
+    public Long version;
+}
@@ -0,0 +1,19 @@
+package com.ProductModule.payLoad;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Result of a multi-get: the products found, in request order, and the requested ids that do not exist.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class ProductMultiGet {
+    public List<ProductDto> products;
+    public List<Long> missing;
+}
@@ -0,0 +1,20 @@
+package com.ProductModule.payLoad;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One keyset page of products. {@code next_cursor} is null on the last page.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class ProductPage {
+    public List<ProductDto> content;
+    public String next_cursor;
+    public int size;
+}
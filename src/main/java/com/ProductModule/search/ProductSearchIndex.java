@@ -0,0 +1,333 @@
+package com.ProductModule.search;
+
+import com.ProductModule.Exception.InvalidProductDataException;
+import com.ProductModule.Repository.ProductRepository;
+import com.ProductModule.event.ProductChangedEvent;
+import com.ProductModule.mapper.ProductMapper;
+import com.ProductModule.payLoad.ProductDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * In-memory search over product names, loaded from the database once the application is ready and kept current
+ * from {@link ProductChangedEvent}s after each committed write.
+ * <ul>
+ *     <li>prefix: a sorted map of lower-cased names, answered with one range lookup</li>
+ *     <li>full text: an inverted index from word to product ids, answered by intersecting the postings</li>
+ *     <li>substring: an index from every three-character sequence to product ids, optional; queries need at
+ *     least three characters</li>
+ * </ul>
+ * Postings are sorted by id, so an intersection walks the smallest posting and stops once {@code limit}
+ * products are found. Reads take no locks; writes are serialised by a single lock, and every candidate is checked
+ * against the product's current name, so a search that overlaps a write never returns a stale match.
+ * The trigram index is off by default (product.search.substring-index.enabled): it holds about one posting entry
+ * per character of every name, each a skip-list node of some 40 bytes, so several times the heap of the names
+ * themselves. Without it a substring search scans every name.
+ */
+@Component
+public class ProductSearchIndex {
+    private static final Logger logger = LoggerFactory.getLogger(ProductSearchIndex.class);
+    private static final int GRAM = 3;
+
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+    private final boolean substringIndexEnabled;
+    private final int defaultLimit;
+    private final int maxLimit;
+
+    private final ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<String, Posting> byName = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<String, Posting> byToken = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Posting> byTrigram = new ConcurrentHashMap<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    // products deleted while the initial load is running must not be re-added by it
+    private final Set<Long> deletedDuringRebuild = ConcurrentHashMap.newKeySet();
+    private volatile boolean rebuilding;
+
+    @Autowired
+    public ProductSearchIndex(ProductRepository productRepository, ProductMapper productMapper,
+                              @Value("${product.search.substring-index.enabled:false}") boolean substringIndexEnabled,
+                              @Value("${product.search.default-limit:20}") int defaultLimit,
+                              @Value("${product.search.max-limit:1000}") int maxLimit) {
+        this.productRepository = productRepository;
+        this.productMapper = productMapper;
+        this.substringIndexEnabled = substringIndexEnabled;
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    /**
+     * Loads every product through the streaming DTO query. Products written concurrently through the service are
+     * applied by {@link #onProductChanged} and take precedence over the rows read here.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        rebuilding = true;
+        long count = 0;
+        try (Stream<ProductDto> products = productRepository.streamAllAsDto()) {
+            for (ProductDto productDto : (Iterable<ProductDto>) products::iterator) {
+                writeLock.lock();
+                try {
+                    if (!entries.containsKey(productDto.getProduct_id())
+                            && !deletedDuringRebuild.contains(productDto.getProduct_id())) {
+                        put(productDto);
+                    }
+                } finally {
+                    writeLock.unlock();
+                }
+                count++;
+            }
+        } finally {
+            rebuilding = false;
+            deletedDuringRebuild.clear();
+        }
+        logger.info("Search index loaded {} products", count);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        writeLock.lock();
+        try {
+            if (event.getChangeType() == ProductChangedEvent.ChangeType.DELETED) {
+                for (Long productId : event.getProductIds()) {
+                    remove(productId);
+                    if (rebuilding) {
+                        deletedDuringRebuild.add(productId);
+                    }
+                }
+            } else {
+                for (ProductDto productDto : event.getProducts()) {
+                    put(productDto);
+                }
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * @param query text to match, case-insensitive
+     * @param mode  prefix, substring or fulltext (default)
+     * @param limit maximum number of results, capped at product.search.max-limit
+     */
+    public List<ProductDto> search(String query, String mode, Integer limit) {
+        if (query == null || query.isBlank()) {
+            throw new InvalidProductDataException("Search query must not be empty", HttpStatus.BAD_REQUEST);
+        }
+        SearchMode searchMode = SearchMode.parse(mode);
+        int maxResults = limit == null || limit <= 0 ? defaultLimit : Math.min(limit, maxLimit);
+        String normalized = normalize(query);
+        List<ProductDto> results = switch (searchMode) {
+            case PREFIX -> searchPrefix(normalized, maxResults);
+            case SUBSTRING -> searchSubstring(normalized, maxResults);
+            case FULLTEXT -> searchFullText(normalized, maxResults);
+        };
+        logger.debug("Search '{}' in {} mode returned {} products", query, searchMode, results.size());
+        return results;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private List<ProductDto> searchPrefix(String prefix, int limit) {
+        List<ProductDto> results = new ArrayList<>();
+        Map<String, Posting> range = byName.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        for (Posting posting : range.values()) {
+            for (Long productId : posting.ids) {
+                if (collect(productId, name -> name.startsWith(prefix), results) == limit) {
+                    return results;
+                }
+            }
+        }
+        return results;
+    }
+
+    private List<ProductDto> searchFullText(String query, int limit) {
+        Set<String> tokens = tokenize(query);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        return intersect(tokens, byToken, name -> tokenize(name).containsAll(tokens), limit);
+    }
+
+    private List<ProductDto> searchSubstring(String query, int limit) {
+        // one or two characters match a large share of any catalog and can't use the trigram index
+        if (query.length() < GRAM) {
+            throw new InvalidProductDataException("Substring search needs at least " + GRAM + " characters", HttpStatus.BAD_REQUEST);
+        }
+        if (substringIndexEnabled) {
+            return intersect(trigrams(query), byTrigram, name -> name.contains(query), limit);
+        }
+        // no index: scan every name, then keep the lowest ids like the indexed path
+        List<Entry> matches = new ArrayList<>();
+        for (Entry entry : entries.values()) {
+            if (entry.name().contains(query)) {
+                matches.add(entry);
+            }
+        }
+        return matches.stream()
+                .sorted(Comparator.comparing(entry -> entry.product().getProduct_id()))
+                .limit(limit)
+                .map(entry -> productMapper.copy(entry.product()))
+                .toList();
+    }
+
+    /**
+     * Walks the smallest posting in id order and keeps the ids present in all the others.
+     */
+    private List<ProductDto> intersect(Set<String> keys, Map<String, Posting> index, Predicate<String> matches, int limit) {
+        Posting[] postings = new Posting[keys.size()];
+        int i = 0;
+        for (String key : keys) {
+            Posting posting = index.get(key);
+            if (posting == null) {
+                return List.of();
+            }
+            postings[i++] = posting;
+        }
+        Arrays.sort(postings, Comparator.comparingInt(posting -> posting.size));
+        List<ProductDto> results = new ArrayList<>();
+        candidates:
+        for (Long productId : postings[0].ids) {
+            for (int p = 1; p < postings.length; p++) {
+                if (!postings[p].ids.contains(productId)) {
+                    continue candidates;
+                }
+            }
+            if (collect(productId, matches, results) == limit) {
+                break;
+            }
+        }
+        return results;
+    }
+
+    private int collect(Long productId, Predicate<String> matches, List<ProductDto> results) {
+        Entry entry = entries.get(productId);
+        if (entry != null && matches.test(entry.name())) {
+            results.add(productMapper.copy(entry.product()));
+        }
+        return results.size();
+    }
+
+    // --- writes, always under writeLock ---
+
+    private void put(ProductDto productDto) {
+        Long productId = productDto.getProduct_id();
+        Entry entry = new Entry(productMapper.copy(productDto), normalize(productDto.getProduct_name()));
+        Entry previous = entries.put(productId, entry);
+        if (previous != null) {
+            unindex(productId, previous.name());
+        }
+        index(productId, entry.name());
+    }
+
+    private void remove(Long productId) {
+        Entry previous = entries.remove(productId);
+        if (previous != null) {
+            unindex(productId, previous.name());
+        }
+    }
+
+    private void index(Long productId, String name) {
+        add(byName, name, productId);
+        for (String token : tokenize(name)) {
+            add(byToken, token, productId);
+        }
+        if (substringIndexEnabled) {
+            for (String trigram : trigrams(name)) {
+                add(byTrigram, trigram, productId);
+            }
+        }
+    }
+
+    private void unindex(Long productId, String name) {
+        delete(byName, name, productId);
+        for (String token : tokenize(name)) {
+            delete(byToken, token, productId);
+        }
+        if (substringIndexEnabled) {
+            for (String trigram : trigrams(name)) {
+                delete(byTrigram, trigram, productId);
+            }
+        }
+    }
+
+    private static void add(Map<String, Posting> index, String key, Long productId) {
+        Posting posting = index.computeIfAbsent(key, k -> new Posting());
+        if (posting.ids.add(productId)) {
+            posting.size++;
+        }
+    }
+
+    private static void delete(Map<String, Posting> index, String key, Long productId) {
+        Posting posting = index.get(key);
+        if (posting != null && posting.ids.remove(productId) && --posting.size == 0) {
+            index.remove(key);
+        }
+    }
+
+    static String normalize(String text) {
+        return text == null ? "" : text.strip().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Splits on anything that is not a letter or a digit.
+     */
+    static Set<String> tokenize(String normalized) {
+        Set<String> tokens = new LinkedHashSet<>();
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean wordChar = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(normalized.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    static Set<String> trigrams(String normalized) {
+        Set<String> trigrams = new HashSet<>();
+        for (int i = 0; i + GRAM <= normalized.length(); i++) {
+            trigrams.add(normalized.substring(i, i + GRAM));
+        }
+        return trigrams;
+    }
+
+    private record Entry(ProductDto product, String name) {
+    }
+
+    private static final class Posting {
+        private final ConcurrentSkipListSet<Long> ids = new ConcurrentSkipListSet<>();
+        // only written under writeLock; read without it to order postings, where an approximate value is fine
+        private volatile int size;
+    }
+}
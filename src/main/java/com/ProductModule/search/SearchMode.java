@@ -0,0 +1,39 @@
+package com.ProductModule.search;
+
+import com.ProductModule.Exception.InvalidProductDataException;
+import org.springframework.http.HttpStatus;
+
+import java.util.Locale;
+
+/**
+ * How a search query is matched against product names. All modes are case-insensitive.
+ */
+public enum SearchMode {
+    /**
+     * The name starts with the query; results in name order.
+     */
+    PREFIX,
+    /**
+     * The query occurs anywhere in the name; results in id order.
+     */
+    SUBSTRING,
+    /**
+     * Every word of the query is a word of the name; results in id order.
+     */
+    FULLTEXT;
+
+    /**
+     * @param mode request parameter value; null or blank means {@link #FULLTEXT}
+     */
+    public static SearchMode parse(String mode) {
+        if (mode == null || mode.isBlank()) {
+            return FULLTEXT;
+        }
+        try {
+            return valueOf(mode.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidProductDataException("Invalid search mode:" + mode + ", expected prefix, substring or fulltext",
+                    HttpStatus.BAD_REQUEST);
+        }
+    }
+}
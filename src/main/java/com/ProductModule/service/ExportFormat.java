@@ -0,0 +1,51 @@
+package com.ProductModule.service;
+
+import com.ProductModule.Exception.InvalidProductDataException;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Encodings of the catalog export. Both are gzip compressed.
+ * <ul>
+ *     <li>{@code ndjson}: one product JSON object per line.</li>
+ *     <li>{@code binary}: the magic {@code PRD1}, then blocks of products stored column by column, all numbers
+ *     big-endian: int32 count, count int64 product ids, count int64 versions, count prices (int8 length of the
+ *     unscaled two's-complement value, -1 for null, then int8 scale and the value bytes), count names (int32 UTF-8
+ *     length, -1 for null, then the bytes).</li>
+ * </ul>
+ */
+public enum ExportFormat {
+    NDJSON("ndjson", "products.ndjson.gz"),
+    BINARY("binary", "products.bin.gz");
+
+    private final String parameter;
+    private final String fileName;
+
+    ExportFormat(String parameter, String fileName) {
+        this.parameter = parameter;
+        this.fileName = fileName;
+    }
+
+    /**
+     * @param format request parameter value; null or blank means {@link #NDJSON}
+     */
+    public static ExportFormat parse(String format) {
+        if (format == null || format.isBlank()) {
+            return NDJSON;
+        }
+        for (ExportFormat exportFormat : values()) {
+            if (exportFormat.parameter.equalsIgnoreCase(format.trim())) {
+                return exportFormat;
+            }
+        }
+        throw new InvalidProductDataException("Invalid format:" + format + ", expected ndjson or binary", HttpStatus.BAD_REQUEST);
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    @Override
+    public String toString() {
+        return parameter;
+    }
+}
@@ -0,0 +1,32 @@
+package com.ProductModule.service;
+
+import com.ProductModule.Exception.InvalidProductDataException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+/**
+ * Upload formats of the product import, selected by the request's Content-Type.
+ */
+public enum ImportFormat {
+    CSV(MediaType.parseMediaType("text/csv")),
+    NDJSON(MediaType.APPLICATION_NDJSON);
+
+    private final MediaType mediaType;
+
+    ImportFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public static ImportFormat fromContentType(String contentType) {
+        if (contentType != null && !contentType.isBlank()) {
+            MediaType requested = MediaType.parseMediaType(contentType);
+            for (ImportFormat format : values()) {
+                if (format.mediaType.isCompatibleWith(requested)) {
+                    return format;
+                }
+            }
+        }
+        throw new InvalidProductDataException("Invalid Content-Type:" + contentType + ", expected text/csv or "
+                + MediaType.APPLICATION_NDJSON_VALUE, HttpStatus.BAD_REQUEST);
+    }
+}
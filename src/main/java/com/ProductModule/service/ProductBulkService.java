@@ -0,0 +1,257 @@
+package com.ProductModule.service;
+
+import com.ProductModule.Entity.Product;
+import com.ProductModule.Exception.InvalidProductDataException;
+import com.ProductModule.Repository.ProductRepository;
+import com.ProductModule.event.ProductChangedEvent;
+import com.ProductModule.mapper.ProductMapper;
+import com.ProductModule.payLoad.BulkItemResult;
+import com.ProductModule.payLoad.ProductDto;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk create/update/delete. Valid items are written in chunks of product.bulk.chunk-size, one transaction
+ * per chunk, using JDBC batching. When a chunk fails its items are retried one by one so a single bad
+ * item only fails itself. Every item gets its own {@link BulkItemResult}.
+ */
+@Service
+public class ProductBulkService {
+    private static final Logger logger = LoggerFactory.getLogger(ProductBulkService.class);
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProductIdGenerator productIdGenerator;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final int chunkSize;
+    private final int maxItems;
+
+    @Autowired
+    public ProductBulkService(ProductRepository productRepository, ProductMapper productMapper,
+                              ApplicationEventPublisher eventPublisher, ProductIdGenerator productIdGenerator,
+                              PlatformTransactionManager transactionManager,
+                              Validator validator,
+                              @Value("${product.bulk.chunk-size:500}") int chunkSize,
+                              @Value("${product.bulk.max-items:10000}") int maxItems) {
+        this.productRepository = productRepository;
+        this.productMapper = productMapper;
+        this.eventPublisher = eventPublisher;
+        this.productIdGenerator = productIdGenerator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+        this.maxItems = maxItems;
+    }
+
+    public List<BulkItemResult> createAll(List<ProductDto> productDtos) {
+        checkSize(productDtos);
+        BulkItemResult[] results = new BulkItemResult[productDtos.size()];
+        long[] productIds = new long[productDtos.size()];
+        List<Integer> valid = new ArrayList<>(productDtos.size());
+        for (int index = 0; index < productDtos.size(); index++) {
+            if (isValid(index, productDtos.get(index), results)) {
+                productIds[index] = productIdGenerator.nextId();
+                valid.add(index);
+            }
+        }
+        writeInChunks(valid, results, chunk -> {
+            List<Product> products = new ArrayList<>(chunk.size());
+            for (int index : chunk) {
+                Product product = productMapper.toEntity(productDtos.get(index));
+                product.setProduct_id(productIds[index]);
+                product.setVersion(null);
+                products.add(product);
+            }
+            productRepository.insertAll(products);
+            List<ProductDto> created = productMapper.toDtoList(products);
+            for (int i = 0; i < chunk.size(); i++) {
+                results[chunk.get(i)] = success(chunk.get(i), HttpStatus.CREATED, created.get(i));
+            }
+            eventPublisher.publishEvent(ProductChangedEvent.created(created));
+        }, index -> productIds[index]);
+        logger.info("Bulk create finished for {} items", productDtos.size());
+        return Arrays.asList(results);
+    }
+
+    public List<BulkItemResult> updateAll(List<ProductDto> productDtos) {
+        checkSize(productDtos);
+        BulkItemResult[] results = new BulkItemResult[productDtos.size()];
+        List<Integer> valid = new ArrayList<>(productDtos.size());
+        for (int index = 0; index < productDtos.size(); index++) {
+            ProductDto productDto = productDtos.get(index);
+            if (productDto != null && (productDto.getProduct_id() == null || productDto.getProduct_id() < 0)) {
+                results[index] = failure(index, productDto.getProduct_id(), HttpStatus.BAD_REQUEST, "ProductId can't be null and Negative");
+            } else if (isValid(index, productDto, results)) {
+                valid.add(index);
+            }
+        }
+        writeInChunks(valid, results, chunk -> {
+            List<Product> products = new ArrayList<>(chunk.size());
+            for (int index : chunk) {
+                Product product = productMapper.toEntity(productDtos.get(index));
+                // the batch UPDATE increments the stored version; it is read back below
+                product.setVersion(null);
+                products.add(product);
+            }
+            int[] counts = productRepository.updateAll(products);
+            Map<Long, Long> versions = updatedVersions(products, counts);
+            List<ProductDto> updated = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                int index = chunk.get(i);
+                Long productId = products.get(i).getProduct_id();
+                if (isAffected(counts[i])) {
+                    products.get(i).setVersion(versions.get(productId));
+                    ProductDto productDto = productMapper.toDto(products.get(i));
+                    updated.add(productDto);
+                    results[index] = success(index, HttpStatus.OK, productDto);
+                } else {
+                    results[index] = failure(index, productId, HttpStatus.NOT_FOUND, "Product with ID " + productId + " not found.");
+                }
+            }
+            if (!updated.isEmpty()) {
+                eventPublisher.publishEvent(ProductChangedEvent.updated(updated));
+            }
+        }, index -> productDtos.get(index).getProduct_id());
+        logger.info("Bulk update finished for {} items", productDtos.size());
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Reads the versions of the updated rows back in one query. The rows stay locked until the chunk commits,
+     * so these are the versions the batch UPDATE wrote.
+     */
+    private Map<Long, Long> updatedVersions(List<Product> products, int[] counts) {
+        List<Long> updatedIds = new ArrayList<>(products.size());
+        for (int i = 0; i < products.size(); i++) {
+            if (isAffected(counts[i])) {
+                updatedIds.add(products.get(i).getProduct_id());
+            }
+        }
+        Map<Long, Long> versions = new HashMap<>(updatedIds.size() * 2);
+        if (!updatedIds.isEmpty()) {
+            for (ProductDto current : productRepository.findAllAsDtoByIdIn(updatedIds)) {
+                versions.put(current.getProduct_id(), current.getVersion());
+            }
+        }
+        return versions;
+    }
+
+    public List<BulkItemResult> deleteAll(List<Long> productIds) {
+        checkSize(productIds);
+        BulkItemResult[] results = new BulkItemResult[productIds.size()];
+        List<Integer> valid = new ArrayList<>(productIds.size());
+        for (int index = 0; index < productIds.size(); index++) {
+            Long productId = productIds.get(index);
+            if (productId == null || productId < 0) {
+                results[index] = failure(index, productId, HttpStatus.BAD_REQUEST, "Product ID must not be null and cannot be negative: " + productId);
+            } else {
+                valid.add(index);
+            }
+        }
+        writeInChunks(valid, results, chunk -> {
+            List<Long> chunkIds = chunk.stream().map(productIds::get).collect(Collectors.toList());
+            int[] counts = productRepository.deleteAllByIds(chunkIds);
+            List<Long> deleted = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                int index = chunk.get(i);
+                Long productId = chunkIds.get(i);
+                if (isAffected(counts[i])) {
+                    deleted.add(productId);
+                    results[index] = BulkItemResult.builder().index(index).product_id(productId).status(HttpStatus.OK.value()).build();
+                } else {
+                    results[index] = failure(index, productId, HttpStatus.NOT_FOUND, "Product with ID " + productId + " not found.");
+                }
+            }
+            if (!deleted.isEmpty()) {
+                eventPublisher.publishEvent(ProductChangedEvent.deleted(deleted));
+            }
+        }, productIds::get);
+        logger.info("Bulk delete finished for {} items", productIds.size());
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Runs the writer once per chunk, each in its own transaction. A failed chunk is rolled back and
+     * replayed item by item, so the error is attributed to the items that actually caused it.
+     */
+    private void writeInChunks(List<Integer> indexes, BulkItemResult[] results, Consumer<List<Integer>> chunkWriter,
+                               IntFunction<Long> productIdOf) {
+        for (int from = 0; from < indexes.size(); from += chunkSize) {
+            List<Integer> chunk = indexes.subList(from, Math.min(from + chunkSize, indexes.size()));
+            try {
+                transactionTemplate.executeWithoutResult(status -> chunkWriter.accept(chunk));
+            } catch (RuntimeException chunkFailure) {
+                logger.warn("Bulk chunk of {} items failed, retrying item by item: {}", chunk.size(), chunkFailure.getMessage());
+                for (Integer index : chunk) {
+                    try {
+                        transactionTemplate.executeWithoutResult(status -> chunkWriter.accept(List.of(index)));
+                    } catch (RuntimeException itemFailure) {
+                        HttpStatus status = itemFailure instanceof DataIntegrityViolationException
+                                ? HttpStatus.CONFLICT : HttpStatus.INTERNAL_SERVER_ERROR;
+                        results[index] = failure(index, productIdOf.apply(index), status, itemFailure.getMessage());
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean isValid(int index, ProductDto productDto, BulkItemResult[] results) {
+        if (productDto == null) {
+            results[index] = failure(index, null, HttpStatus.BAD_REQUEST, "Product data not contain anything");
+            return false;
+        }
+        Set<ConstraintViolation<ProductDto>> violations = validator.validate(productDto);
+        if (!violations.isEmpty()) {
+            String errors = violations.stream().map(ConstraintViolation::getMessage).collect(Collectors.joining(", "));
+            results[index] = failure(index, productDto.getProduct_id(), HttpStatus.BAD_REQUEST, errors);
+            return false;
+        }
+        return true;
+    }
+
+    private void checkSize(List<?> items) {
+        if (items == null || items.isEmpty()) {
+            throw new InvalidProductDataException("Bulk request must contain at least one item", HttpStatus.BAD_REQUEST);
+        }
+        if (items.size() > maxItems) {
+            throw new InvalidProductDataException("Bulk request can't contain more than " + maxItems + " items", HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * Some drivers (MySQL with rewriteBatchedStatements) report SUCCESS_NO_INFO instead of a row count.
+     */
+    private static boolean isAffected(int count) {
+        return count > 0 || count == Statement.SUCCESS_NO_INFO;
+    }
+
+    private static BulkItemResult success(int index, HttpStatus status, ProductDto productDto) {
+        return BulkItemResult.builder().index(index).product_id(productDto.getProduct_id()).status(status.value()).product(productDto).build();
+    }
+
+    private static BulkItemResult failure(int index, Long productId, HttpStatus status, String error) {
+        return BulkItemResult.builder().index(index).product_id(productId).status(status.value()).error(error).build();
+    }
+}
@@ -0,0 +1,94 @@
+package com.ProductModule.service;
+
+import com.ProductModule.payLoad.ProductDto;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Parses product rows of a CSV import. The header names the columns; product_name is required, price is optional
+ * and any other column (e.g. product_id or version of an export) is ignored. Fields may be quoted with {@code "}
+ * and a quote inside a quoted field is doubled. Each record must be on one line.
+ */
+public final class ProductCsvParser {
+    private static final char SEPARATOR = ',';
+    private static final char QUOTE = '"';
+
+    private final int nameColumn;
+    private final int priceColumn;
+
+    public ProductCsvParser(String header) {
+        List<String> columns = split(header == null ? "" : header.replace("\uFEFF", ""));
+        int name = -1;
+        int price = -1;
+        for (int column = 0; column < columns.size(); column++) {
+            String columnName = columns.get(column).trim().toLowerCase(Locale.ROOT);
+            if (columnName.equals("product_name")) {
+                name = column;
+            } else if (columnName.equals("price")) {
+                price = column;
+            }
+        }
+        if (name < 0) {
+            throw new IllegalArgumentException("CSV header must contain a product_name column: " + header);
+        }
+        this.nameColumn = name;
+        this.priceColumn = price;
+    }
+
+    /**
+     * @throws IllegalArgumentException when the line is not a valid record
+     */
+    public ProductDto parse(String line) {
+        List<String> fields = split(line);
+        String name = field(fields, nameColumn);
+        String price = priceColumn < 0 ? null : field(fields, priceColumn);
+        ProductDto productDto = new ProductDto();
+        productDto.setProduct_name(name == null || name.isEmpty() ? null : name);
+        if (price != null && !price.isBlank()) {
+            try {
+                productDto.setPrice(new BigDecimal(price.trim()));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid price: " + price);
+            }
+        }
+        return productDto;
+    }
+
+    private static String field(List<String> fields, int column) {
+        return column < fields.size() ? fields.get(column) : null;
+    }
+
+    static List<String> split(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != QUOTE) {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == QUOTE) {
+                    field.append(QUOTE);
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == QUOTE && field.isEmpty()) {
+                quoted = true;
+            } else if (c == SEPARATOR) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c != '\r') {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,112 @@
+package com.ProductModule.service;
+
+import com.ProductModule.Exception.InvalidProductDataException;
+import org.springframework.http.HttpStatus;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque continuation token for keyset pagination. The token is the last product id of the previous page,
+ * or the last price and id when the listing is ordered by price, base64url encoded so clients treat it as opaque.
+ * The /changes watermark uses the same encoding for the last modification time and id.
+ */
+public final class ProductCursor {
+    private static final long FIRST_PAGE = Long.MIN_VALUE;
+    private static final char SEPARATOR = ':';
+
+    private ProductCursor() {
+    }
+
+    /**
+     * Position of the last row of a price-ordered page.
+     */
+    public record PriceKey(BigDecimal price, long productId) {
+    }
+
+    /**
+     * Position of the last row of a /changes page.
+     */
+    public record ChangeKey(Instant lastModified, long productId) {
+    }
+
+    public static String encode(long lastProductId) {
+        return encode(Long.toString(lastProductId));
+    }
+
+    public static String encode(BigDecimal lastPrice, long lastProductId) {
+        return encode(lastPrice.toPlainString() + SEPARATOR + lastProductId);
+    }
+
+    public static String encode(Instant lastModified, long lastProductId) {
+        return encode(lastModified.toString() + SEPARATOR + lastProductId);
+    }
+
+    /**
+     * @return the id after which the next page starts, or {@link Long#MIN_VALUE} for a missing cursor
+     */
+    public static long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return FIRST_PAGE;
+        }
+        try {
+            return Long.parseLong(decodeToken(cursor));
+        } catch (IllegalArgumentException e) {
+            throw invalid(cursor);
+        }
+    }
+
+    /**
+     * @return the position after which the next price-ordered page starts, or null for a missing cursor
+     */
+    public static PriceKey decodePriceKey(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String token = decodeToken(cursor);
+            int separator = token.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw invalid(cursor);
+            }
+            return new PriceKey(new BigDecimal(token.substring(0, separator)), Long.parseLong(token.substring(separator + 1)));
+        } catch (IllegalArgumentException e) {
+            throw invalid(cursor);
+        }
+    }
+
+    /**
+     * @return the position after which the next changes start, or null for a missing watermark
+     */
+    public static ChangeKey decodeChangeKey(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String token = decodeToken(cursor);
+            // the ISO-8601 time contains separators itself, the id does not
+            int separator = token.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                throw invalid(cursor);
+            }
+            return new ChangeKey(Instant.parse(token.substring(0, separator)), Long.parseLong(token.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw invalid(cursor);
+        }
+    }
+
+    private static String encode(String token) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static String decodeToken(String cursor) {
+        return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+    }
+
+    private static InvalidProductDataException invalid(String cursor) {
+        return new InvalidProductDataException("Invalid cursor:" + cursor, HttpStatus.BAD_REQUEST);
+    }
+}
@@ -0,0 +1,274 @@
+package com.ProductModule.service;
+
+import com.ProductModule.Repository.ProductRepository;
+import com.ProductModule.cache.ProductCatalogVersion;
+import com.ProductModule.payLoad.ProductDto;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StreamUtils;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams the catalog from a JDBC cursor as a gzip file in one of the {@link ExportFormat}s.
+ * <p>
+ * Products are encoded in blocks of product.export.block-size, each compressed as its own gzip member; the
+ * concatenation is a regular gzip file. Memory use is one block, whatever the catalog size. Encoding is
+ * deterministic, so the same catalog always produces the same bytes. A full export records where every block
+ * starts and its first product id. A byte range of that catalog version can then be served by reading the
+ * cursor from the block that contains the range start, instead of from the first product.
+ */
+@Service
+public class ProductExportService {
+    private static final Logger logger = LoggerFactory.getLogger(ProductExportService.class);
+    private static final byte[] BINARY_MAGIC = {'P', 'R', 'D', '1'};
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private final ProductRepository productRepository;
+    private final ProductCatalogVersion productCatalogVersion;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter productWriter;
+    private final TransactionTemplate transactionTemplate;
+    private final int blockSize;
+    // block offsets of the last complete export per format, valid for its catalog version only
+    private final Map<ExportFormat, ExportIndex> indexes = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ProductExportService(ProductRepository productRepository, ProductCatalogVersion productCatalogVersion,
+                                ObjectMapper objectMapper, PlatformTransactionManager transactionManager,
+                                @Value("${product.export.block-size:10000}") int blockSize) {
+        this.productRepository = productRepository;
+        this.productCatalogVersion = productCatalogVersion;
+        this.objectMapper = objectMapper;
+        this.productWriter = objectMapper.writerFor(ProductDto.class);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Start offset and first product id of every block of one export, and its total length.
+     */
+    public record ExportIndex(String catalogVersion, long[] blockOffsets, long[] blockFirstIds, long length) {
+
+        int blockAt(long offset) {
+            int block = Arrays.binarySearch(blockOffsets, offset);
+            return block >= 0 ? block : -block - 2;
+        }
+    }
+
+    /**
+     * @return the index of a complete export of this catalog version, or null when there has been none yet;
+     * byte ranges can only be served when it is present
+     */
+    public ExportIndex completedIndex(ExportFormat format, String catalogVersion) {
+        ExportIndex index = indexes.get(format);
+        return index != null && index.catalogVersion().equals(catalogVersion) ? index : null;
+    }
+
+    /**
+     * Writes the whole export and keeps its block index if the catalog did not change meanwhile.
+     *
+     * @return number of bytes written
+     */
+    public long export(ExportFormat format, String catalogVersion, OutputStream outputStream) throws IOException {
+        RangeOutputStream target = new RangeOutputStream(outputStream, 0, 0, Long.MAX_VALUE);
+        IndexBuilder indexBuilder = new IndexBuilder();
+        write(format, Long.MIN_VALUE, true, target, indexBuilder);
+        if (catalogVersion.equals(productCatalogVersion.current())) {
+            indexes.put(format, indexBuilder.build(catalogVersion, target.position()));
+        }
+        logger.debug("Exported catalog version {} as {}: {} bytes", catalogVersion, format, target.position());
+        return target.position();
+    }
+
+    /**
+     * Writes bytes {@code start} to {@code end}, inclusive, of the export described by the index, re-reading the
+     * catalog from the block that contains {@code start}.
+     */
+    public void exportRange(ExportFormat format, ExportIndex index, long start, long end, OutputStream outputStream) throws IOException {
+        int block = index.blockAt(start);
+        RangeOutputStream target = new RangeOutputStream(outputStream, index.blockOffsets()[block], start, end + 1);
+        write(format, index.blockFirstIds()[block], block == 0, target, null);
+        logger.debug("Exported bytes {}-{} of catalog version {} as {} from block {}", start, end, index.catalogVersion(), format, block);
+    }
+
+    private void write(ExportFormat format, long fromId, boolean firstBlock, RangeOutputStream target,
+                       IndexBuilder indexBuilder) throws IOException {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<ProductDto> products = productRepository.streamAllAsDtoFrom(fromId)) {
+                    List<ProductDto> block = new ArrayList<>(blockSize);
+                    boolean first = firstBlock;
+                    Iterator<ProductDto> iterator = products.iterator();
+                    while (iterator.hasNext() && !target.isDone()) {
+                        block.add(iterator.next());
+                        if (block.size() == blockSize) {
+                            writeBlock(format, block, first, target, indexBuilder);
+                            first = false;
+                            block.clear();
+                        }
+                    }
+                    // an empty catalog still gets one block, so the output is a valid gzip file
+                    if (!target.isDone() && (!block.isEmpty() || first)) {
+                        writeBlock(format, block, first, target, indexBuilder);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        target.flush();
+    }
+
+    private void writeBlock(ExportFormat format, List<ProductDto> block, boolean first, RangeOutputStream target,
+                            IndexBuilder indexBuilder) throws IOException {
+        if (indexBuilder != null) {
+            indexBuilder.add(target.position(), first ? Long.MIN_VALUE : block.get(0).getProduct_id());
+        }
+        try (GZIPOutputStream gzip = new GZIPOutputStream(StreamUtils.nonClosing(target), GZIP_BUFFER_SIZE)) {
+            if (format == ExportFormat.NDJSON) {
+                writeNdjson(block, gzip);
+            } else {
+                writeBinary(block, first, gzip);
+            }
+        }
+    }
+
+    private void writeNdjson(List<ProductDto> block, OutputStream outputStream) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            for (ProductDto productDto : block) {
+                productWriter.writeValue(generator, productDto);
+                generator.writeRaw('\n');
+            }
+        }
+    }
+
+    private static void writeBinary(List<ProductDto> block, boolean first, OutputStream outputStream) throws IOException {
+        DataOutputStream data = new DataOutputStream(outputStream);
+        if (first) {
+            data.write(BINARY_MAGIC);
+        }
+        data.writeInt(block.size());
+        for (ProductDto productDto : block) {
+            data.writeLong(productDto.getProduct_id());
+        }
+        for (ProductDto productDto : block) {
+            data.writeLong(productDto.getVersion() == null ? 0 : productDto.getVersion());
+        }
+        for (ProductDto productDto : block) {
+            BigDecimal price = productDto.getPrice();
+            if (price == null) {
+                data.writeByte(-1);
+            } else {
+                byte[] unscaled = price.unscaledValue().toByteArray();
+                data.writeByte(unscaled.length);
+                data.writeByte(price.scale());
+                data.write(unscaled);
+            }
+        }
+        for (ProductDto productDto : block) {
+            if (productDto.getProduct_name() == null) {
+                data.writeInt(-1);
+            } else {
+                byte[] name = productDto.getProduct_name().getBytes(StandardCharsets.UTF_8);
+                data.writeInt(name.length);
+                data.write(name);
+            }
+        }
+        data.flush();
+    }
+
+    private static final class IndexBuilder {
+        private long[] offsets = new long[16];
+        private long[] firstIds = new long[16];
+        private int size;
+
+        void add(long offset, long firstId) {
+            if (size == offsets.length) {
+                offsets = Arrays.copyOf(offsets, size * 2);
+                firstIds = Arrays.copyOf(firstIds, size * 2);
+            }
+            offsets[size] = offset;
+            firstIds[size] = firstId;
+            size++;
+        }
+
+        ExportIndex build(String catalogVersion, long length) {
+            return new ExportIndex(catalogVersion, Arrays.copyOf(offsets, size), Arrays.copyOf(firstIds, size), length);
+        }
+    }
+
+    /**
+     * Passes on the bytes of [start, end) of the export and drops the rest; {@code position} is the export
+     * offset of the first byte written to it.
+     */
+    private static final class RangeOutputStream extends OutputStream {
+        private final OutputStream target;
+        private final long start;
+        private final long end;
+        private long position;
+
+        RangeOutputStream(OutputStream target, long position, long start, long end) {
+            this.target = target;
+            this.position = position;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (position >= start && position < end) {
+                target.write(b);
+            }
+            position++;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            long from = Math.max(position, start);
+            long to = Math.min(position + length, end);
+            if (from < to) {
+                target.write(bytes, offset + (int) (from - position), (int) (to - from));
+            }
+            position += length;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            target.flush();
+        }
+
+        long position() {
+            return position;
+        }
+
+        boolean isDone() {
+            return position >= end;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.ProductModule.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * Snowflake-style product id allocator: 41 bits of milliseconds since {@code product.id.epoch},
+ * 10 bits of node id ({@code product.id.node-id}, unique per running instance) and a 12 bit sequence.
+ * Ids are allocated from memory with a single CAS, never repeat on a node and grow monotonically,
+ * so inserts always land on the right-most leaf of the primary key index.
+ * When more than 4096 ids are requested within one millisecond, or the clock moves backwards,
+ * the generator borrows from the next milliseconds instead of repeating, but never more than
+ * {@code product.id.max-drift} ahead of the clock: borrowed time is not persisted, so after a restart only the
+ * clock protects against reuse. Beyond that it waits for the clock to catch up, and fails when that would take
+ * longer than {@code product.id.max-clock-wait}, such as after a large clock step back.
+ */
+@Component
+public class ProductIdGenerator {
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    public static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final long nodeId;
+    private final long epochMillis;
+    private final LongSupplier clock;
+    private final long maxDriftMillis;
+    private final long maxClockWaitMillis;
+    /**
+     * (milliseconds since epoch << SEQUENCE_BITS) | sequence of the last id handed out.
+     */
+    private final AtomicLong lastState = new AtomicLong();
+
+    @Autowired
+    public ProductIdGenerator(@Value("${product.id.node-id:0}") long nodeId,
+                              @Value("${product.id.epoch:2024-01-01T00:00:00Z}") Instant epoch,
+                              @Value("${product.id.max-drift:5ms}") Duration maxDrift,
+                              @Value("${product.id.max-clock-wait:1s}") Duration maxClockWait) {
+        this(nodeId, epoch.toEpochMilli(), System::currentTimeMillis, maxDrift.toMillis(), maxClockWait.toMillis());
+    }
+
+    public ProductIdGenerator(long nodeId, long epochMillis, LongSupplier clock) {
+        this(nodeId, epochMillis, clock, 5, 1000);
+    }
+
+    public ProductIdGenerator(long nodeId, long epochMillis, LongSupplier clock, long maxDriftMillis, long maxClockWaitMillis) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("product.id.node-id must be between 0 and " + MAX_NODE_ID + " but was " + nodeId);
+        }
+        this.nodeId = nodeId;
+        this.epochMillis = epochMillis;
+        this.clock = clock;
+        this.maxDriftMillis = maxDriftMillis;
+        this.maxClockWaitMillis = maxClockWaitMillis;
+    }
+
+    /**
+     * @throws IllegalStateException when the clock is further behind the last id than product.id.max-clock-wait
+     */
+    public long nextId() {
+        long waitStarted = -1;
+        while (true) {
+            long nowMillis = clock.getAsLong() - epochMillis;
+            long previous = lastState.get();
+            // a sequence overflow carries into the timestamp bits, i.e. borrows the next millisecond
+            long state = Math.max(nowMillis << SEQUENCE_BITS, previous + 1);
+            long ahead = (state >>> SEQUENCE_BITS) - nowMillis;
+            if (ahead <= maxDriftMillis) {
+                if (lastState.compareAndSet(previous, state)) {
+                    return toId(state);
+                }
+                continue;
+            }
+            if (waitStarted < 0) {
+                waitStarted = nowMillis;
+            }
+            if (ahead > maxClockWaitMillis || nowMillis - waitStarted > maxClockWaitMillis) {
+                throw new IllegalStateException("Clock is " + ahead + " ms behind the last product id, not waiting for it to catch up");
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(ahead - maxDriftMillis));
+        }
+    }
+
+    private long toId(long state) {
+        long timestamp = state >>> SEQUENCE_BITS;
+        long sequence = state & SEQUENCE_MASK;
+        return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+    }
+}
@@ -0,0 +1,348 @@
+package com.ProductModule.service;
+
+import com.ProductModule.Exception.InvalidProductDataException;
+import com.ProductModule.payLoad.BulkItemResult;
+import com.ProductModule.payLoad.ImportJobStatus;
+import com.ProductModule.payLoad.ProductDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Imports large CSV or NDJSON uploads as background jobs.
+ * <p>
+ * The upload is spooled to a temporary file, so the request returns as soon as it is received and the job can be
+ * polled for progress. The job thread then reads the file line by line and hands chunks of product.import.chunk-lines
+ * lines to a pool of product.import.parallelism workers. Each worker parses its chunk and writes it through
+ * {@link ProductBulkService#createAll}, which validates against the {@link ProductDto} constraints and inserts in
+ * JDBC batches, one transaction per bulk chunk. At most twice as many chunks as workers are in flight per job,
+ * so memory use depends on the chunk size and the parallelism, not on the file size.
+ * <p>
+ * Records are imported independently: a rejected record is counted and reported with its line number, and the
+ * rest of the file is still imported. Finished jobs are kept for product.import.job-retention.
+ */
+@Service
+public class ProductImportService implements DisposableBean {
+    private static final Logger logger = LoggerFactory.getLogger(ProductImportService.class);
+
+    public enum State {QUEUED, RUNNING, COMPLETED, FAILED}
+
+    private final ProductBulkService productBulkService;
+    private final ObjectReader productReader;
+    private final int chunkLines;
+    private final int parallelism;
+    private final int maxErrors;
+    private final long maxBytes;
+    private final Duration jobRetention;
+    private final ExecutorService jobExecutor;
+    private final ExecutorService workers;
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ProductImportService(ProductBulkService productBulkService, ObjectMapper objectMapper,
+                                @Value("${product.import.chunk-lines:1000}") int chunkLines,
+                                @Value("${product.import.parallelism:0}") int parallelism,
+                                @Value("${product.import.max-concurrent-jobs:2}") int maxConcurrentJobs,
+                                @Value("${product.import.max-errors:1000}") int maxErrors,
+                                @Value("${product.import.max-bytes:1073741824}") long maxBytes,
+                                @Value("${product.import.job-retention:1h}") Duration jobRetention) {
+        this.productBulkService = productBulkService;
+        this.productReader = objectMapper.readerFor(ProductDto.class);
+        this.chunkLines = chunkLines;
+        // 0 means one worker per core
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.maxErrors = maxErrors;
+        this.maxBytes = maxBytes;
+        this.jobRetention = jobRetention;
+        this.jobExecutor = Executors.newFixedThreadPool(maxConcurrentJobs, threadFactory("product-import-job-"));
+        this.workers = Executors.newFixedThreadPool(this.parallelism, threadFactory("product-import-worker-"));
+    }
+
+    /**
+     * Spools the upload and queues the import.
+     *
+     * @return the status of the queued job
+     */
+    public ImportJobStatus startImport(InputStream upload, ImportFormat format) throws IOException {
+        Path file = Files.createTempFile("product-import-", "." + format.name().toLowerCase(Locale.ROOT));
+        try {
+            spool(upload, file);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), format, file);
+        jobs.put(job.id, job);
+        try {
+            jobExecutor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        logger.info("Queued product import {} of {} bytes ({})", job.id, Files.size(file), format);
+        return job.status();
+    }
+
+    /**
+     * @return null for an unknown or purged job
+     */
+    public ImportJobStatus getStatus(String jobId) {
+        ImportJob job = jobs.get(jobId);
+        return job == null ? null : job.status();
+    }
+
+    /**
+     * Forgets jobs that finished more than product.import.job-retention ago.
+     */
+    @Scheduled(fixedDelayString = "${product.import.purge-interval:PT10M}")
+    public void purgeFinishedJobs() {
+        Instant before = Instant.now().minus(jobRetention);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(before));
+    }
+
+    @Override
+    public void destroy() {
+        jobExecutor.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    private void spool(InputStream upload, Path file) throws IOException {
+        byte[] buffer = new byte[64 * 1024];
+        long total = 0;
+        try (OutputStream outputStream = Files.newOutputStream(file)) {
+            int read;
+            while ((read = upload.read(buffer)) != -1) {
+                total += read;
+                if (total > maxBytes) {
+                    throw new InvalidProductDataException("Import can't be larger than " + maxBytes + " bytes", HttpStatus.BAD_REQUEST);
+                }
+                outputStream.write(buffer, 0, read);
+            }
+        }
+    }
+
+    private void run(ImportJob job) {
+        job.state = State.RUNNING;
+        // twice the workers keeps every worker busy while the job thread reads the next chunk
+        int maxInFlight = parallelism * 2;
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        try (BufferedReader reader = Files.newBufferedReader(job.file, StandardCharsets.UTF_8)) {
+            int lineNumber = 0;
+            Function<String, ProductDto> parser;
+            if (job.format == ImportFormat.CSV) {
+                ProductCsvParser csvParser = new ProductCsvParser(reader.readLine());
+                lineNumber++;
+                parser = csvParser::parse;
+            } else {
+                parser = this::parseJson;
+            }
+            List<String> lines = new ArrayList<>(chunkLines);
+            int firstLine = lineNumber + 1;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (lines.isEmpty()) {
+                    firstLine = lineNumber;
+                }
+                lines.add(line);
+                if (lines.size() == chunkLines) {
+                    submit(job, parser, firstLine, lines, inFlight);
+                    lines = new ArrayList<>(chunkLines);
+                }
+            }
+            if (!lines.isEmpty()) {
+                submit(job, parser, firstLine, lines, inFlight);
+            }
+            // every permit back means every chunk has been written
+            inFlight.acquire(maxInFlight);
+            job.finish(State.COMPLETED, null);
+            logger.info("Product import {} finished: {} records read, {} imported, {} failed",
+                    job.id, job.recordsRead.get(), job.imported.get(), job.failed.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.finish(State.FAILED, "Import was interrupted");
+        } catch (IOException | RuntimeException e) {
+            logger.error("Product import {} failed: {}", job.id, e.getMessage(), e);
+            // let the chunks already handed out finish, so the final counts are stable
+            inFlight.acquireUninterruptibly(maxInFlight);
+            job.finish(State.FAILED, e.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(job.file);
+            } catch (IOException e) {
+                logger.warn("Could not delete import file {}: {}", job.file, e.getMessage());
+            }
+        }
+    }
+
+    private void submit(ImportJob job, Function<String, ProductDto> parser, int firstLine, List<String> lines,
+                        Semaphore inFlight) throws InterruptedException {
+        inFlight.acquire();
+        try {
+            workers.execute(() -> {
+                try {
+                    importChunk(job, parser, firstLine, lines);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.release();
+            throw e;
+        }
+    }
+
+    private void importChunk(ImportJob job, Function<String, ProductDto> parser, int firstLine, List<String> lines) {
+        List<ProductDto> parsed = new ArrayList<>(lines.size());
+        List<Integer> parsedLines = new ArrayList<>(lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            if (line.isBlank()) {
+                continue;
+            }
+            int lineNumber = firstLine + i;
+            job.recordsRead.incrementAndGet();
+            try {
+                parsed.add(parser.apply(line));
+                parsedLines.add(lineNumber);
+            } catch (RuntimeException e) {
+                job.reject(failure(lineNumber, HttpStatus.BAD_REQUEST, e.getMessage()));
+            }
+        }
+        if (parsed.isEmpty()) {
+            return;
+        }
+        List<BulkItemResult> results;
+        try {
+            results = productBulkService.createAll(parsed);
+        } catch (RuntimeException e) {
+            logger.warn("Product import {} could not write lines {} to {}: {}", job.id, firstLine,
+                    firstLine + lines.size() - 1, e.getMessage());
+            for (Integer lineNumber : parsedLines) {
+                job.reject(failure(lineNumber, HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage()));
+            }
+            return;
+        }
+        for (int i = 0; i < results.size(); i++) {
+            BulkItemResult result = results.get(i);
+            if (result.getStatus() == HttpStatus.CREATED.value()) {
+                job.imported.incrementAndGet();
+            } else {
+                result.setIndex(parsedLines.get(i));
+                job.reject(result);
+            }
+        }
+    }
+
+    private ProductDto parseJson(String line) {
+        try {
+            return productReader.readValue(line);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private static BulkItemResult failure(int lineNumber, HttpStatus status, String error) {
+        return BulkItemResult.builder().index(lineNumber).status(status.value()).error(error).build();
+    }
+
+    private static ThreadFactory threadFactory(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private final class ImportJob {
+        private final String id;
+        private final ImportFormat format;
+        private final Path file;
+        private final Instant createdAt = Instant.now();
+        private final AtomicLong recordsRead = new AtomicLong();
+        private final AtomicLong imported = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final List<BulkItemResult> errors = new ArrayList<>();
+        private volatile State state = State.QUEUED;
+        private volatile String error;
+        private volatile Instant finishedAt;
+
+        private ImportJob(String id, ImportFormat format, Path file) {
+            this.id = id;
+            this.format = format;
+            this.file = file;
+        }
+
+        private void reject(BulkItemResult result) {
+            failed.incrementAndGet();
+            synchronized (errors) {
+                if (errors.size() < maxErrors) {
+                    errors.add(result);
+                }
+            }
+        }
+
+        /**
+         * The state is written last and read first by {@link #status()}, so a finished status always carries its
+         * finish time and error.
+         */
+        private void finish(State finalState, String message) {
+            error = message;
+            finishedAt = Instant.now();
+            state = finalState;
+        }
+
+        private ImportJobStatus status() {
+            List<BulkItemResult> errorsCopy;
+            synchronized (errors) {
+                errorsCopy = new ArrayList<>(errors);
+            }
+            return ImportJobStatus.builder()
+                    .job_id(id)
+                    .format(format.name())
+                    .state(state.name())
+                    .records_read(recordsRead.get())
+                    .imported(imported.get())
+                    .failed(failed.get())
+                    .errors(errorsCopy)
+                    .error(error)
+                    .created_at(createdAt)
+                    .finished_at(finishedAt)
+                    .build();
+        }
+    }
+}
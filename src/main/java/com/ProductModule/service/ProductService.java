@@ -4,34 +4,102 @@ import com.ProductModule.Entity.Product;
 import com.ProductModule.Exception.InvalidProductDataException;
 import com.ProductModule.Exception.InvalidProductIdException;
 import com.ProductModule.Exception.ProductNotFoundException;
+import com.ProductModule.Exception.ProductVersionConflictException;
 import com.ProductModule.Repository.ProductRepository;
+import com.ProductModule.cache.ProductBatchLoader;
+import com.ProductModule.cache.ProductCache;
+import com.ProductModule.cache.ProductCatalogVersion;
+import com.ProductModule.cache.ProductSnapshot;
+import com.ProductModule.config.ReplicaRead;
+import com.ProductModule.event.ProductChangedEvent;
+import com.ProductModule.mapper.ProductMapper;
+import com.ProductModule.metrics.ProductMetrics;
+import com.ProductModule.metrics.ProductMetrics.Mapping;
+import com.ProductModule.payLoad.ProductCacheStats;
+import com.ProductModule.payLoad.ProductChanges;
 import com.ProductModule.payLoad.ProductDto;
-import jakarta.transaction.Transactional;
-import org.modelmapper.MappingException;
-import org.modelmapper.ModelMapper;
+import com.ProductModule.payLoad.ProductMultiGet;
+import com.ProductModule.payLoad.ProductPage;
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Retryable;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+/**
+ * Every public operation is timed as {@code product.operation} with an {@code operation} tag and a
+ * percentile histogram; failures carry the exception class in the {@code exception} tag.
+ */
 @Service
 public class ProductService {
     private static final Logger logger = LoggerFactory.getLogger(ProductService.class);
     private final ProductRepository productRepository;
-    private ModelMapper modelMapper;
+    private final ProductMapper productMapper;
+    private final ProductCache productCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProductIdGenerator productIdGenerator;
+    private final ProductMetrics productMetrics;
+    private final ProductCatalogVersion productCatalogVersion;
+    private final ProductSnapshot productSnapshot;
+    private final ProductBatchLoader productBatchLoader;
+    // bounds of DECIMAL(19,2), used when a price range is open on one side
+    private static final BigDecimal MIN_PRICE = new BigDecimal("-99999999999999999.99");
+    private static final BigDecimal MAX_PRICE = new BigDecimal("99999999999999999.99");
+    @Value("${product.page.default-size:100}")
+    private int defaultPageSize;
+    @Value("${product.page.max-size:1000}")
+    private int maxPageSize;
+    @Value("${product.multi-get.max-ids:5000}")
+    private int multiGetMaxIds;
+    @Value("${product.multi-get.chunk-size:1000}")
+    private int multiGetChunkSize;
+    @Value("${product.changes.settle-time:5s}")
+    private Duration changesSettleTime;
+    @Value("${product.changes.tombstone-retention:30d}")
+    private Duration tombstoneRetention;
 
     @Autowired
-    public ProductService(ProductRepository productRepository, ModelMapper modelMapper) {
+    public ProductService(ProductRepository productRepository, ProductMapper productMapper,
+                          ProductCache productCache, ApplicationEventPublisher eventPublisher,
+                          ProductIdGenerator productIdGenerator, ProductMetrics productMetrics,
+                          ProductCatalogVersion productCatalogVersion, ProductSnapshot productSnapshot,
+                          ProductBatchLoader productBatchLoader) {
         this.productRepository = productRepository;
-        this.modelMapper = modelMapper;
+        this.productMapper = productMapper;
+        this.productCache = productCache;
+        this.eventPublisher = eventPublisher;
+        this.productIdGenerator = productIdGenerator;
+        this.productMetrics = productMetrics;
+        this.productCatalogVersion = productCatalogVersion;
+        this.productSnapshot = productSnapshot;
+        this.productBatchLoader = productBatchLoader;
     }
 
+    @Timed(value = ProductMetrics.OPERATION_TIMER, extraTags = {"operation", "create"}, histogram = true)
     @Transactional
     public ProductDto createProduct(ProductDto productDto) {
         if (productDto == null) {
@@ -39,27 +107,139 @@ public class ProductService {
             throw new IllegalArgumentException("ProductDto must not be null");
         }
         Product product = convertToEntity(productDto);
-        long min = 1000L;
-        long max = 10000L;
-
-        long randomLong = ThreadLocalRandom.current().nextLong(min, max);
-        product.setProduct_id(randomLong);
+        product.setProduct_id(productIdGenerator.nextId());
+        // a null version makes save() persist instead of merging, so no SELECT precedes the INSERT
+        product.setVersion(null);
         Product savedProduct = productRepository.save(product);
-        logger.info("Product saved in the database: {}", savedProduct);
-        return convertToDto(savedProduct);
+        logger.debug("Product saved in the database: {}", savedProduct);
+        ProductDto savedProductDto = convertToDto(savedProduct);
+        eventPublisher.publishEvent(ProductChangedEvent.created(List.of(savedProductDto)));
+        return savedProductDto;
     }
 
+    @Timed(value = ProductMetrics.OPERATION_TIMER, extraTags = {"operation", "get"}, histogram = true)
     public ProductDto getProductById(Long product_id) throws ProductNotFoundException, InvalidProductIdException {
         if (product_id == null && product_id <= -1) {
             logger.error("Invalid product id:{}" , product_id);
             throw new InvalidProductIdException("Invalid productId it can't be null and negative", HttpStatus.BAD_REQUEST);
         }
-        Product product = productRepository.findById(product_id)
-                .orElseThrow(() -> {
-                    logger.error("Product id is not found: {}", product_id);
-                    return new ProductNotFoundException("Product with ID " + product_id + " not found");
-                });
-        return convertToDto(product);
+        if (productSnapshot.isServing()) {
+            // a miss falls through: the product may have been created after the last snapshot change was applied
+            ProductDto snapshotDto = productSnapshot.get(product_id);
+            if (snapshotDto != null) {
+                return snapshotDto;
+            }
+        }
+        // the cache shares a load between concurrent misses of this id, the batch loader between different ids
+        ProductDto productDto = productCache.get(product_id,
+                id -> productBatchLoader.load(id, this::loadProduct, this::loadProducts));
+        if (productDto == null) {
+            logger.error("Product id is not found: {}", product_id);
+            throw new ProductNotFoundException("Product with ID " + product_id + " not found");
+        }
+        return productDto;
+    }
+
+    /**
+     * Resolves many products in one call: snapshot hits first, then the product cache, and the remaining ids with
+     * IN queries of at most product.multi-get.chunk-size ids. Duplicates are resolved once.
+     *
+     * @param productIds at most product.multi-get.max-ids ids
+     * @return the products found in request order, and the ids that do not exist
+     */
+    @Timed(value = ProductMetrics.OPERATION_TIMER, extraTags = {"operation", "multiGet"}, histogram = true)
+    public ProductMultiGet getProductsByIds(List<Long> productIds) throws InvalidProductIdException {
+        if (productIds == null || productIds.isEmpty()) {
+            throw new InvalidProductIdException("At least one productId is required", HttpStatus.BAD_REQUEST);
+        }
+        Set<Long> requested = new LinkedHashSet<>(productIds);
+        if (requested.size() > multiGetMaxIds) {
+            throw new InvalidProductIdException("Can't fetch more than " + multiGetMaxIds + " products at once", HttpStatus.BAD_REQUEST);
+        }
+        for (Long productId : requested) {
+            if (productId == null || productId < 0) {
+                throw new InvalidProductIdException("Invalid productId it can't be null and negative: " + productId, HttpStatus.BAD_REQUEST);
+            }
+        }
+        Map<Long, ProductDto> found = new HashMap<>();
+        List<Long> remaining = new ArrayList<>(requested.size());
+        for (Long productId : requested) {
+            ProductDto snapshotDto = productSnapshot.isServing() ? productSnapshot.get(productId) : null;
+            if (snapshotDto != null) {
+                found.put(productId, snapshotDto);
+            } else {
+                remaining.add(productId);
+            }
+        }
+        if (!remaining.isEmpty()) {
+            found.putAll(productCache.getAll(remaining, this::loadProducts));
+        }
+        List<ProductDto> products = new ArrayList<>(found.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long productId : requested) {
+            ProductDto productDto = found.get(productId);
+            if (productDto != null) {
+                products.add(productDto);
+            } else {
+                missing.add(productId);
+            }
+        }
+        logger.debug("Fetched {} of {} requested products, {} missing", products.size(), requested.size(), missing.size());
+        return ProductMultiGet.builder().products(products).missing(missing).build();
+    }
+
+    /**
+     * Bulk loader for {@link #getProductsByIds} and batched single lookups: DTO projections, so the rows never enter the persistence context.
+     */
+    private Map<Long, ProductDto> loadProducts(Set<Long> productIds) {
+        List<Long> ids = new ArrayList<>(productIds);
+        Map<Long, ProductDto> products = new HashMap<>(ids.size() * 2);
+        for (int from = 0; from < ids.size(); from += multiGetChunkSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + multiGetChunkSize, ids.size()));
+            for (ProductDto productDto : productRepository.findAllAsDtoByIdIn(chunk)) {
+                products.put(productDto.getProduct_id(), productDto);
+            }
+        }
+        return products;
+    }
+
+    /**
+     * Cache loader for {@link #getProductById(Long)}; returns null when the product does not exist.
+     */
+    private ProductDto loadProduct(Long product_id) {
+        return productRepository.findById(product_id)
+                .map(this::convertToDto)
+                .orElse(null);
+    }
+
+    /**
+     * Current version of a product for conditional requests: taken from the snapshot or the cache when present,
+     * otherwise a single-column query. The product itself is neither loaded nor mapped.
+     */
+    public long getProductVersion(Long product_id) throws ProductNotFoundException {
+        if (productSnapshot.isServing()) {
+            Long snapshotVersion = productSnapshot.version(product_id);
+            if (snapshotVersion != null) {
+                return snapshotVersion;
+            }
+        }
+        Long cachedVersion = productCache.cachedVersion(product_id);
+        if (cachedVersion != null) {
+            return cachedVersion;
+        }
+        return productRepository.findVersionById(product_id)
+                .orElseThrow(() -> new ProductNotFoundException("Product with ID " + product_id + " not found"));
+    }
+
+    /**
+     * Token that changes after every committed product write; the collection ETag.
+     */
+    public String getCatalogVersion() {
+        return productCatalogVersion.current();
+    }
+
+    public ProductCacheStats getCacheStats() {
+        return productCache.stats();
     }
 
     /**
@@ -74,15 +254,12 @@ public class ProductService {
             return null; // Alternatively, you could throw an exception here
         }
         try {
-            ProductDto productDto = modelMapper.map(product, ProductDto.class);
-            logger.info("Converted Product to ProductDto: {}", productDto);
+            ProductDto productDto = productMetrics.timeMapping(Mapping.TO_DTO, () -> productMapper.toDto(product));
+            logger.debug("Converted Product to ProductDto: {}", productDto);
             return productDto;
-        } catch (MappingException e) {
+        } catch (RuntimeException e) {
             logger.error("Mapping failed: {}", e.getMessage());
             throw new com.ProductModule.Exception.MappingException("Failed to map Product to ProductDto " + e.getMessage());
-        } catch (Exception e) {
-            logger.error("Unexpected error during mapping: {}", e.getMessage());
-            throw new RuntimeException("Unexpected error during mapping", e);
         }
 
     }
@@ -100,38 +277,224 @@ public class ProductService {
            throw new InvalidProductDataException("Cannot convert null ProductDto to Product",HttpStatus.BAD_REQUEST); // Alternatively, you could throw an exception here
         }
         try {
-            Product product = modelMapper.map(productDto, Product.class);
-            logger.info("Converted ProductDto to Product: {}", product);
+            Product product = productMetrics.timeMapping(Mapping.TO_ENTITY, () -> productMapper.toEntity(productDto));
+            logger.debug("Converted ProductDto to Product: {}", product);
             return product;
 
-        } catch (MappingException e) {
+        } catch (RuntimeException e) {
             logger.error("Mapping failed: {}", e.getMessage());
             throw new com.ProductModule.Exception.MappingException("Failed to map Product to ProductDto" + e.getMessage());
-        } catch (Exception e) {
-            logger.error("Unexpected error during mapping: {}", e.getMessage());
-            throw new RuntimeException("Unexpected error during mapping", e);
         }
     }
 
+    @Timed(value = ProductMetrics.OPERATION_TIMER, extraTags = {"operation", "getAll"}, histogram = true)
     public List<ProductDto> getAllProduct() {
+        if (productSnapshot.isServing()) {
+            List<ProductDto> snapshotDtos = productSnapshot.getAll();
+            logger.debug("Served all products from the snapshot. Total count: {}", snapshotDtos.size());
+            return snapshotDtos;
+        }
         List<Product> productsList = productRepository.findAll();
-        List<ProductDto> productDtoList = productsList
-                .stream().map(this::convertToDto)
-                .collect(Collectors.toList());
-        logger.info("Converted all products to ProductDto. Total count: {}", productDtoList.size());
+        List<ProductDto> productDtoList;
+        try {
+            productDtoList = productMetrics.timeMapping(Mapping.TO_DTO_LIST, () -> productMapper.toDtoList(productsList));
+        } catch (RuntimeException e) {
+            logger.error("Mapping failed: {}", e.getMessage());
+            throw new com.ProductModule.Exception.MappingException("Failed to map Product to ProductDto " + e.getMessage());
+        }
+        logger.debug("Converted all products to ProductDto. Total count: {}", productDtoList.size());
         return productDtoList;
     }
 
+    /**
+     * Keyset-paginated listing ordered by product id. Each page is a single index range scan,
+     * so memory and latency depend on the page size only, not on the table size.
+     *
+     * @param cursor continuation token from the previous page, null for the first page
+     * @param size   requested page size, capped at product.page.max-size
+     * @return
+     */
+    @ReplicaRead
+    public ProductPage getProductPage(String cursor, Integer size) {
+        return getProductPage(cursor, size, null, null, null);
+    }
+
+    /**
+     * Keyset-paginated listing with an optional price range and price ordering. Filtering and ordering run in
+     * the database on the (price, product_id) index; products without a price are left out of price queries.
+     *
+     * @param minPrice inclusive lower bound, null for no lower bound
+     * @param maxPrice inclusive upper bound, null for no upper bound
+     * @param sort     {@code id} (default), {@code price} or {@code -price}
+     */
+    @Timed(value = ProductMetrics.OPERATION_TIMER, extraTags = {"operation", "page"}, histogram = true)
+    @ReplicaRead
+    public ProductPage getProductPage(String cursor, Integer size, BigDecimal minPrice, BigDecimal maxPrice, String sort) {
+        int pageSize = resolvePageSize(size);
+        ProductSort productSort = ProductSort.parse(sort);
+        if (minPrice != null && maxPrice != null && minPrice.compareTo(maxPrice) > 0) {
+            throw new InvalidProductDataException("minPrice can't be greater than maxPrice", HttpStatus.BAD_REQUEST);
+        }
+        // one extra row tells us whether another page exists without a count query
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        boolean priceFiltered = minPrice != null || maxPrice != null;
+        BigDecimal lowest = minPrice != null ? minPrice : MIN_PRICE;
+        BigDecimal highest = maxPrice != null ? maxPrice : MAX_PRICE;
+        List<Product> products;
+        if (productSort == ProductSort.ID) {
+            long afterId = ProductCursor.decode(cursor);
+            products = priceFiltered
+                    ? productRepository.findPageAfterInPriceRange(lowest, highest, afterId, limit)
+                    : productRepository.findPageAfter(afterId, limit);
+        } else {
+            ProductCursor.PriceKey after = ProductCursor.decodePriceKey(cursor);
+            products = productSort == ProductSort.PRICE_ASC
+                    ? productRepository.findPageByPriceAsc(lowest, highest,
+                    after != null ? after.price() : lowest, after != null ? after.productId() : Long.MIN_VALUE, limit)
+                    : productRepository.findPageByPriceDesc(lowest, highest,
+                    after != null ? after.price() : highest, after != null ? after.productId() : Long.MAX_VALUE, limit);
+        }
+        boolean hasMore = products.size() > pageSize;
+        List<ProductDto> content = products.stream()
+                .limit(pageSize)
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+        String nextCursor = null;
+        if (hasMore) {
+            ProductDto last = content.get(content.size() - 1);
+            nextCursor = productSort == ProductSort.ID
+                    ? ProductCursor.encode(last.getProduct_id())
+                    : ProductCursor.encode(last.getPrice(), last.getProduct_id());
+        }
+        logger.debug("Fetched product page sorted by {} with {} products", productSort, content.size());
+        return ProductPage.builder().content(content).next_cursor(nextCursor).size(content.size()).build();
+    }
+
+    /**
+     * Pushes every product to the consumer as the JDBC cursor produces it. Nothing is collected,
+     * so memory use is independent of the table size.
+     *
+     * @param consumer receives each product in id order
+     * @return number of products streamed
+     */
+    @Timed(value = ProductMetrics.OPERATION_TIMER, extraTags = {"operation", "stream"}, histogram = true)
+    @Transactional(readOnly = true)
+    @ReplicaRead
+    public long streamAllProduct(Consumer<ProductDto> consumer) {
+        long count = 0;
+        try (Stream<ProductDto> products = productRepository.streamAllAsDto()) {
+            for (ProductDto productDto : (Iterable<ProductDto>) products::iterator) {
+                consumer.accept(productDto);
+                count++;
+            }
+        }
+        logger.debug("Streamed all products. Total count: {}", count);
+        return count;
+    }
+
+    /**
+     * Products created, updated or deleted after the {@code since} watermark, in (last_modified, product_id) order,
+     * read as one range scan of idx_product_last_modified. Pass {@code next_since} of the response as the next
+     * watermark; a missing watermark starts at the oldest retained write.
+     * <p>
+     * Timestamps are taken when a write runs, not when it commits, so a slow transaction can commit rows older
+     * than rows already returned. Writes of the last product.changes.settle-time are therefore held back until
+     * they are that old; it must exceed the longest write transaction plus the clock skew between instances.
+     * Tombstones are kept for product.changes.tombstone-retention; a client further behind must reload /getAll.
+     * With replicas the settle time also has to cover the replication lag, up to max-lag plus lag-check-interval.
+     */
+    @Timed(value = ProductMetrics.OPERATION_TIMER, extraTags = {"operation", "changes"}, histogram = true)
+    @ReplicaRead
+    public ProductChanges getChangesSince(String since, Integer limit) {
+        int pageSize = resolvePageSize(limit);
+        ProductCursor.ChangeKey after = ProductCursor.decodeChangeKey(since);
+        Instant sinceTime = after != null ? after.lastModified() : Instant.EPOCH;
+        long sinceId = after != null ? after.productId() : Long.MIN_VALUE;
+        Instant until = Instant.now().minus(changesSettleTime);
+        List<Product> products = productRepository.findModifiedAfter(sinceTime, sinceId, until, PageRequest.of(0, pageSize + 1));
+        boolean hasMore = products.size() > pageSize;
+        List<ProductDto> changed = new ArrayList<>();
+        List<Long> deleted = new ArrayList<>();
+        Product last = null;
+        for (Product product : products.subList(0, Math.min(pageSize, products.size()))) {
+            if (product.isDeleted()) {
+                deleted.add(product.getProduct_id());
+            } else {
+                changed.add(convertToDto(product));
+            }
+            last = product;
+        }
+        String nextSince;
+        if (hasMore) {
+            nextSince = ProductCursor.encode(last.getLast_modified(), last.getProduct_id());
+        } else if (until.isAfter(sinceTime)) {
+            // everything up to the settle horizon has been returned, so later calls can start there
+            nextSince = ProductCursor.encode(until, Long.MAX_VALUE);
+        } else {
+            nextSince = ProductCursor.encode(sinceTime, sinceId);
+        }
+        logger.debug("Fetched {} changed and {} deleted products since {}", changed.size(), deleted.size(), sinceTime);
+        return ProductChanges.builder().changed(changed).deleted(deleted).next_since(nextSince).has_more(hasMore).build();
+    }
+
+    /**
+     * Removes tombstones older than product.changes.tombstone-retention for good.
+     */
+    @Scheduled(fixedDelayString = "${product.changes.purge-interval:PT1H}")
+    @Transactional
+    public void purgeTombstones() {
+        int purged = productRepository.purgeDeletedBefore(Instant.now().minus(tombstoneRetention));
+        if (purged > 0) {
+            logger.info("Purged {} deleted products older than {}", purged, tombstoneRetention);
+        }
+    }
+
+    private int resolvePageSize(Integer size) {
+        if (size == null || size <= 0) {
+            return defaultPageSize;
+        }
+        return Math.min(size, maxPageSize);
+    }
+
+    /**
+     * Single conditional soft delete; the affected row count tells a missing product apart, no existsById round trip.
+     * The row stays as a tombstone for /changes.
+     */
+    @Timed(value = ProductMetrics.OPERATION_TIMER, extraTags = {"operation", "delete"}, histogram = true)
+    @Transactional
     public void deleteById(Long id) throws ProductNotFoundException {
-        if (!productRepository.existsById(id)) {
+        if (productRepository.deleteProduct(id) == 0) {
             logger.error("Product is not found for this productId:{}", id);
             throw new ProductNotFoundException("Product with ID " + id + " not found.");
         }
-        productRepository.deleteById(id);
-        logger.info("Product is deleted for this productId:{}", id);
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(List.of(id)));
+        logger.debug("Product is deleted for this productId:{}", id);
     }
 
+    /**
+     * Carries the same annotations as the overload it delegates to: that call doesn't go through the proxy.
+     */
+    @Timed(value = ProductMetrics.OPERATION_TIMER, extraTags = {"operation", "update"}, histogram = true)
+    @Transactional
     public ProductDto updateRecord(ProductDto productDto, Long productId) throws InvalidProductIdException {
+        return updateRecord(productDto, productId, null);
+    }
+
+    /**
+     * Single conditional UPDATE. A full replace needs nothing from the current row, so it is neither read
+     * nor merged; zero affected rows means the product does not exist.
+     * <p>
+     * With an expected version (If-Match, or {@code version} in the body) the UPDATE also matches on the version,
+     * so a concurrent write makes it affect no row; only then is the current version read to tell a conflict
+     * from a missing product. Without one the new version is not known and stays null: reading it back would be a
+     * second round trip on every PUT, and MySQL has no UPDATE ... RETURNING. A client that needs the ETag sends
+     * If-Match, or takes it from a following GET.
+     *
+     * @param ifMatchVersion version required by the If-Match header, null when the header is absent
+     */
+    @Timed(value = ProductMetrics.OPERATION_TIMER, extraTags = {"operation", "update"}, histogram = true)
+    @Transactional
+    public ProductDto updateRecord(ProductDto productDto, Long productId, Long ifMatchVersion) throws InvalidProductIdException {
         if (productId == null || productId < 0) {
             logger.error("ProductId can't be null and Negative:{}", productId);
             throw new InvalidProductIdException("ProductId can't be null and Negative" + productId, HttpStatus.BAD_REQUEST);
@@ -139,20 +502,61 @@ public class ProductService {
         if (productDto==null ){
             throw new InvalidProductDataException("Product data not contain anything",HttpStatus.BAD_REQUEST);
         }
-        if (!productRepository.existsById(productId)) {
+        ExpectedVersion expected = ExpectedVersion.of(ifMatchVersion, productDto.getVersion());
+        Product product = convertToEntity(productDto);
+        product.setProduct_id(productId);
+        // the UPDATE increments the stored version without reading it back
+        product.setVersion(null);
+        int updated = expected == null
+                ? productRepository.updateProduct(productId, product.getProduct_name(), product.getPrice())
+                : productRepository.updateProductIfVersion(productId, product.getProduct_name(), product.getPrice(), expected.version());
+        if (updated == 0) {
+            if (expected != null) {
+                Optional<Long> currentVersion = productRepository.findVersionById(productId);
+                if (currentVersion.isPresent()) {
+                    throw expected.conflict(productId, currentVersion.get());
+                }
+            }
             logger.error("Product  not found for productId:{}" , productId);
             throw new InvalidProductIdException("Product with ID " + productId + " not found.", HttpStatus.NOT_FOUND);
         }
-        Product product = convertToEntity(productDto);
-        product.setProduct_id(productId);
-        Product updateProduct = productRepository.save(product);
-        if (updateProduct == null) {
-            logger.error("Product is can't be null with this product:{}", updateProduct);
+        if (expected != null) {
+            product.setVersion(expected.version() + 1);
         }
-        return convertToDto(updateProduct);
+        ProductDto updateProductDto = convertToDto(product);
+        eventPublisher.publishEvent(ProductChangedEvent.updated(List.of(updateProductDto)));
+        return updateProductDto;
     }
 
+    /**
+     * Carries the same annotations as the overload it delegates to: that call doesn't go through the proxy.
+     */
+    @Timed(value = ProductMetrics.OPERATION_TIMER, extraTags = {"operation", "partialUpdate"}, histogram = true)
+    @Retryable(retryFor = ObjectOptimisticLockingFailureException.class,
+            maxAttemptsExpression = "${product.update.max-attempts:3}",
+            backoff = @Backoff(delay = 5, multiplier = 2, maxDelay = 50, random = true))
+    @Transactional
     public ProductDto partialUpdate(ProductDto productDto, Long id) throws InvalidProductIdException, ProductNotFoundException {
+        return partialUpdate(productDto, id, null);
+    }
+
+    /**
+     * Loads the managed entity once and lets Hibernate dirty checking issue the UPDATE:
+     * one SELECT plus at most one UPDATE, no existsById and no merge. The UPDATE matches on the version read,
+     * so a write that commits in between is detected instead of being overwritten.
+     * <p>
+     * A patch without an expected version only sets fields to new values, so applying it on top of the concurrent
+     * write gives the same result as if it had arrived later: it is retried from a fresh read a bounded number of
+     * times. A patch with an expected version fails with 412 (If-Match) or 409 (body version) instead.
+     *
+     * @param ifMatchVersion version required by the If-Match header, null when the header is absent
+     */
+    @Timed(value = ProductMetrics.OPERATION_TIMER, extraTags = {"operation", "partialUpdate"}, histogram = true)
+    @Retryable(retryFor = ObjectOptimisticLockingFailureException.class,
+            maxAttemptsExpression = "${product.update.max-attempts:3}",
+            backoff = @Backoff(delay = 5, multiplier = 2, maxDelay = 50, random = true))
+    @Transactional
+    public ProductDto partialUpdate(ProductDto productDto, Long id, Long ifMatchVersion) throws InvalidProductIdException, ProductNotFoundException {
         if (id == null || id < 0) {
             logger.error("Invalid productID it can't null and negative :{}", id);
             throw new InvalidProductIdException("Invalid productID it can't null and negative" + id, HttpStatus.BAD_REQUEST);
@@ -161,32 +565,68 @@ public class ProductService {
             logger.error("Invalid productDto .It is Empty:{}");
             throw new InvalidProductDataException("Invalid productDto .It is Empty:{}", HttpStatus.BAD_REQUEST);
         }
-        if (!productRepository.existsById(id)) {
-            throw new ProductNotFoundException("Product is not Found with productId:"+id);
+        if (productDto.getProduct_id() != null && !productDto.getProduct_id().equals(id)) {
+            // the id of a managed entity can't change; the path id is the only identity
+            logger.error("Product id in body:{} does not match path id:{}", productDto.getProduct_id(), id);
+            throw new InvalidProductDataException("Product id can't be changed by a partial update", HttpStatus.BAD_REQUEST);
         }
+        ExpectedVersion expected = ExpectedVersion.of(ifMatchVersion, productDto.getVersion());
 
         Product existingProduct = productRepository.findById(id)
                 .orElseThrow(() -> {
                     // Log the error before throwing the exception
                     logger.error("Product not found with ID: {}", id);
-                    return new ProductNotFoundException("Product not found with ID: " + id);
+                    return new ProductNotFoundException("Product is not Found with productId:" + id);
                 });
-        Optional.ofNullable(productDto.getProduct_id()).ifPresent(newId -> {
-            logger.info("Updating product ID from {} to {}", existingProduct.getProduct_id(), newId);
-            existingProduct.setProduct_id(newId);
-        });
+        if (expected != null && !Objects.equals(expected.version(), existingProduct.getVersion())) {
+            throw expected.conflict(id, existingProduct.getVersion());
+        }
 
         Optional.ofNullable(productDto.getProduct_name()).ifPresent(newName -> {
-            logger.info("Updating product name from '{}' to '{}'", existingProduct.getProduct_name(), newName);
+            logger.debug("Updating product name from '{}' to '{}'", existingProduct.getProduct_name(), newName);
             existingProduct.setProduct_name(newName);
         });
 
         Optional.ofNullable(productDto.getPrice()).ifPresent(newPrice -> {
-            logger.info("Updating product price from {} to {}", existingProduct.getPrice(), newPrice);
+            logger.debug("Updating product price from {} to {}", existingProduct.getPrice(), newPrice);
             existingProduct.setPrice(newPrice);
         });
-        Product partialUpdateDto = productRepository.save(existingProduct);
-        logger.info("Partially Update data with productDto:{}", productDto);
-        return convertToDto(partialUpdateDto);
+        logger.debug("Partially Update data with productDto:{}", productDto);
+        try {
+            // flush now so the returned DTO carries the incremented version; still one UPDATE
+            productRepository.flush();
+        } catch (ObjectOptimisticLockingFailureException e) {
+            if (expected != null) {
+                throw expected.conflict(id, null);
+            }
+            logger.debug("Concurrent update of productId:{}, retrying the patch", id);
+            throw e;
+        }
+        ProductDto partialUpdateProductDto = convertToDto(existingProduct);
+        eventPublisher.publishEvent(ProductChangedEvent.updated(List.of(partialUpdateProductDto)));
+        return partialUpdateProductDto;
+    }
+
+    /**
+     * Version a write is conditional on, and the status to fail with when the product has moved on.
+     */
+    private record ExpectedVersion(long version, HttpStatus conflictStatus) {
+
+        static ExpectedVersion of(Long ifMatchVersion, Long bodyVersion) {
+            if (ifMatchVersion != null) {
+                return new ExpectedVersion(ifMatchVersion, HttpStatus.PRECONDITION_FAILED);
+            }
+            if (bodyVersion != null) {
+                return new ExpectedVersion(bodyVersion, HttpStatus.CONFLICT);
+            }
+            return null;
+        }
+
+        ProductVersionConflictException conflict(Long productId, Long currentVersion) {
+            String message = currentVersion == null
+                    ? "Product with ID " + productId + " was modified concurrently, expected version " + version
+                    : "Product with ID " + productId + " is at version " + currentVersion + ", expected version " + version;
+            return new ProductVersionConflictException(message, conflictStatus, currentVersion);
+        }
     }
 }
@@ -0,0 +1,39 @@
+package com.ProductModule.service;
+
+import com.ProductModule.Exception.InvalidProductDataException;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Orderings supported by the paged product listing.
+ */
+public enum ProductSort {
+    ID("id"),
+    PRICE_ASC("price"),
+    PRICE_DESC("-price");
+
+    private final String parameter;
+
+    ProductSort(String parameter) {
+        this.parameter = parameter;
+    }
+
+    /**
+     * @param sort request parameter value; null or blank means {@link #ID}
+     */
+    public static ProductSort parse(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return ID;
+        }
+        for (ProductSort productSort : values()) {
+            if (productSort.parameter.equalsIgnoreCase(sort.trim())) {
+                return productSort;
+            }
+        }
+        throw new InvalidProductDataException("Invalid sort:" + sort + ", expected id, price or -price", HttpStatus.BAD_REQUEST);
+    }
+
+    @Override
+    public String toString() {
+        return parameter;
+    }
+}
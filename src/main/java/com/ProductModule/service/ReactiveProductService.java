@@ -0,0 +1,119 @@
+package com.ProductModule.service;
+
+import com.ProductModule.Exception.InvalidProductDataException;
+import com.ProductModule.Exception.InvalidProductIdException;
+import com.ProductModule.Exception.ProductNotFoundException;
+import com.ProductModule.Repository.ReactiveProductRepository;
+import com.ProductModule.event.ProductChangedEvent;
+import com.ProductModule.payLoad.ProductDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+
+/**
+ * Non-blocking counterpart of {@link ProductService} with the same validation rules and error types.
+ * Writes publish the same {@link ProductChangedEvent}, so caches in front of the blocking API stay consistent.
+ * <p>
+ * The listeners block (JDBC reloads, the change log insert, the shared cache invalidation), so events are
+ * published on the bounded elastic scheduler instead of the R2DBC thread. The change log entry is not part of the
+ * R2DBC write: it is written after the write has committed, in a separate JDBC transaction, and is lost if the
+ * instance stops in between. Clients that need every change should reconcile through /changes, which reads
+ * the product table itself.
+ * <p>
+ * Updates return the row as written, read back in the UPDATE's own R2DBC transaction, so the response carries the
+ * incremented version.
+ */
+@Service
+@ConditionalOnProperty(name = "product.reactive.enabled", havingValue = "true")
+public class ReactiveProductService {
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveProductService.class);
+    private final ReactiveProductRepository reactiveProductRepository;
+    private final ProductIdGenerator productIdGenerator;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ReactiveProductService(ReactiveProductRepository reactiveProductRepository, ProductIdGenerator productIdGenerator,
+                                  ApplicationEventPublisher eventPublisher) {
+        this.reactiveProductRepository = reactiveProductRepository;
+        this.productIdGenerator = productIdGenerator;
+        this.eventPublisher = eventPublisher;
+    }
+
+    public Mono<ProductDto> createProduct(ProductDto productDto) {
+        if (productDto == null) {
+            return Mono.error(new InvalidProductDataException("ProductDto must not be null", HttpStatus.BAD_REQUEST));
+        }
+        ProductDto newProduct = new ProductDto(productIdGenerator.nextId(), productDto.getProduct_name(), productDto.getPrice(), 0L);
+        return reactiveProductRepository.insert(newProduct)
+                .thenReturn(newProduct)
+                .flatMap(created -> publish(created, ProductChangedEvent.created(List.of(created))));
+    }
+
+    public Mono<ProductDto> getProductById(Long productId) {
+        if (productId == null || productId < 0) {
+            return Mono.error(new InvalidProductIdException("Invalid productId it can't be null and negative", HttpStatus.BAD_REQUEST));
+        }
+        return reactiveProductRepository.findById(productId)
+                .switchIfEmpty(Mono.error(() -> new ProductNotFoundException("Product with ID " + productId + " not found")));
+    }
+
+    public Flux<ProductDto> getAllProduct() {
+        return reactiveProductRepository.findAll()
+                .doOnComplete(() -> logger.debug("Streamed all products reactively"));
+    }
+
+    public Mono<ProductDto> updateRecord(ProductDto productDto, Long productId) {
+        if (productId == null || productId < 0) {
+            return Mono.error(new InvalidProductIdException("ProductId can't be null and Negative" + productId, HttpStatus.BAD_REQUEST));
+        }
+        if (productDto == null) {
+            return Mono.error(new InvalidProductDataException("Product data not contain anything", HttpStatus.BAD_REQUEST));
+        }
+        ProductDto product = new ProductDto(productId, productDto.getProduct_name(), productDto.getPrice(), null);
+        return reactiveProductRepository.update(product)
+                .switchIfEmpty(Mono.error(() -> new InvalidProductIdException("Product with ID " + productId + " not found.", HttpStatus.NOT_FOUND)))
+                .flatMap(updated -> publish(updated, ProductChangedEvent.updated(List.of(updated))));
+    }
+
+    public Mono<ProductDto> partialUpdate(ProductDto productDto, Long productId) {
+        if (productId == null || productId < 0) {
+            return Mono.error(new InvalidProductIdException("Invalid productID it can't null and negative" + productId, HttpStatus.BAD_REQUEST));
+        }
+        if (productDto == null) {
+            return Mono.error(new InvalidProductDataException("Invalid productDto .It is Empty:{}", HttpStatus.BAD_REQUEST));
+        }
+        if (productDto.getProduct_id() != null && !productDto.getProduct_id().equals(productId)) {
+            return Mono.error(new InvalidProductDataException("Product id can't be changed by a partial update", HttpStatus.BAD_REQUEST));
+        }
+        ProductDto patch = new ProductDto(productId, productDto.getProduct_name(), productDto.getPrice(), null);
+        return reactiveProductRepository.patch(patch)
+                .switchIfEmpty(Mono.error(() -> new ProductNotFoundException("Product is not Found with productId:" + productId)))
+                .flatMap(updated -> publish(updated, ProductChangedEvent.updated(List.of(updated))));
+    }
+
+    public Mono<Void> deleteById(Long productId) {
+        return reactiveProductRepository.deleteById(productId)
+                .flatMap(deleted -> deleted == 0
+                        ? Mono.<Void>error(new ProductNotFoundException("Product with ID " + productId + " not found."))
+                        : Mono.<Void>empty())
+                .then(publish(null, ProductChangedEvent.deleted(List.of(productId))))
+                .then();
+    }
+
+    /**
+     * Publishes the event off the R2DBC thread and emits the value, or completes empty for a null value, once the
+     * listeners have run.
+     */
+    private <T> Mono<T> publish(T value, ProductChangedEvent event) {
+        return Mono.fromRunnable(() -> eventPublisher.publishEvent(event))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then(Mono.justOrEmpty(value));
+    }
+}
@@ -0,0 +1,16 @@
+-- One-off migration of product.price from VARCHAR to DECIMAL(19,2) for existing MySQL databases.
+-- spring.jpa.hibernate.ddl-auto=update adds new columns and indexes but never changes a column type,
+-- so run this once before deploying the version with the numeric price.
+-- Values that are not plain decimal numbers (e.g. '12,50' or '$3') end up NULL; check them first with:
+--   SELECT product_id, price FROM product WHERE TRIM(price) NOT REGEXP '^-?[0-9]+(\\.[0-9]+)?$';
+
+ALTER TABLE product ADD COLUMN price_decimal DECIMAL(19, 2) NULL;
+
+UPDATE product
+SET price_decimal = CAST(TRIM(price) AS DECIMAL(19, 2))
+WHERE TRIM(price) REGEXP '^-?[0-9]+(\\.[0-9]+)?$';
+
+ALTER TABLE product DROP COLUMN price;
+ALTER TABLE product RENAME COLUMN price_decimal TO price;
+
+CREATE INDEX idx_product_price ON product (price, product_id);
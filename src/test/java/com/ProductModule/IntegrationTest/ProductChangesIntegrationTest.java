@@ -0,0 +1,97 @@
+package com.ProductModule.IntegrationTest;
+
+import com.ProductModule.ProductApplication;
+import com.ProductModule.payLoad.ProductChanges;
+import com.ProductModule.payLoad.ProductDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Writes through the REST API and syncs them from /changes. The settle time is disabled so writes are reported
+ * as soon as they commit.
+ */
+@SpringBootTest(classes = ProductApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.config.location=classpath:application-test.properties",
+        "product.changes.settle-time=0s"})
+@Sql(scripts = "/data.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = "/cleanup.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+class ProductChangesIntegrationTest {
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    void test_changesSinceWatermark() {
+        ProductChanges initial = getChanges(null);
+        assertEquals(List.of(1L, 2L), initial.getChanged().stream().map(ProductDto::getProduct_id).collect(Collectors.toList()));
+        assertFalse(initial.isHas_more());
+
+        webTestClient.put()
+                .uri("/api/product/{id}", 1L)
+                .bodyValue(ProductDto.builder().product_name("Renamed").price(new BigDecimal("10")).build())
+                .exchange()
+                .expectStatus().isOk();
+        webTestClient.delete()
+                .uri("/api/product/{id}", 2L)
+                .exchange()
+                .expectStatus().isOk();
+
+        ProductChanges delta = getChanges(initial.getNext_since());
+        assertEquals(1, delta.getChanged().size());
+        assertEquals("Renamed", delta.getChanged().get(0).getProduct_name());
+        assertEquals(1L, delta.getChanged().get(0).getVersion());
+        assertEquals(List.of(2L), delta.getDeleted());
+
+        ProductChanges caughtUp = getChanges(delta.getNext_since());
+        assertTrue(caughtUp.getChanged().isEmpty());
+        assertTrue(caughtUp.getDeleted().isEmpty());
+    }
+
+    @Test
+    void test_deletedProductIsGone() {
+        webTestClient.delete()
+                .uri("/api/product/{id}", 2L)
+                .exchange()
+                .expectStatus().isOk();
+        webTestClient.get()
+                .uri("/api/product/{id}", 2L)
+                .exchange()
+                .expectStatus().isNotFound();
+        webTestClient.delete()
+                .uri("/api/product/{id}", 2L)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void test_invalidWatermark() {
+        webTestClient.get()
+                .uri("/api/product/changes?since={since}", "not a watermark")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    private ProductChanges getChanges(String since) {
+        return webTestClient.get()
+                .uri(uriBuilder -> {
+                    uriBuilder.path("/api/product/changes");
+                    if (since != null) {
+                        uriBuilder.queryParam("since", since);
+                    }
+                    return uriBuilder.build();
+                })
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(ProductChanges.class)
+                .returnResult()
+                .getResponseBody();
+    }
+}
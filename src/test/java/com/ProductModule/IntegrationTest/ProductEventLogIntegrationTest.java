@@ -0,0 +1,99 @@
+package com.ProductModule.IntegrationTest;
+
+import com.ProductModule.ProductApplication;
+import com.ProductModule.payLoad.ProductChange;
+import com.ProductModule.payLoad.ProductDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Writes through the REST API and reads them back from the change log. The gap hold-back is disabled so entries
+ * are visible as soon as they commit.
+ */
+@SpringBootTest(classes = ProductApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.config.location=classpath:application-test.properties",
+        "product.events.gap-timeout=0s",
+        "product.events.follow-timeout=500ms"})
+@Sql(scripts = "/data.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = "/cleanup.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+class ProductEventLogIntegrationTest {
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    void test_committedWritesAreLoggedInOrder() {
+        webTestClient.post()
+                .uri("/api/product/createUser")
+                .bodyValue(ProductDto.builder().product_name("Cherry").price(new BigDecimal("9.50")).build())
+                .exchange()
+                .expectStatus().isCreated();
+        webTestClient.put()
+                .uri("/api/product/{id}", 1L)
+                .bodyValue(ProductDto.builder().product_name("Renamed").price(new BigDecimal("10")).build())
+                .exchange()
+                .expectStatus().isOk();
+        webTestClient.delete()
+                .uri("/api/product/{id}", 2L)
+                .exchange()
+                .expectStatus().isOk();
+
+        List<ProductChange> changes = readChanges("/api/product/events");
+        assertEquals(List.of("CREATED", "UPDATED", "DELETED"),
+                changes.stream().map(ProductChange::getChange_type).collect(Collectors.toList()));
+        assertTrue(changes.get(0).getOffset() < changes.get(1).getOffset());
+        assertTrue(changes.get(1).getOffset() < changes.get(2).getOffset());
+        assertEquals("Cherry", changes.get(0).getProduct().getProduct_name());
+        // the logged row carries the version the UPDATE wrote
+        assertEquals(1L, changes.get(1).getProduct().getVersion());
+        assertEquals(2L, changes.get(2).getProduct_id());
+        assertNull(changes.get(2).getProduct());
+
+        List<ProductChange> resumed = readChanges("/api/product/events?after=" + changes.get(0).getOffset());
+        assertEquals(2, resumed.size());
+        assertEquals(changes.get(1).getOffset(), resumed.get(0).getOffset());
+    }
+
+    @Test
+    void test_failedWriteIsNotLogged() {
+        webTestClient.put()
+                .uri("/api/product/{id}", 99L)
+                .bodyValue(ProductDto.builder().product_name("Missing").price(new BigDecimal("1")).build())
+                .exchange()
+                .expectStatus().is4xxClientError();
+
+        assertTrue(readChanges("/api/product/events").isEmpty());
+    }
+
+    @Test
+    void test_follow_returnsEntriesUntilTimeout() {
+        webTestClient.delete()
+                .uri("/api/product/{id}", 1L)
+                .exchange()
+                .expectStatus().isOk();
+
+        List<ProductChange> changes = readChanges("/api/product/events?follow=true");
+        assertEquals(1, changes.size());
+        assertEquals(1L, changes.get(0).getProduct_id());
+    }
+
+    private List<ProductChange> readChanges(String uri) {
+        return webTestClient.get()
+                .uri(uri)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ProductChange.class)
+                .returnResult()
+                .getResponseBody();
+    }
+}
@@ -0,0 +1,74 @@
+package com.ProductModule.IntegrationTest;
+
+import com.ProductModule.ProductApplication;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.reactive.server.EntityExchangeResult;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Downloads the export, then resumes it with a byte range, the way an interrupted client would.
+ */
+@SpringBootTest(classes = ProductApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.config.location=classpath:application-test.properties",
+        "product.export.block-size=1"})
+@Sql(scripts = "/data.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = "/cleanup.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+class ProductExportIntegrationTest {
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    void test_exportAndResume() throws IOException {
+        EntityExchangeResult<byte[]> full = webTestClient.get().uri("/api/product/export?format=ndjson")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .expectBody(byte[].class)
+                .returnResult();
+        byte[] export = full.getResponseBody();
+        String eTag = full.getResponseHeaders().getETag();
+        String ndjson = new String(new GZIPInputStream(new ByteArrayInputStream(export)).readAllBytes(), StandardCharsets.UTF_8);
+        assertEquals(2, ndjson.split("\n").length);
+        assertTrue(ndjson.contains("Test Product 2"));
+
+        int resumeAt = export.length / 2;
+        byte[] rest = webTestClient.get().uri("/api/product/export?format=ndjson")
+                .header(HttpHeaders.RANGE, "bytes=" + resumeAt + "-")
+                .header(HttpHeaders.IF_RANGE, eTag)
+                .exchange()
+                .expectStatus().isEqualTo(206)
+                .expectHeader().valueEquals(HttpHeaders.CONTENT_RANGE, "bytes " + resumeAt + "-" + (export.length - 1) + "/" + export.length)
+                .expectBody(byte[].class)
+                .returnResult().getResponseBody();
+        assertArrayEquals(Arrays.copyOfRange(export, resumeAt, export.length), rest);
+
+        webTestClient.get().uri("/api/product/export?format=ndjson")
+                .header(HttpHeaders.RANGE, "bytes=" + resumeAt + "-")
+                .header(HttpHeaders.IF_RANGE, "\"other\"")
+                .exchange()
+                .expectStatus().isOk();
+        webTestClient.get().uri("/api/product/export?format=ndjson")
+                .header(HttpHeaders.RANGE, "bytes=" + export.length + "-")
+                .exchange()
+                .expectStatus().isEqualTo(416);
+    }
+
+    @Test
+    void test_invalidFormat() {
+        webTestClient.get().uri("/api/product/export?format=xml")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+}
@@ -0,0 +1,81 @@
+package com.ProductModule.IntegrationTest;
+
+import com.ProductModule.ProductApplication;
+import com.ProductModule.payLoad.ImportJobStatus;
+import com.ProductModule.payLoad.ProductDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Uploads a CSV catalog and polls the job until the products are readable.
+ */
+@SpringBootTest(classes = ProductApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.config.location=classpath:application-test.properties",
+        "product.import.chunk-lines=2"})
+@Sql(scripts = "/data.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = "/cleanup.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+class ProductImportIntegrationTest {
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    void test_csvImport() throws InterruptedException {
+        String csv = "product_name,price\nCherry,9.50\nDates,12\nTooPrecise,1.999\nFigs,3\n";
+        URI location = webTestClient.post()
+                .uri("/api/product/import")
+                .contentType(MediaType.parseMediaType("text/csv"))
+                .bodyValue(csv)
+                .exchange()
+                .expectStatus().isAccepted()
+                .returnResult(ImportJobStatus.class)
+                .getResponseHeaders().getLocation();
+        assertNotNull(location);
+
+        ImportJobStatus status = null;
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (System.nanoTime() < deadline) {
+            status = webTestClient.get().uri(location.getPath())
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody(ImportJobStatus.class)
+                    .returnResult().getResponseBody();
+            if (status.getState().equals("COMPLETED") || status.getState().equals("FAILED")) {
+                break;
+            }
+            Thread.sleep(20);
+        }
+        assertEquals("COMPLETED", status.getState());
+        assertEquals(4, status.getRecords_read());
+        assertEquals(3, status.getImported());
+        assertEquals(1, status.getFailed());
+        assertEquals(4, status.getErrors().get(0).getIndex(), "TooPrecise is on line 4 and violates the price scale");
+
+        List<ProductDto> products = webTestClient.get().uri("/api/product/getAll")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ProductDto.class)
+                .returnResult().getResponseBody();
+        Set<String> names = products.stream().map(ProductDto::getProduct_name).collect(Collectors.toSet());
+        assertTrue(names.containsAll(Set.of("Cherry", "Dates", "Figs")));
+        assertFalse(names.contains("TooPrecise"));
+    }
+
+    @Test
+    void test_unknownJob() {
+        webTestClient.get().uri("/api/product/import/{jobId}", "missing")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+}
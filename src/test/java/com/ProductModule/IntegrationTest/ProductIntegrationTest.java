@@ -5,6 +5,7 @@ import com.ProductModule.Exception.InvalidProductIdException;
 import com.ProductModule.Exception.ProductNotFoundException;
 import com.ProductModule.ProductApplication;
 import com.ProductModule.payLoad.ProductDto;
+import com.ProductModule.payLoad.ProductPage;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -22,6 +23,7 @@ import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.math.BigDecimal;
 import java.util.Map;
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -96,7 +98,7 @@ class ProductIntegrationTest {
         // Create a ProductDto object with the necessary data
         ProductDto newProduct = new ProductDto();
         newProduct.setProduct_name("Test Product 1");
-        newProduct.setPrice("100.0"); // Use Double instead of String
+        newProduct.setPrice(new BigDecimal("100.0"));
 
         // Send the POST request with the ProductDto object as the body
         ResponseEntity<ProductDto> response = restTemplate.postForEntity(getBaseUrl() + "/api/product/createUser", newProduct, ProductDto.class);
@@ -154,7 +156,7 @@ class ProductIntegrationTest {
 
     @Test
     void test_updateProduct() {
-        ProductDto productDto = ProductDto.builder().product_name("Iqoo").price("23333").product_id(1L).build();
+        ProductDto productDto = ProductDto.builder().product_name("Iqoo").price(new BigDecimal("23333")).product_id(1L).build();
         HttpEntity<ProductDto> requestEntity = new HttpEntity<>(productDto);
 
         ResponseEntity<ProductDto> response = restTemplate.exchange(
@@ -167,7 +169,7 @@ class ProductIntegrationTest {
         assertNotNull(response.getBody(), "Response body should not be null");
         assertEquals(HttpStatus.OK, response.getStatusCode(), "Status code should be OK");
         assertEquals("Iqoo", response.getBody().getProduct_name(), "Product name should be updated to Iqoo");
-        assertEquals("23333", response.getBody().getPrice(), "Product price should be updated to 23333");
+        assertEquals(new BigDecimal("23333"), response.getBody().getPrice(), "Product price should be updated to 23333");
 
     }
     @Test
@@ -175,7 +177,7 @@ class ProductIntegrationTest {
         // Create the product DTO to be updated
         ProductDto productDto = ProductDto.builder()
                 .product_name("Iqoo")
-                .price("23333")
+                .price(new BigDecimal("23333"))
                 .product_id(1L)
                 .build();
 
@@ -190,7 +192,7 @@ class ProductIntegrationTest {
                     // Assertions on the response
                     assertNotNull(responseBody, "Response body should not be null");
                     assertEquals("Iqoo", responseBody.getProduct_name(), "Product name should be updated to Iqoo");
-                    assertEquals("23333", responseBody.getPrice(), "Product price should be updated to 23333");
+                    assertEquals(new BigDecimal("23333"), responseBody.getPrice(), "Product price should be updated to 23333");
                 });
     }
 
@@ -201,7 +203,7 @@ class ProductIntegrationTest {
         // Arrange: Create a ProductDto for the test
         ProductDto productDto = ProductDto.builder()
                 .product_name("Iqoo")
-                .price("23333")
+                .price(new BigDecimal("23333"))
                 .product_id(1L)
                 .build();
 //
@@ -221,7 +223,7 @@ class ProductIntegrationTest {
         assertNotNull(response.getBody(), "Response body should not be null");
         assertEquals(HttpStatus.OK, response.getStatusCode(), "Status code should be OK");
         assertEquals("Iqoo", response.getBody().getProduct_name(), "Product name should be updated to Iqoo");
-        assertEquals("23333", response.getBody().getPrice(), "Product price should be updated to 23333");
+        assertEquals(new BigDecimal("23333"), response.getBody().getPrice(), "Product price should be updated to 23333");
     }
 
 
@@ -319,5 +321,181 @@ class ProductIntegrationTest {
         assertEquals("/api/product/createUser", errorResponseMap.get("path"));
     }
 
+    @Test
+    void test_listByPriceRange() {
+        ProductPage page = webTestClient.get()
+                .uri(getBaseUrl() + "/api/product/list?minPrice=150&maxPrice=250")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(ProductPage.class)
+                .returnResult().getResponseBody();
+
+        assertNotNull(page);
+        assertEquals(1, page.getSize());
+        assertEquals(2L, page.getContent().get(0).getProduct_id());
+        assertEquals(0, new BigDecimal("200").compareTo(page.getContent().get(0).getPrice()));
+    }
+
+    @Test
+    void test_listSortedByPriceDescending() {
+        ProductPage first = webTestClient.get()
+                .uri(getBaseUrl() + "/api/product/list?sort=-price&size=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(ProductPage.class)
+                .returnResult().getResponseBody();
+        assertNotNull(first);
+        assertEquals(2L, first.getContent().get(0).getProduct_id());
+        assertNotNull(first.getNext_cursor());
+
+        ProductPage second = webTestClient.get()
+                .uri(getBaseUrl() + "/api/product/list?sort=-price&size=1&cursor={cursor}", first.getNext_cursor())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(ProductPage.class)
+                .returnResult().getResponseBody();
+        assertNotNull(second);
+        assertEquals(1L, second.getContent().get(0).getProduct_id());
+        assertNull(second.getNext_cursor());
+    }
+
+    @Test
+    void test_listInvalidSort() {
+        webTestClient.get()
+                .uri(getBaseUrl() + "/api/product/list?sort=name")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void test_conditionalGet() {
+        String eTag = webTestClient.get()
+                .uri(getBaseUrl() + "/api/product/{id}", 1L)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"0\"")
+                .returnResult(ProductDto.class).getResponseHeaders().getETag();
+
+        webTestClient.get()
+                .uri(getBaseUrl() + "/api/product/{id}", 1L)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isNotModified();
+
+        webTestClient.patch()
+                .uri(getBaseUrl() + "/api/product/partialUpdate/{id}", 1L)
+                .bodyValue(ProductDto.builder().product_name("Renamed").build())
+                .exchange()
+                .expectStatus().isOk();
+
+        webTestClient.get()
+                .uri(getBaseUrl() + "/api/product/{id}", 1L)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"1\"");
+    }
 
+    @Test
+    void test_unconditionalPutHasNoETag() {
+        webTestClient.put()
+                .uri(getBaseUrl() + "/api/product/{id}", 1L)
+                .bodyValue(ProductDto.builder().product_name("Renamed").price(new BigDecimal("10")).build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist(HttpHeaders.ETAG);
+
+        webTestClient.get()
+                .uri(getBaseUrl() + "/api/product/{id}", 1L)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"1\"");
+    }
+
+    @Test
+    void test_conditionalGetAll() {
+        String eTag = webTestClient.get()
+                .uri(getBaseUrl() + "/api/product/getAll")
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(String.class).getResponseHeaders().getETag();
+        assertNotNull(eTag);
+
+        webTestClient.get()
+                .uri(getBaseUrl() + "/api/product/getAll")
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isNotModified();
+
+        webTestClient.delete()
+                .uri(getBaseUrl() + "/api/product/{id}", 2L)
+                .exchange()
+                .expectStatus().isOk();
+
+        webTestClient.get()
+                .uri(getBaseUrl() + "/api/product/getAll")
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    @Test
+    void test_updateWithStaleIfMatch() {
+        webTestClient.put()
+                .uri(getBaseUrl() + "/api/product/{id}", 1L)
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .bodyValue(ProductDto.builder().product_name("First").price(new BigDecimal("10")).build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"1\"");
+
+        // a second writer still holding version 0 must not overwrite the first one
+        webTestClient.put()
+                .uri(getBaseUrl() + "/api/product/{id}", 1L)
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .bodyValue(ProductDto.builder().product_name("Second").price(new BigDecimal("20")).build())
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED);
+
+        webTestClient.patch()
+                .uri(getBaseUrl() + "/api/product/partialUpdate/{id}", 1L)
+                .bodyValue(ProductDto.builder().price(new BigDecimal("30")).version(0L).build())
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.CONFLICT);
+
+        webTestClient.get()
+                .uri(getBaseUrl() + "/api/product/{id}", 1L)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(ProductDto.class)
+                .value(productDto -> assertEquals("First", productDto.getProduct_name()));
+    }
+
+    @Test
+    void test_ifMatchList() {
+        // weak and foreign tags can never match, so the list names version 0 only
+        webTestClient.patch()
+                .uri(getBaseUrl() + "/api/product/partialUpdate/{id}", 1L)
+                .header(HttpHeaders.IF_MATCH, "W/\"0\", \"0\", \"abc\"")
+                .bodyValue(ProductDto.builder().price(new BigDecimal("30")).build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"1\"");
+
+        webTestClient.patch()
+                .uri(getBaseUrl() + "/api/product/partialUpdate/{id}", 1L)
+                .header(HttpHeaders.IF_MATCH, "\"1\", \"2\"")
+                .bodyValue(ProductDto.builder().price(new BigDecimal("40")).build())
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(String.class)
+                .value(message -> assertTrue(message.contains("more than one version"), message));
+
+        webTestClient.put()
+                .uri(getBaseUrl() + "/api/product/{id}", 1L)
+                .header(HttpHeaders.IF_MATCH, "W/\"1\"")
+                .bodyValue(ProductDto.builder().product_name("Weak").price(new BigDecimal("10")).build())
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED);
+    }
 }
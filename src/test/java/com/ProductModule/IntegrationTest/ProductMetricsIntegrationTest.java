@@ -0,0 +1,72 @@
+package com.ProductModule.IntegrationTest;
+
+import com.ProductModule.ProductApplication;
+import com.ProductModule.metrics.ProductMetrics;
+import com.ProductModule.payLoad.ProductDto;
+import com.ProductModule.service.ProductService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Scrapes /actuator/prometheus the way a Prometheus server would and checks the product meters are exported.
+ */
+@SpringBootTest(classes = ProductApplication.class, properties = "spring.config.location=classpath:application-test.properties")
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@Sql(scripts = "/data.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = "/cleanup.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+class ProductMetricsIntegrationTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void prometheusScrape_exportsProductMeters() throws Exception {
+        productService.getProductById(1L);
+        productService.getProductById(1L);
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue(scrape.contains("product_operation_seconds_bucket"), "operation timers publish a histogram");
+        assertTrue(scrape.contains("operation=\"get\""));
+        assertTrue(scrape.contains("product_mapper_seconds_count"));
+        assertTrue(scrape.contains("product_db_statements_total"));
+        assertTrue(scrape.contains("cache_gets_total"));
+        assertTrue(scrape.contains("product_cache_hit_ratio"));
+    }
+
+    @Test
+    void updateOverloads_areTimed() throws Exception {
+        long updates = operationCount("update");
+        long patches = operationCount("partialUpdate");
+
+        productService.updateRecord(ProductDto.builder().product_name("Timed").price(new BigDecimal("10")).build(), 1L);
+        productService.partialUpdate(ProductDto.builder().price(new BigDecimal("20")).build(), 2L);
+
+        assertEquals(updates + 1, operationCount("update"));
+        assertEquals(patches + 1, operationCount("partialUpdate"));
+    }
+
+    private long operationCount(String operation) {
+        Timer timer = meterRegistry.find(ProductMetrics.OPERATION_TIMER).tag("operation", operation).timer();
+        return timer == null ? 0 : timer.count();
+    }
+}
@@ -0,0 +1,81 @@
+package com.ProductModule.IntegrationTest;
+
+import com.ProductModule.Exception.InvalidProductIdException;
+import com.ProductModule.Exception.ProductNotFoundException;
+import com.ProductModule.ProductApplication;
+import com.ProductModule.payLoad.ProductDto;
+import com.ProductModule.service.ProductService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+
+/**
+ * Counts the JDBC statements Hibernate prepares for each write path, so a regression back to
+ * existsById + findById + save shows up as a failing test.
+ */
+@SpringBootTest(classes = ProductApplication.class, properties = {
+        "spring.config.location=classpath:application-test.properties",
+        "spring.jpa.properties.hibernate.generate_statistics=true"})
+@Sql(scripts = "/data.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = "/cleanup.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+class ProductQueryCountTest {
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void resetStatistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void updateRecord_isOneStatement() throws InvalidProductIdException {
+        ProductDto productDto = ProductDto.builder().product_name("Iqoo").price(new BigDecimal("23333")).build();
+        productService.updateRecord(productDto, 1L);
+        assertEquals(1, statistics.getPrepareStatementCount(), "PUT must be a single UPDATE");
+    }
+
+    @Test
+    void updateRecord_missingProduct_isOneStatement() {
+        ProductDto productDto = ProductDto.builder().product_name("Iqoo").price(new BigDecimal("23333")).build();
+        InvalidProductIdException exception = assertThrows(InvalidProductIdException.class,
+                () -> productService.updateRecord(productDto, 99L));
+        assertEquals("Product with ID 99 not found.", exception.getMessage());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void deleteById_isOneStatement() throws ProductNotFoundException {
+        productService.deleteById(2L);
+        assertEquals(1, statistics.getPrepareStatementCount(), "DELETE must not check existence first");
+    }
+
+    @Test
+    void partialUpdate_isSelectPlusUpdate() throws InvalidProductIdException, ProductNotFoundException {
+        ProductDto productDto = ProductDto.builder().product_name("Samsung").build();
+        ProductDto updated = productService.partialUpdate(productDto, 1L);
+        assertEquals("Samsung", updated.getProduct_name());
+        assertEquals(2, statistics.getPrepareStatementCount(), "PATCH must be one SELECT and one dirty-checked UPDATE");
+        assertEquals(1, statistics.getEntityUpdateCount());
+    }
+
+    @Test
+    void partialUpdate_missingProduct_isOneStatement() {
+        ProductDto productDto = ProductDto.builder().product_name("Samsung").build();
+        assertThrows(ProductNotFoundException.class, () -> productService.partialUpdate(productDto, 99L));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,122 @@
+package com.ProductModule.IntegrationTest;
+
+import com.ProductModule.ProductApplication;
+import com.ProductModule.payLoad.ProductDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+
+/**
+ * Runs the reactive endpoints against the same in-memory H2 database the blocking API uses.
+ */
+@SpringBootTest(classes = ProductApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.config.location=classpath:application-test.properties",
+        "product.reactive.enabled=true",
+        "product.reactive.r2dbc-url=r2dbc:h2:mem:///testdb"})
+@Sql(scripts = "/data.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = "/cleanup.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+class ReactiveProductIntegrationTest {
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    void test_getById() {
+        webTestClient.get()
+                .uri("/api/reactive/product/{id}", 1L)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(ProductDto.class)
+                .value(productDto -> assertEquals("Test Product 1", productDto.getProduct_name()));
+    }
+
+    @Test
+    void test_getById_notFound() {
+        webTestClient.get()
+                .uri("/api/reactive/product/{id}", 99L)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void test_getAll_streamsNdjson() {
+        webTestClient.get()
+                .uri("/api/reactive/product/getAll")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ProductDto.class)
+                .hasSize(2);
+    }
+
+    @Test
+    void test_createThenRead() {
+        ProductDto productDto = ProductDto.builder().product_name("Reactive").price(new BigDecimal("12")).build();
+        ProductDto created = webTestClient.post()
+                .uri("/api/reactive/product/createUser")
+                .bodyValue(productDto)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(ProductDto.class)
+                .returnResult()
+                .getResponseBody();
+        assertNotNull(created);
+        assertNotNull(created.getProduct_id());
+
+        webTestClient.get()
+                .uri("/api/reactive/product/{id}", created.getProduct_id())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(ProductDto.class)
+                .value(found -> assertEquals("Reactive", found.getProduct_name()));
+    }
+
+    @Test
+    void test_delete_notFound() {
+        webTestClient.delete()
+                .uri("/api/reactive/product/{id}", 99L)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void test_updatesReturnIncrementedVersion() {
+        webTestClient.put()
+                .uri("/api/reactive/product/{id}", 1L)
+                .bodyValue(ProductDto.builder().product_name("Replaced").price(new BigDecimal("15")).build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(ProductDto.class)
+                .value(updated -> {
+                    assertEquals("Replaced", updated.getProduct_name());
+                    assertEquals(1L, updated.getVersion());
+                });
+
+        webTestClient.patch()
+                .uri("/api/reactive/product/partialUpdate/{id}", 1L)
+                .bodyValue(ProductDto.builder().price(new BigDecimal("16")).build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(ProductDto.class)
+                .value(patched -> {
+                    assertEquals("Replaced", patched.getProduct_name());
+                    assertEquals(0, new BigDecimal("16").compareTo(patched.getPrice()));
+                    assertEquals(2L, patched.getVersion());
+                });
+    }
+
+    @Test
+    void test_partialUpdate_notFound() {
+        webTestClient.patch()
+                .uri("/api/reactive/product/partialUpdate/{id}", 99L)
+                .bodyValue(ProductDto.builder().price(new BigDecimal("16")).build())
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+}
@@ -0,0 +1,120 @@
+package com.ProductModule.IntegrationTest;
+
+import com.ProductModule.ProductApplication;
+import com.ProductModule.config.ReadYourWritesFilter;
+import com.ProductModule.config.ReplicaRoutingDataSource;
+import com.ProductModule.payLoad.ProductDto;
+import com.ProductModule.payLoad.ProductPage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.ResponseCookie;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.math.BigDecimal;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A second H2 database stands in for the replica. It is not replicated: it holds its own copy of the test data,
+ * with product 1 renamed, so a response tells which database it was read from.
+ */
+@SpringBootTest(classes = ProductApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.config.location=classpath:application-test.properties",
+        "spring.jpa.open-in-view=false",
+        "product.datasource.replicas.enabled=true",
+        "product.datasource.replicas.urls=" + ReplicaRoutingIntegrationTest.REPLICA_URL,
+        "product.datasource.replicas.max-lag=2s",
+        "product.datasource.replicas.lag-check-interval=PT1H"})
+@Sql(scripts = "/data.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = "/cleanup.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+class ReplicaRoutingIntegrationTest {
+    static final String REPLICA_URL = "jdbc:h2:mem:replica0;DB_CLOSE_DELAY=-1";
+    // the stand-in does not replicate the heartbeat; a beat from the future reads as caught up
+    private static final long CAUGHT_UP = 4_102_444_800_000L;
+
+    @Autowired
+    private WebTestClient webTestClient;
+    @Autowired
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setupReplica() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(REPLICA_URL, "sa", "password");
+        new ResourceDatabasePopulator(new ClassPathResource("data.sql")).execute(dataSource);
+        replica = new JdbcTemplate(dataSource);
+        replica.update("UPDATE product SET product_name = 'Replica Product 1' WHERE product_id = 1");
+        replica.execute("CREATE TABLE IF NOT EXISTS product_replica_heartbeat (id INT PRIMARY KEY, beat_at BIGINT NOT NULL)");
+        setReplicaBeat(CAUGHT_UP);
+    }
+
+    private void setReplicaBeat(long beat) {
+        replica.update("DELETE FROM product_replica_heartbeat");
+        replica.update("INSERT INTO product_replica_heartbeat (id, beat_at) VALUES (1, ?)", beat);
+        replicaRoutingDataSource.checkLag();
+    }
+
+    private String productNames(String primaryUntil) {
+        ProductPage page = webTestClient.get()
+                .uri("/api/product/list")
+                .cookies(cookies -> {
+                    if (primaryUntil != null) {
+                        cookies.add(ReadYourWritesFilter.COOKIE_NAME, primaryUntil);
+                    }
+                })
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(ProductPage.class)
+                .returnResult().getResponseBody();
+        assertNotNull(page);
+        return page.getContent().stream().map(ProductDto::getProduct_name).collect(Collectors.joining(","));
+    }
+
+    @Test
+    void test_readsGoToReplica() {
+        assertEquals("Replica Product 1,Test Product 2", productNames(null));
+    }
+
+    @Test
+    void test_clientReadsItsOwnWriteFromPrimary() {
+        ResponseCookie cookie = webTestClient.put()
+                .uri("/api/product/{id}", 2L)
+                .bodyValue(ProductDto.builder().product_name("Renamed").price(new BigDecimal("10")).build())
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(String.class)
+                .getResponseCookies().getFirst(ReadYourWritesFilter.COOKIE_NAME);
+        assertNotNull(cookie, "A write makes the client stick to the primary");
+
+        assertEquals("Test Product 1,Renamed", productNames(cookie.getValue()));
+        assertEquals("Replica Product 1,Test Product 2", productNames(null), "Other clients still read the replica");
+        assertEquals("Replica Product 1,Test Product 2", productNames("1"), "An expired cookie is ignored");
+    }
+
+    @Test
+    void test_cachedReadsComeFromPrimary() {
+        webTestClient.get()
+                .uri("/api/product/{id}", 1L)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.product_name").isEqualTo("Test Product 1");
+    }
+
+    @Test
+    void test_laggingReplicaFallsBackToPrimary() {
+        setReplicaBeat(1);
+        assertEquals("Test Product 1,Test Product 2", productNames(null));
+
+        setReplicaBeat(CAUGHT_UP);
+        assertEquals("Replica Product 1,Test Product 2", productNames(null));
+    }
+}
@@ -0,0 +1,64 @@
+package com.ProductModule.controllerTest;
+
+import com.ProductModule.config.ConcurrencyLimitedDataSource;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TestConcurrencyLimitedDataSource {
+    @Mock
+    public DataSource pool;
+    @Mock
+    public Connection connection;
+    public ConcurrencyLimitedDataSource dataSource;
+
+    @Before
+    public void setup() {
+        dataSource = new ConcurrencyLimitedDataSource(pool, 1, Duration.ofMillis(20));
+    }
+
+    @Test
+    public void test_getConnection_waitsForLimitThenFails() throws SQLException {
+        when(pool.getConnection()).thenReturn(connection);
+        Connection first = dataSource.getConnection();
+
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        verify(pool, times(1)).getConnection();
+
+        first.close();
+        assertNotNull(dataSource.getConnection(), "Closing a connection frees its permit");
+        verify(connection).close();
+    }
+
+    @Test
+    public void test_close_releasesPermitOnce() throws SQLException {
+        when(pool.getConnection()).thenReturn(connection);
+        Connection first = dataSource.getConnection();
+        first.close();
+        first.close();
+
+        dataSource.getConnection();
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection,
+                "A second close must not free another caller's permit");
+    }
+
+    @Test
+    public void test_getConnection_poolFailureReleasesPermit() throws SQLException {
+        when(pool.getConnection()).thenThrow(new SQLException("down")).thenReturn(connection);
+
+        assertThrows(SQLException.class, dataSource::getConnection);
+        assertNotNull(dataSource.getConnection());
+    }
+}
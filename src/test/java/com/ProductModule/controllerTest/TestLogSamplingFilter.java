@@ -0,0 +1,84 @@
+package com.ProductModule.controllerTest;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.ProductModule.config.LogSamplingFilter;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestLogSamplingFilter {
+    private LoggerContext context;
+    private ListAppender<ILoggingEvent> appender;
+    private Logger logger;
+
+    @Before
+    public void setup() {
+        context = new LoggerContext();
+        appender = new ListAppender<>();
+        appender.setContext(context);
+        appender.start();
+        context.getLogger(Logger.ROOT_LOGGER_NAME).addAppender(appender);
+        logger = context.getLogger("com.ProductModule.service.ProductService");
+        logger.setLevel(Level.INFO);
+    }
+
+    private void sample(int allowedPerInterval, String interval) {
+        LogSamplingFilter filter = new LogSamplingFilter();
+        filter.setContext(context);
+        filter.setAllowedPerInterval(allowedPerInterval);
+        filter.setInterval(interval);
+        filter.start();
+        context.addTurboFilter(filter);
+    }
+
+    private List<String> messages() {
+        return appender.list.stream().map(ILoggingEvent::getFormattedMessage).collect(Collectors.toList());
+    }
+
+    @Test
+    public void test_repeatedPatternIsCappedPerInterval() {
+        sample(3, "PT1H");
+        for (long id = 1; id <= 10; id++) {
+            logger.error("Product not found: {}", id);
+        }
+        logger.error("Mapping failed: {}", "x");
+
+        assertEquals(List.of("Product not found: 1", "Product not found: 2", "Product not found: 3", "Mapping failed: x"),
+                messages(), "Each pattern has its own allowance");
+    }
+
+    @Test
+    public void test_droppedCountIsReportedInNextInterval() throws InterruptedException {
+        sample(1, "PT0.05S");
+        logger.error("Product not found: {}", 1);
+        logger.error("Product not found: {}", 2);
+        logger.error("Product not found: {}", 3);
+        Thread.sleep(60);
+        logger.error("Product not found: {}", 4);
+
+        List<String> messages = messages();
+        assertEquals(3, messages.size());
+        assertEquals("Product not found: 1", messages.get(0));
+        assertTrue(messages.get(1).startsWith("Dropped 2 \"Product not found: {}\" messages"), messages.get(1));
+        assertEquals("Product not found: 4", messages.get(2));
+    }
+
+    @Test
+    public void test_disabledLevelsAreNotCounted() {
+        sample(1, "PT1H");
+        logger.debug("Fetched page {}", 1);
+        logger.debug("Fetched page {}", 2);
+        logger.setLevel(Level.DEBUG);
+        logger.debug("Fetched page {}", 3);
+
+        assertEquals(List.of("Fetched page 3"), messages());
+    }
+}
@@ -0,0 +1,124 @@
+package com.ProductModule.controllerTest;
+
+import com.ProductModule.cache.ProductBatchLoader;
+import com.ProductModule.payLoad.ProductDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestProductBatchLoader {
+    private final List<Long> singleLoads = new CopyOnWriteArrayList<>();
+    private final List<Set<Long>> bulkLoads = new CopyOnWriteArrayList<>();
+
+    private static ProductDto product(long id) {
+        return new ProductDto(id, "Product " + id, BigDecimal.valueOf(id), 0L);
+    }
+
+    private ProductDto loadOne(Long id) {
+        singleLoads.add(id);
+        return id > 0 ? product(id) : null;
+    }
+
+    private Map<Long, ProductDto> loadMany(Set<Long> ids) {
+        bulkLoads.add(ids);
+        Map<Long, ProductDto> found = new HashMap<>();
+        ids.stream().filter(id -> id > 0).forEach(id -> found.put(id, product(id)));
+        return found;
+    }
+
+    @Test
+    public void test_load_idleRunsSingleLoadImmediately() {
+        ProductBatchLoader productBatchLoader = new ProductBatchLoader(true, Duration.ofSeconds(5), 100);
+
+        long start = System.nanoTime();
+        assertEquals(product(7L), productBatchLoader.load(7L, this::loadOne, this::loadMany));
+        assertNull(productBatchLoader.load(-1L, this::loadOne, this::loadMany));
+
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5), "No window is waited for when nothing is running");
+        assertEquals(List.of(7L, -1L), singleLoads);
+        assertTrue(bulkLoads.isEmpty());
+    }
+
+    @Test
+    public void test_load_mergesConcurrentLookupsIntoOneQuery() throws Exception {
+        int followers = 20;
+        ProductBatchLoader productBatchLoader = new ProductBatchLoader(true, Duration.ofSeconds(5), followers);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        productBatchLoader.bindTo(registry);
+
+        // a slow load keeps the loader busy, so the next lookups are collected into a batch
+        CountDownLatch slowStarted = new CountDownLatch(1);
+        CountDownLatch releaseSlow = new CountDownLatch(1);
+        Function<Long, ProductDto> slowLoader = id -> {
+            slowStarted.countDown();
+            try {
+                releaseSlow.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return loadOne(id);
+        };
+        // one thread per caller, the common pool may be too small to have them all waiting at once
+        ExecutorService executor = Executors.newFixedThreadPool(followers + 1);
+        CompletableFuture<ProductDto> slow = CompletableFuture.supplyAsync(() -> productBatchLoader.load(1L, slowLoader, this::loadMany), executor);
+        assertTrue(slowStarted.await(10, TimeUnit.SECONDS));
+
+        List<CompletableFuture<ProductDto>> results = new ArrayList<>();
+        for (long id = 2; id < 2 + followers; id++) {
+            long productId = id % 5 == 0 ? -id : id;
+            results.add(CompletableFuture.supplyAsync(() -> productBatchLoader.load(productId, this::loadOne, this::loadMany), executor));
+        }
+        for (int i = 0; i < followers; i++) {
+            long id = i + 2;
+            ProductDto expected = id % 5 == 0 ? null : product(id);
+            assertEquals(expected, results.get(i).get(10, TimeUnit.SECONDS));
+        }
+        releaseSlow.countDown();
+        assertEquals(product(1L), slow.get(10, TimeUnit.SECONDS));
+        executor.shutdown();
+
+        assertEquals(List.of(1L), singleLoads);
+        assertEquals(1, bulkLoads.size(), "The lookups that arrived during the slow load share one query");
+        assertEquals(LongStream.range(2, 2 + followers).map(id -> id % 5 == 0 ? -id : id).boxed().collect(Collectors.toSet()),
+                bulkLoads.get(0));
+        assertEquals(followers + 1, registry.get("product.batch-loader.lookups").functionCounter().count());
+        assertEquals(2, registry.get("product.batch-loader.queries").functionCounter().count());
+    }
+
+    @Test
+    public void test_load_failurePropagatesToCaller() {
+        ProductBatchLoader productBatchLoader = new ProductBatchLoader(true, Duration.ofMillis(2), 100);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> productBatchLoader.load(3L,
+                id -> { throw new IllegalStateException("database down"); }, this::loadMany));
+        assertEquals("database down", e.getMessage());
+        assertEquals(product(3L), productBatchLoader.load(3L, this::loadOne, this::loadMany), "A failed batch is not reused");
+    }
+
+    @Test
+    public void test_load_disabledCallsLoaderDirectly() {
+        ProductBatchLoader productBatchLoader = new ProductBatchLoader(false, Duration.ofMillis(2), 100);
+
+        assertEquals(product(4L), productBatchLoader.load(4L, this::loadOne, this::loadMany));
+        assertEquals(List.of(4L), singleLoads);
+        assertTrue(bulkLoads.isEmpty());
+    }
+}
@@ -0,0 +1,118 @@
+package com.ProductModule.controllerTest;
+
+import com.ProductModule.Exception.InvalidProductDataException;
+import com.ProductModule.Repository.ProductRepository;
+import com.ProductModule.event.ProductChangedEvent;
+import com.ProductModule.mapper.ProductMapper;
+import com.ProductModule.payLoad.BulkItemResult;
+import com.ProductModule.payLoad.ProductDto;
+import com.ProductModule.service.ProductBulkService;
+import com.ProductModule.service.ProductIdGenerator;
+import jakarta.validation.Validation;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TestProductBulkService {
+    private static final Logger logger = LoggerFactory.getLogger(TestProductBulkService.class);
+    @Mock
+    public ProductRepository productRepository;
+    @Mock
+    public ApplicationEventPublisher eventPublisher;
+    @Mock
+    public PlatformTransactionManager transactionManager;
+    public ProductBulkService productBulkService;
+
+    @Before
+    public void setup() {
+        logger.info("Setting up bulk service with chunk size 2");
+        productBulkService = new ProductBulkService(productRepository, new ProductMapper(), eventPublisher,
+                new ProductIdGenerator(1, 0L, System::currentTimeMillis), transactionManager,
+                Validation.buildDefaultValidatorFactory().getValidator(), 2, 10);
+    }
+
+    ProductDto apple = ProductDto.builder().product_name("Apple").price(new BigDecimal("45")).build();
+    ProductDto banana = ProductDto.builder().product_name("Banana").price(new BigDecimal("30")).build();
+    ProductDto orange = ProductDto.builder().product_name("Orange").price(new BigDecimal("89")).build();
+
+    @Test
+    public void test_createAll_writesInChunks() {
+        List<BulkItemResult> results = productBulkService.createAll(Arrays.asList(apple, null, banana, orange));
+
+        assertEquals(4, results.size());
+        assertEquals(201, results.get(0).getStatus());
+        assertEquals(400, results.get(1).getStatus(), "Null item fails on its own");
+        assertEquals(201, results.get(2).getStatus());
+        assertEquals(201, results.get(3).getStatus());
+        assertEquals("Orange", results.get(3).getProduct().getProduct_name());
+        // three valid items with chunk size 2 -> two batched inserts, two transactions
+        verify(productRepository, times(2)).insertAll(anyList());
+        verify(transactionManager, times(2)).commit(any());
+        verify(eventPublisher, times(2)).publishEvent(any(ProductChangedEvent.class));
+    }
+
+    @Test
+    public void test_createAll_failedChunkIsRetriedPerItem() {
+        doThrow(new DataIntegrityViolationException("duplicate key"))
+                .doNothing()
+                .doThrow(new DataIntegrityViolationException("duplicate key"))
+                .when(productRepository).insertAll(anyList());
+
+        List<BulkItemResult> results = productBulkService.createAll(List.of(apple, banana));
+
+        assertEquals(201, results.get(0).getStatus());
+        assertEquals(409, results.get(1).getStatus());
+        assertEquals("duplicate key", results.get(1).getError());
+        verify(productRepository, times(3)).insertAll(anyList());
+    }
+
+    @Test
+    public void test_updateAll_reportsMissingProducts() {
+        ProductDto existing = ProductDto.builder().product_id(1L).product_name("Apple").price(new BigDecimal("50")).build();
+        ProductDto missing = ProductDto.builder().product_id(2L).product_name("Banana").price(new BigDecimal("30")).build();
+        when(productRepository.updateAll(anyList())).thenReturn(new int[]{1, 0});
+        when(productRepository.findAllAsDtoByIdIn(List.of(1L)))
+                .thenReturn(List.of(new ProductDto(1L, "Apple", new BigDecimal("50"), 3L)));
+
+        List<BulkItemResult> results = productBulkService.updateAll(List.of(existing, missing, apple));
+
+        assertEquals(200, results.get(0).getStatus());
+        assertEquals(new BigDecimal("50"), results.get(0).getProduct().getPrice());
+        assertEquals(3L, results.get(0).getProduct().getVersion(), "The new version is read back");
+        assertEquals(404, results.get(1).getStatus());
+        assertEquals("Product with ID 2 not found.", results.get(1).getError());
+        assertEquals(400, results.get(2).getStatus(), "Update without id is rejected before any write");
+    }
+
+    @Test
+    public void test_deleteAll_reportsMissingProducts() {
+        when(productRepository.deleteAllByIds(List.of(1L, 2L))).thenReturn(new int[]{1, 0});
+
+        List<BulkItemResult> results = productBulkService.deleteAll(List.of(1L, 2L));
+
+        assertEquals(200, results.get(0).getStatus());
+        assertEquals(404, results.get(1).getStatus());
+    }
+
+    @Test
+    public void test_bulk_tooManyItems() {
+        List<Long> ids = List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L, 11L);
+        assertThrows(InvalidProductDataException.class, () -> productBulkService.deleteAll(ids));
+        verify(productRepository, never()).deleteAllByIds(anyList());
+    }
+}
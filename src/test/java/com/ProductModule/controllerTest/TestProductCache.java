@@ -0,0 +1,124 @@
+package com.ProductModule.controllerTest;
+
+import com.ProductModule.cache.LocalProductSharedCache;
+import com.ProductModule.cache.ProductCache;
+import com.ProductModule.event.ProductChangedEvent;
+import com.ProductModule.mapper.ProductMapper;
+import com.ProductModule.payLoad.ProductDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two cache instances over one local shared cache stand for two nodes of a deployment.
+ */
+public class TestProductCache {
+    private final ProductDto apple = new ProductDto(1L, "Apple", new BigDecimal("45.50"), 0L);
+    private final ProductDto newApple = new ProductDto(1L, "Apple", new BigDecimal("49.90"), 1L);
+    private final List<ProductChangedEvent> republishedOnB = new CopyOnWriteArrayList<>();
+    private final List<Runnable> pendingOnB = new ArrayList<>();
+    private final AtomicInteger databaseLoads = new AtomicInteger();
+    private LocalProductSharedCache sharedCache;
+    private ProductCache nodeA;
+    private ProductCache nodeB;
+    private SimpleMeterRegistry registryB;
+
+    @Before
+    public void setup() {
+        sharedCache = new LocalProductSharedCache(new ProductMapper(), 100, Duration.ofMinutes(10), Duration.ofSeconds(5));
+        nodeA = new ProductCache(new ProductMapper(), sharedCache, event -> { }, 100, Duration.ofMinutes(10), Runnable::run);
+        nodeB = new ProductCache(new ProductMapper(), sharedCache, event -> republishedOnB.add((ProductChangedEvent) event),
+                100, Duration.ofMinutes(10), pendingOnB::add);
+        nodeA.subscribe();
+        nodeB.subscribe();
+        registryB = new SimpleMeterRegistry();
+        nodeB.bindTo(registryB);
+    }
+
+    private Function<Long, ProductDto> database(ProductDto productDto) {
+        return productId -> {
+            databaseLoads.incrementAndGet();
+            return productDto;
+        };
+    }
+
+    @Test
+    public void test_get_missReadsSharedCacheBeforeDatabase() {
+        assertEquals(apple, nodeA.get(1L, database(apple)));
+        assertEquals(apple, nodeB.get(1L, database(apple)));
+
+        assertEquals(1, databaseLoads.get(), "The second node is served from the shared cache");
+    }
+
+    @Test
+    public void test_getAll_loadsOnlyIdsMissingFromSharedCache() {
+        ProductDto banana = new ProductDto(2L, "Banana", new BigDecimal("30"), 0L);
+        nodeA.get(1L, database(apple));
+
+        Map<Long, ProductDto> products = nodeB.getAll(List.of(1L, 2L, 3L), (Set<Long> productIds) -> {
+            assertEquals(Set.of(2L, 3L), productIds);
+            return Map.of(2L, banana);
+        });
+
+        assertEquals(Map.of(1L, apple, 2L, banana), products);
+    }
+
+    @Test
+    public void test_onProductChanged_invalidatesOtherNodes() {
+        nodeA.get(1L, database(apple));
+        nodeB.get(1L, database(apple));
+
+        ProductChangedEvent write = ProductChangedEvent.updated(List.of(newApple));
+        nodeA.onProductChanged(write);
+        pendingOnB.forEach(Runnable::run);
+
+        assertEquals(1, republishedOnB.size(), "The write is republished on the other node");
+        assertTrue(republishedOnB.get(0).isRemote());
+        assertEquals(List.of(1L), republishedOnB.get(0).getProductIds());
+        assertEquals(List.of(newApple), republishedOnB.get(0).getProducts());
+        assertEquals(newApple, nodeB.get(1L, database(newApple)), "Neither cache level keeps the old product");
+        assertEquals(1, registryB.get("product.cache.invalidations.received").functionCounter().count());
+        assertEquals(1, registryB.get("product.cache.invalidation.lag").timer().count());
+    }
+
+    @Test
+    public void test_onInvalidation_publishesOffTheChannelThread() {
+        nodeB.get(1L, database(apple));
+
+        nodeA.onProductChanged(ProductChangedEvent.updated(List.of(newApple)));
+
+        assertTrue(republishedOnB.isEmpty(), "Listeners reload from the database, so they don't run on the channel thread");
+        assertEquals(1, pendingOnB.size());
+        assertEquals(newApple, nodeB.get(1L, database(newApple)), "The in-heap entry is evicted at once");
+    }
+
+    @Test
+    public void test_onProductChanged_remoteEventIsNotBroadcastAgain() {
+        nodeB.onProductChanged(new ProductChangedEvent(ProductChangedEvent.ChangeType.DELETED, List.of(1L), List.of(), true));
+
+        assertEquals(0, registryB.get("product.cache.invalidations.sent").functionCounter().count());
+        assertTrue(republishedOnB.isEmpty());
+    }
+
+    @Test
+    public void test_invalidate_tombstoneBlocksOlderLoad() {
+        // a load that read the database before the write commits only stores its result afterwards
+        nodeA.onProductChanged(ProductChangedEvent.updated(List.of(newApple)));
+        sharedCache.putAll(List.of(apple));
+
+        assertNull(sharedCache.get(1L));
+        assertEquals(newApple, nodeB.get(1L, database(newApple)));
+    }
+}
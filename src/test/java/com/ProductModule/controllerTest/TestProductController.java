@@ -1,9 +1,14 @@
 package com.ProductModule.controllerTest;
 import com.ProductModule.Entity.Product;
 import com.ProductModule.Exception.ProductNotFoundException;
+import com.ProductModule.Exception.ProductVersionConflictException;
 import com.ProductModule.Repository.ProductRepository;
+import com.ProductModule.cache.ProductJsonCache;
 import com.ProductModule.controller.ProductController;
+import com.ProductModule.event.ProductChangedEvent;
 import com.ProductModule.payLoad.ProductDto;
+import com.ProductModule.payLoad.ProductMultiGet;
+import com.ProductModule.payLoad.ProductPage;
 import com.ProductModule.service.ProductService;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -15,13 +20,15 @@ import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
-import org.modelmapper.ModelMapper;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 import static org.hamcrest.Matchers.hasSize;
@@ -32,8 +39,6 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 @RunWith(MockitoJUnitRunner.class)
 public class TestProductController {
-    @Mock
-    private ModelMapper mapper;
     @Mock
     public ProductRepository productRepository;
     @InjectMocks
@@ -42,6 +47,8 @@ public class TestProductController {
     private ObjectMapper objectMapper;
     @Mock // Add this line to mock ProductService
     private ProductService productService;
+    @Spy
+    private ProductJsonCache productJsonCache = new ProductJsonCache(new ObjectMapper(), 1_000_000, 1_000_000);
 
     @Before
     public void setUp() {
@@ -50,8 +57,8 @@ public class TestProductController {
 
     }
 
-    ProductDto productdto = ProductDto.builder().product_id(1L).product_name("Apple").price("45").build();
-    Product product = Product.builder().product_id(1L).product_name("Apple").price("45").build();
+    ProductDto productdto = ProductDto.builder().product_id(1L).product_name("Apple").price(new BigDecimal("45")).build();
+    Product product = Product.builder().product_id(1L).product_name("Apple").price(new BigDecimal("45")).build();
 
 //    @Test
 //    @Transactional
@@ -79,7 +86,7 @@ public class TestProductController {
                 .andExpect(status().isCreated())
                 .andExpect(jsonPath("$.product_id").value(1L))
                 .andExpect(jsonPath("$.product_name").value("Apple"))
-                .andExpect(jsonPath("$.price").value("45"));
+                .andExpect(jsonPath("$.price").value(45));
     }
 
     @Test
@@ -97,6 +104,58 @@ public class TestProductController {
                 .andReturn();
     }
 
+    @Test
+    public void test_getProductById_servedFromJsonCache() throws Exception {
+        Mockito.when(productService.getProductById(1L)).thenReturn(productdto);
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(MockMvcRequestBuilders.get("/api/product/1"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(jsonPath("$.product_name", Matchers.is("Apple")));
+        }
+        Mockito.verify(productService, Mockito.times(1)).getProductById(1L);
+
+        productJsonCache.onProductChanged(ProductChangedEvent.deleted(List.of(1L)));
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/product/1"))
+                .andExpect(status().isOk());
+        Mockito.verify(productService, Mockito.times(2)).getProductById(1L);
+    }
+
+    @Test
+    public void test_getProductById_notModified() throws Exception {
+        Mockito.when(productService.getProductVersion(1L)).thenReturn(3L);
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/api/product/1")
+                        .header("If-None-Match", "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(content().string(""));
+        Mockito.verify(productService, Mockito.never()).getProductById(1L);
+    }
+
+    @Test
+    public void test_getProductById_changedSinceETag() throws Exception {
+        ProductDto current = ProductDto.builder().product_id(1L).product_name("Apple").price(new BigDecimal("45")).version(4L).build();
+        Mockito.when(productService.getProductVersion(1L)).thenReturn(4L);
+        Mockito.when(productService.getProductById(1L)).thenReturn(current);
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/api/product/1")
+                        .header("If-None-Match", "\"3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""))
+                .andExpect(jsonPath("$.version", Matchers.is(4)));
+    }
+
+    @Test
+    public void test_getAllProduct_notModified() throws Exception {
+        Mockito.when(productService.getCatalogVersion()).thenReturn("a1-7");
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/api/product/getAll")
+                        .header("If-None-Match", "\"a1-7\""))
+                .andExpect(status().isNotModified());
+        Mockito.verify(productService, Mockito.never()).getAllProduct();
+    }
+
     @Test
     @Transactional
     public void test_getAllProduct() throws JsonProcessingException, Exception {
@@ -115,6 +174,35 @@ public class TestProductController {
                 .andReturn();
     }
 
+    @Test
+    public void test_getAllProduct_encodedOncePerCatalogVersion() throws Exception {
+        Mockito.when(productService.getCatalogVersion()).thenReturn("a1-1", "a1-1", "a1-2");
+        Mockito.when(productService.getAllProduct()).thenReturn(List.of(productdto));
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(MockMvcRequestBuilders.get("/api/product/getAll"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(1)))
+                    .andExpect(jsonPath("$[0].product_name", Matchers.is("Apple")));
+        }
+        // once for a1-1, once more after the catalog version moved to a1-2
+        Mockito.verify(productService, Mockito.times(2)).getAllProduct();
+    }
+
+    @Test
+    public void test_getProductPage() throws Exception {
+        ProductPage productPage = ProductPage.builder().content(List.of(productdto)).next_cursor("MQ").size(1).build();
+        Mockito.when(productService.getProductPage("MA", 1, null, null, null)).thenReturn(productPage);
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get("/api/product/list")
+                        .param("cursor", "MA")
+                        .param("size", "1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].product_id", Matchers.is(1)))
+                .andExpect(jsonPath("$.next_cursor", Matchers.is("MQ")));
+    }
+
     @Test
     @Transactional
     public void test_deleteProductById() throws JsonProcessingException, Exception {
@@ -155,7 +243,7 @@ public class TestProductController {
         Long productId = 2L;
         ProductDto productDto = new ProductDto();
         productDto.setProduct_name("Apple");
-        Mockito.when(productService.partialUpdate(productDto, productId)).thenReturn(productDto);
+        Mockito.when(productService.partialUpdate(productDto, productId, null)).thenReturn(productDto);
         mockMvc.perform(MockMvcRequestBuilders
                         .patch("/api/product/partialUpdate/{id}", productId)
                         .content(objectMapper.writeValueAsString(productDto))
@@ -170,7 +258,7 @@ public class TestProductController {
         Long productId = 1L;
         ProductDto productDto = new ProductDto();
 
-        Mockito.when(productService.partialUpdate(productDto, productId)).thenThrow(new ProductNotFoundException("Product not found"));
+        Mockito.when(productService.partialUpdate(productDto, productId, null)).thenThrow(new ProductNotFoundException("Product not found"));
 
         mockMvc.perform(MockMvcRequestBuilders.patch("/api/product/partialUpdate/{id}", productId)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -186,7 +274,7 @@ public class TestProductController {
         Long productId = 1L;
         ProductDto productDto = new ProductDto();
 
-        Mockito.when(productService.partialUpdate(productDto, productId)).thenThrow(new RuntimeException("Unexpected error"));
+        Mockito.when(productService.partialUpdate(productDto, productId, null)).thenThrow(new RuntimeException("Unexpected error"));
 
         mockMvc.perform(MockMvcRequestBuilders.patch("/api/product/partialUpdate/{id}", productId)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -195,5 +283,46 @@ public class TestProductController {
                 .andExpect(jsonPath("$").value("Unexpected error"));
     }
 
+    @Test
+    public void testPartialUpdate_IfMatchFailed() throws Exception {
+        Long productId = 1L;
+        ProductDto productDto = new ProductDto();
+        productDto.setProduct_name("Apple");
+        Mockito.when(productService.partialUpdate(productDto, productId, 3L))
+                .thenThrow(new ProductVersionConflictException("Product with ID 1 is at version 4, expected version 3", HttpStatus.PRECONDITION_FAILED, 4L));
+
+        mockMvc.perform(MockMvcRequestBuilders.patch("/api/product/partialUpdate/{id}", productId)
+                        .header("If-Match", "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(productDto)))
+                .andExpect(status().isPreconditionFailed());
+    }
 
+    @Test
+    public void testPartialUpdate_returnsNewETag() throws Exception {
+        Long productId = 1L;
+        ProductDto productDto = new ProductDto();
+        productDto.setProduct_name("Apple");
+        ProductDto updated = ProductDto.builder().product_id(1L).product_name("Apple").version(4L).build();
+        Mockito.when(productService.partialUpdate(productDto, productId, 3L)).thenReturn(updated);
+
+        mockMvc.perform(MockMvcRequestBuilders.patch("/api/product/partialUpdate/{id}", productId)
+                        .header("If-Match", "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(productDto)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""));
+    }
+
+    @Test
+    public void test_getProductsByIds() throws Exception {
+        Mockito.when(productService.getProductsByIds(List.of(1L, 7L)))
+                .thenReturn(ProductMultiGet.builder().products(List.of(productdto)).missing(List.of(7L)).build());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/product/batch").param("ids", "1,7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.products", hasSize(1)))
+                .andExpect(jsonPath("$.products[0].product_name").value("Apple"))
+                .andExpect(jsonPath("$.missing[0]").value(7));
+    }
 }
@@ -0,0 +1,89 @@
+package com.ProductModule.controllerTest;
+
+import com.ProductModule.Entity.ProductEvent;
+import com.ProductModule.Repository.ProductEventRepository;
+import com.ProductModule.event.ProductChangedEvent;
+import com.ProductModule.event.ProductEventLog;
+import com.ProductModule.payLoad.ProductChange;
+import com.ProductModule.payLoad.ProductDto;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TestProductEventLog {
+    @Mock
+    public ProductEventRepository productEventRepository;
+    public ProductEventLog productEventLog;
+
+    @Before
+    public void setup() {
+        productEventLog = new ProductEventLog(productEventRepository, Duration.ofDays(7), Duration.ofSeconds(5),
+                Duration.ofMillis(10), Duration.ofMillis(50), 100, 1000);
+    }
+
+    private static ProductEvent event(long eventId, Instant createdAt) {
+        return ProductEvent.builder().event_id(eventId).change_type("UPDATED").product_id(eventId)
+                .product_name("Product " + eventId).price(new BigDecimal("1")).version(1L).created_at(createdAt).build();
+    }
+
+    private static List<Long> offsets(List<ProductChange> changes) {
+        return changes.stream().map(ProductChange::getOffset).collect(Collectors.toList());
+    }
+
+    @Test
+    public void test_read_holdsBackBehindRecentGap() {
+        Instant now = Instant.now();
+        when(productEventRepository.findAfter(4L, PageRequest.of(0, 100)))
+                .thenReturn(List.of(event(5, now), event(6, now), event(8, now), event(9, now)));
+
+        // offset 7 may still be committing, so 8 and 9 wait
+        assertEquals(List.of(5L, 6L), offsets(productEventLog.read(4L, 100)));
+    }
+
+    @Test
+    public void test_read_skipsSettledGap() {
+        Instant old = Instant.now().minusSeconds(60);
+        when(productEventRepository.findAfter(0L, PageRequest.of(0, 100)))
+                .thenReturn(List.of(event(40, old), event(42, old)));
+
+        List<ProductChange> changes = productEventLog.read(0L, 100);
+        assertEquals(List.of(40L, 42L), offsets(changes));
+        assertEquals(new ProductDto(40L, "Product 40", new BigDecimal("1"), 1L), changes.get(0).getProduct());
+    }
+
+    @Test
+    public void test_append_byChangeType() {
+        productEventLog.append(ProductChangedEvent.deleted(List.of(3L)));
+        productEventLog.append(ProductChangedEvent.updated(List.of(ProductDto.builder().product_id(4L).build())));
+
+        verify(productEventRepository).appendDeleted(eq(List.of(3L)), any(Instant.class));
+        verify(productEventRepository).appendCurrentState(eq("UPDATED"), eq(List.of(4L)), any(Instant.class));
+    }
+
+    @Test
+    public void test_follow_deliversUntilTimeout() throws InterruptedException {
+        Instant now = Instant.now();
+        when(productEventRepository.findAfter(anyLong(), any())).thenReturn(List.of());
+        when(productEventRepository.findAfter(0L, PageRequest.of(0, 100))).thenReturn(List.of(event(1, now)));
+
+        List<ProductChange> delivered = new ArrayList<>();
+        long last = productEventLog.follow(0L, 100, delivered::addAll);
+
+        assertEquals(1L, last);
+        assertEquals(List.of(1L), offsets(delivered));
+    }
+}
@@ -0,0 +1,153 @@
+package com.ProductModule.controllerTest;
+
+import com.ProductModule.Repository.ProductRepository;
+import com.ProductModule.cache.ProductCatalogVersion;
+import com.ProductModule.payLoad.ProductDto;
+import com.ProductModule.service.ExportFormat;
+import com.ProductModule.service.ProductExportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TestProductExportService {
+    @Mock
+    public ProductRepository productRepository;
+    @Mock
+    public PlatformTransactionManager transactionManager;
+    public ProductCatalogVersion productCatalogVersion = new ProductCatalogVersion();
+    public ProductExportService productExportService;
+
+    List<ProductDto> products = List.of(
+            new ProductDto(1L, "Apple", new BigDecimal("45.50"), 0L),
+            new ProductDto(2L, "Banane à crème", new BigDecimal("-3"), 2L),
+            new ProductDto(5L, null, null, 1L),
+            new ProductDto(7L, "Cherry", new BigDecimal("99999999999999999.99"), 0L),
+            new ProductDto(9L, "Dates", new BigDecimal("0.01"), 4L));
+
+    @Before
+    public void setup() {
+        // two products per gzip block
+        productExportService = new ProductExportService(productRepository, productCatalogVersion, new ObjectMapper(),
+                transactionManager, 2);
+        when(productRepository.streamAllAsDtoFrom(anyLong())).thenAnswer(invocation -> {
+            long fromId = invocation.getArgument(0);
+            return products.stream().filter(productDto -> productDto.getProduct_id() >= fromId);
+        });
+    }
+
+    private byte[] fullExport(ExportFormat format) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        long length = productExportService.export(format, productCatalogVersion.current(), outputStream);
+        assertEquals(outputStream.size(), length);
+        return outputStream.toByteArray();
+    }
+
+    @Test
+    public void test_ndjsonExport() throws IOException {
+        byte[] export = fullExport(ExportFormat.NDJSON);
+
+        String[] lines = new String(new GZIPInputStream(new ByteArrayInputStream(export)).readAllBytes(), StandardCharsets.UTF_8).split("\n");
+        assertEquals(5, lines.length);
+        assertEquals(products.get(1), new ObjectMapper().readValue(lines[1], ProductDto.class));
+    }
+
+    @Test
+    public void test_binaryExport_decodesColumns() throws IOException {
+        byte[] export = fullExport(ExportFormat.BINARY);
+
+        DataInputStream data = new DataInputStream(new GZIPInputStream(new ByteArrayInputStream(export)));
+        byte[] magic = new byte[4];
+        data.readFully(magic);
+        assertEquals("PRD1", new String(magic, StandardCharsets.US_ASCII));
+        List<ProductDto> decoded = new ArrayList<>();
+        int count;
+        while ((count = readBlockCount(data)) >= 0) {
+            ProductDto[] block = new ProductDto[count];
+            for (int i = 0; i < count; i++) {
+                block[i] = new ProductDto(data.readLong(), null, null, null);
+            }
+            for (int i = 0; i < count; i++) {
+                block[i].setVersion(data.readLong());
+            }
+            for (int i = 0; i < count; i++) {
+                int length = data.readByte();
+                if (length >= 0) {
+                    int scale = data.readByte();
+                    byte[] unscaled = new byte[length];
+                    data.readFully(unscaled);
+                    block[i].setPrice(new BigDecimal(new BigInteger(unscaled), scale));
+                }
+            }
+            for (int i = 0; i < count; i++) {
+                int length = data.readInt();
+                if (length >= 0) {
+                    byte[] name = new byte[length];
+                    data.readFully(name);
+                    block[i].setProduct_name(new String(name, StandardCharsets.UTF_8));
+                }
+            }
+            decoded.addAll(Arrays.asList(block));
+        }
+        assertEquals(products, decoded);
+    }
+
+    private static int readBlockCount(DataInputStream data) throws IOException {
+        try {
+            return data.readInt();
+        } catch (EOFException e) {
+            return -1;
+        }
+    }
+
+    @Test
+    public void test_ranges_matchFullExport() throws IOException {
+        byte[] export = fullExport(ExportFormat.BINARY);
+        ProductExportService.ExportIndex index = productExportService.completedIndex(ExportFormat.BINARY, productCatalogVersion.current());
+        assertNotNull(index);
+        assertEquals(export.length, index.length());
+        assertEquals(3, index.blockOffsets().length);
+
+        long[][] ranges = {{0, 0}, {0, export.length - 1}, {5, 40}, {index.blockOffsets()[1], export.length - 1},
+                {index.blockOffsets()[2] - 1, index.blockOffsets()[2] + 3}, {export.length - 1, export.length - 1}};
+        for (long[] range : ranges) {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            productExportService.exportRange(ExportFormat.BINARY, index, range[0], range[1], outputStream);
+            assertArrayEquals(Arrays.copyOfRange(export, (int) range[0], (int) range[1] + 1), outputStream.toByteArray(),
+                    "bytes " + range[0] + "-" + range[1]);
+        }
+        // the last block is read from its first product on
+        verify(productRepository, atLeastOnce()).streamAllAsDtoFrom(9L);
+    }
+
+    @Test
+    public void test_catalogChangedDuringExport_keepsNoIndex() throws IOException {
+        String before = productCatalogVersion.current();
+        productCatalogVersion.onProductChanged(null);
+
+        productExportService.export(ExportFormat.NDJSON, before, new ByteArrayOutputStream());
+
+        assertNull(productExportService.completedIndex(ExportFormat.NDJSON, before));
+        assertNull(productExportService.completedIndex(ExportFormat.NDJSON, productCatalogVersion.current()));
+    }
+}
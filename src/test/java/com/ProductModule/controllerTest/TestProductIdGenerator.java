@@ -0,0 +1,96 @@
+package com.ProductModule.controllerTest;
+
+import com.ProductModule.service.ProductIdGenerator;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestProductIdGenerator {
+
+    @Test
+    public void test_nextId_isMonotonicWithFrozenClock() {
+        // more ids than the 12 bit sequence holds inside a single millisecond
+        ProductIdGenerator generator = new ProductIdGenerator(3, 0L, () -> 1_000L);
+        long previous = generator.nextId();
+        for (int i = 0; i < 10_000; i++) {
+            long next = generator.nextId();
+            assertTrue(next > previous, "Ids must keep growing when the sequence overflows");
+            previous = next;
+        }
+    }
+
+    @Test
+    public void test_nextId_survivesSmallClockStepBack() {
+        AtomicLong clock = new AtomicLong(5_000L);
+        ProductIdGenerator generator = new ProductIdGenerator(3, 0L, clock::get);
+        long beforeJump = generator.nextId();
+        clock.set(4_997L);
+        assertTrue(generator.nextId() > beforeJump, "A step back within max-drift borrows ahead");
+    }
+
+    @Test
+    public void test_nextId_waitsForClockToCatchUp() {
+        // every reading moves the clock on, so the generator catches up after a few readings
+        AtomicLong clock = new AtomicLong(5_000L);
+        ProductIdGenerator generator = new ProductIdGenerator(3, 0L, () -> clock.getAndAdd(50), 5, 1000);
+        long beforeJump = generator.nextId();
+        clock.set(4_900L);
+        long afterJump = generator.nextId();
+        assertTrue(afterJump > beforeJump);
+        assertTrue((afterJump >>> 22) - clock.get() <= 5, "Ids never run further ahead of the clock than max-drift");
+    }
+
+    @Test
+    public void test_nextId_failsOnLargeClockStepBack() {
+        AtomicLong clock = new AtomicLong(5_000L);
+        ProductIdGenerator generator = new ProductIdGenerator(3, 0L, clock::get, 5, 1000);
+        long beforeJump = generator.nextId();
+        clock.set(1_000L);
+        assertThrows(IllegalStateException.class, generator::nextId);
+
+        clock.set(5_001L);
+        assertTrue(generator.nextId() > beforeJump, "Ids resume once the clock has caught up");
+    }
+
+    @Test
+    public void test_nextId_containsNodeId() {
+        ProductIdGenerator generator = new ProductIdGenerator(ProductIdGenerator.MAX_NODE_ID, 0L, () -> 1_000L);
+        long id = generator.nextId();
+        assertEquals(ProductIdGenerator.MAX_NODE_ID, (id >>> 12) & ProductIdGenerator.MAX_NODE_ID);
+        assertEquals(1_000L, id >>> 22, "Timestamp bits hold milliseconds since the epoch");
+    }
+
+    @Test
+    public void test_nextId_uniqueAcrossThreads() throws Exception {
+        ProductIdGenerator generator = new ProductIdGenerator(7, 0L, System::currentTimeMillis);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int thread = 0; thread < 8; thread++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 50_000; i++) {
+                    ids.add(generator.nextId());
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        assertEquals(400_000, ids.size(), "No id may be handed out twice");
+    }
+
+    @Test
+    public void test_invalidNodeId() {
+        assertThrows(IllegalArgumentException.class, () -> new ProductIdGenerator(1024, 0L, System::currentTimeMillis));
+    }
+}
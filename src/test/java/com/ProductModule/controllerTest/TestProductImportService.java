@@ -0,0 +1,129 @@
+package com.ProductModule.controllerTest;
+
+import com.ProductModule.payLoad.BulkItemResult;
+import com.ProductModule.payLoad.ImportJobStatus;
+import com.ProductModule.payLoad.ProductDto;
+import com.ProductModule.service.ImportFormat;
+import com.ProductModule.service.ProductBulkService;
+import com.ProductModule.service.ProductCsvParser;
+import com.ProductModule.service.ProductImportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TestProductImportService {
+    @Mock
+    public ProductBulkService productBulkService;
+    public ProductImportService productImportService;
+
+    @Before
+    public void setup() {
+        // chunks of 2 lines on 2 workers
+        productImportService = new ProductImportService(productBulkService, new ObjectMapper(), 2, 2, 1, 10,
+                1024 * 1024, Duration.ofHours(1));
+    }
+
+    private void rejectNamesStartingWithBad() {
+        when(productBulkService.createAll(anyList())).thenAnswer(invocation -> {
+            List<ProductDto> productDtos = invocation.getArgument(0);
+            return productDtos.stream()
+                    .map(productDto -> productDto.getProduct_name().startsWith("Bad")
+                            ? BulkItemResult.builder().status(400).error("rejected").build()
+                            : BulkItemResult.builder().status(201).product(productDto).build())
+                    .collect(Collectors.toList());
+        });
+    }
+
+    @After
+    public void tearDown() {
+        productImportService.destroy();
+    }
+
+    private ImportJobStatus importAndWait(String body, ImportFormat format) throws Exception {
+        ImportJobStatus status = productImportService.startImport(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), format);
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (System.nanoTime() < deadline) {
+            status = productImportService.getStatus(status.getJob_id());
+            if (status.getState().equals("COMPLETED") || status.getState().equals("FAILED")) {
+                return status;
+            }
+            Thread.sleep(10);
+        }
+        fail("Import did not finish: " + status);
+        return status;
+    }
+
+    @Test
+    public void test_ndjsonImport_reportsRejectedLines() throws Exception {
+        String body = "{\"product_name\":\"Apple\",\"price\":45}\n"
+                + "{\"product_name\":\"Banana\"\n"
+                + "\n"
+                + "{\"product_name\":\"Bad cherry\",\"price\":9}\n"
+                + "{\"product_name\":\"Orange\",\"price\":89}\n";
+        rejectNamesStartingWithBad();
+
+        ImportJobStatus status = importAndWait(body, ImportFormat.NDJSON);
+
+        assertEquals("COMPLETED", status.getState());
+        assertEquals(4, status.getRecords_read(), "Blank lines are skipped");
+        assertEquals(2, status.getImported());
+        assertEquals(2, status.getFailed());
+        assertEquals(List.of(2, 4), status.getErrors().stream().map(BulkItemResult::getIndex).sorted().collect(Collectors.toList()),
+                "Errors carry the line number of the record");
+        // 4 non-blank lines in chunks of two, one of them unparsable
+        verify(productBulkService, times(3)).createAll(anyList());
+    }
+
+    @Test
+    public void test_csvImport() throws Exception {
+        String body = "product_id,product_name,price\r\n"
+                + "7,\"Apple, green\",45.50\r\n"
+                + ",\"Say \"\"cheese\"\"\",\r\n"
+                + ",Banana,abc\r\n";
+        rejectNamesStartingWithBad();
+
+        ImportJobStatus status = importAndWait(body, ImportFormat.CSV);
+
+        assertEquals("COMPLETED", status.getState());
+        assertEquals(2, status.getImported());
+        assertEquals(1, status.getFailed());
+        assertEquals(4, status.getErrors().get(0).getIndex());
+        assertEquals("Invalid price: abc", status.getErrors().get(0).getError());
+    }
+
+    @Test
+    public void test_csvImport_withoutNameColumn_fails() throws Exception {
+        ImportJobStatus status = importAndWait("id,price\n1,2\n", ImportFormat.CSV);
+
+        assertEquals("FAILED", status.getState());
+        assertTrue(status.getError().contains("product_name"));
+        verifyNoInteractions(productBulkService);
+    }
+
+    @Test
+    public void test_csvParser_quotedFields() {
+        ProductCsvParser parser = new ProductCsvParser("price,Product_Name");
+
+        ProductDto productDto = parser.parse("12.5,\"Apple, \"\"Fuji\"\"\"");
+
+        assertEquals("Apple, \"Fuji\"", productDto.getProduct_name());
+        assertEquals(new BigDecimal("12.5"), productDto.getPrice());
+        assertNull(parser.parse(",").getProduct_name());
+        assertThrows(IllegalArgumentException.class, () -> parser.parse("1,\"open"));
+    }
+}
@@ -0,0 +1,128 @@
+package com.ProductModule.controllerTest;
+
+import com.ProductModule.Exception.InvalidProductDataException;
+import com.ProductModule.Repository.ProductRepository;
+import com.ProductModule.event.ProductChangedEvent;
+import com.ProductModule.mapper.ProductMapper;
+import com.ProductModule.payLoad.ProductDto;
+import com.ProductModule.search.ProductSearchIndex;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.http.HttpStatus;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TestProductSearchIndex {
+    @Mock
+    public ProductRepository productRepository;
+    public ProductSearchIndex productSearchIndex;
+
+    ProductDto apple = product(1L, "Green Apple");
+    ProductDto pineapple = product(2L, "Pineapple Juice");
+    ProductDto appleJuice = product(3L, "Apple Juice");
+
+    @Before
+    public void setup() {
+        productSearchIndex = new ProductSearchIndex(productRepository, new ProductMapper(), true, 20, 100);
+        productSearchIndex.onProductChanged(ProductChangedEvent.created(List.of(apple, pineapple, appleJuice)));
+    }
+
+    @Test
+    public void test_prefix_isCaseInsensitiveAndOrderedByName() {
+        List<ProductDto> results = productSearchIndex.search("APP", "prefix", null);
+        assertEquals(List.of(3L), ids(results));
+    }
+
+    @Test
+    public void test_substring_usesTrigrams() {
+        assertEquals(List.of(1L, 2L, 3L), ids(productSearchIndex.search("apple", "substring", null)));
+        assertEquals(List.of(1L), ids(productSearchIndex.search("n ap", "substring", null)));
+    }
+
+    @Test
+    public void test_substring_rejectsQueriesShorterThanTrigram() {
+        InvalidProductDataException shortQuery = assertThrows(InvalidProductDataException.class,
+                () -> productSearchIndex.search("ui", "substring", null));
+        assertEquals(HttpStatus.BAD_REQUEST, shortQuery.getHttpStatus());
+    }
+
+    @Test
+    public void test_substring_withoutIndexScansInIdOrder() {
+        productSearchIndex = new ProductSearchIndex(productRepository, new ProductMapper(), false, 20, 100);
+        productSearchIndex.onProductChanged(ProductChangedEvent.created(List.of(appleJuice, pineapple, apple)));
+
+        assertEquals(List.of(1L, 2L), ids(productSearchIndex.search("apple", "substring", 2)));
+        assertEquals(List.of(2L, 3L), ids(productSearchIndex.search("uic", "substring", null)));
+    }
+
+    @Test
+    public void test_fullText_matchesAllWords() {
+        assertEquals(List.of(2L, 3L), ids(productSearchIndex.search("juice", null, null)));
+        assertEquals(List.of(3L), ids(productSearchIndex.search("juice apple", "fulltext", null)));
+        assertTrue(productSearchIndex.search("juice banana", "fulltext", null).isEmpty());
+    }
+
+    @Test
+    public void test_limit() {
+        assertEquals(List.of(1L, 2L), ids(productSearchIndex.search("apple", "substring", 2)));
+    }
+
+    @Test
+    public void test_update_reindexesName() {
+        productSearchIndex.onProductChanged(ProductChangedEvent.updated(List.of(product(1L, "Red Cherry"))));
+
+        assertEquals(List.of(3L), ids(productSearchIndex.search("apple", "fulltext", null)));
+        assertEquals(List.of(1L), ids(productSearchIndex.search("cherry", "fulltext", null)));
+        assertTrue(productSearchIndex.search("green", "prefix", null).isEmpty());
+    }
+
+    @Test
+    public void test_delete_removesProduct() {
+        productSearchIndex.onProductChanged(ProductChangedEvent.deleted(List.of(2L)));
+
+        assertEquals(List.of(3L), ids(productSearchIndex.search("juice", "fulltext", null)));
+        assertEquals(2, productSearchIndex.size());
+    }
+
+    @Test
+    public void test_rebuild_keepsNewerWrites() {
+        productSearchIndex = new ProductSearchIndex(productRepository, new ProductMapper(), true, 20, 100);
+        when(productRepository.streamAllAsDto()).thenAnswer(invocation -> {
+            // writes committed while the load is running win over the rows it reads
+            productSearchIndex.onProductChanged(ProductChangedEvent.updated(List.of(product(1L, "Red Cherry"))));
+            productSearchIndex.onProductChanged(ProductChangedEvent.deleted(List.of(2L)));
+            return Stream.of(apple, pineapple, appleJuice);
+        });
+
+        productSearchIndex.rebuild();
+
+        assertEquals(2, productSearchIndex.size());
+        assertEquals(List.of(1L), ids(productSearchIndex.search("cherry", null, null)));
+        assertEquals(List.of(3L), ids(productSearchIndex.search("apple", null, null)));
+    }
+
+    @Test
+    public void test_invalidRequests() {
+        InvalidProductDataException emptyQuery = assertThrows(InvalidProductDataException.class,
+                () -> productSearchIndex.search(" ", null, null));
+        assertEquals(HttpStatus.BAD_REQUEST, emptyQuery.getHttpStatus());
+        assertThrows(InvalidProductDataException.class, () -> productSearchIndex.search("apple", "regex", null));
+    }
+
+    private static ProductDto product(Long id, String name) {
+        return ProductDto.builder().product_id(id).product_name(name).price(BigDecimal.TEN).build();
+    }
+
+    private static List<Long> ids(List<ProductDto> products) {
+        return products.stream().map(ProductDto::getProduct_id).toList();
+    }
+}
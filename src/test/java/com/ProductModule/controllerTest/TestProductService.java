@@ -4,9 +4,24 @@ import com.ProductModule.Entity.Product;
 import com.ProductModule.Exception.InvalidProductDataException;
 import com.ProductModule.Exception.InvalidProductIdException;
 import com.ProductModule.Exception.ProductNotFoundException;
+import com.ProductModule.Exception.ProductVersionConflictException;
 import com.ProductModule.Repository.ProductRepository;
+import com.ProductModule.cache.LocalProductSharedCache;
+import com.ProductModule.cache.ProductBatchLoader;
+import com.ProductModule.cache.ProductCache;
+import com.ProductModule.cache.ProductCatalogVersion;
+import com.ProductModule.cache.ProductSnapshot;
+import com.ProductModule.event.ProductChangedEvent;
+import com.ProductModule.mapper.ProductMapper;
+import com.ProductModule.metrics.ProductMetrics;
+import com.ProductModule.payLoad.ProductChanges;
 import com.ProductModule.payLoad.ProductDto;
+import com.ProductModule.payLoad.ProductMultiGet;
+import com.ProductModule.payLoad.ProductPage;
+import com.ProductModule.service.ProductCursor;
+import com.ProductModule.service.ProductIdGenerator;
 import com.ProductModule.service.ProductService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.transaction.Transactional;
 import org.junit.Before;
 import org.junit.Test;
@@ -16,19 +31,26 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
-import org.modelmapper.ModelMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @RunWith(MockitoJUnitRunner.class)
 public class TestProductService {
@@ -39,35 +61,54 @@ public class TestProductService {
     @Spy
     public ProductService productService;
     public MockMvc mockMvc;
+    @Spy
+    public ProductMapper productMapper = new ProductMapper();
+    @Spy
+    public ProductCache productCache = new ProductCache(new ProductMapper(),
+            new LocalProductSharedCache(new ProductMapper(), 100, Duration.ofMinutes(1), Duration.ofSeconds(5)),
+            event -> { }, 100, Duration.ofMinutes(1));
     @Mock
-    public ModelMapper modelMapper;
+    public ApplicationEventPublisher eventPublisher;
+    @Spy
+    public ProductIdGenerator productIdGenerator = new ProductIdGenerator(1, 0L, System::currentTimeMillis);
+    @Spy
+    public ProductMetrics productMetrics = new ProductMetrics(new SimpleMeterRegistry());
+    @Spy
+    public ProductCatalogVersion productCatalogVersion = new ProductCatalogVersion();
+    @Mock
+    public ProductSnapshot productSnapshot;
+    @Spy
+    public ProductBatchLoader productBatchLoader = new ProductBatchLoader(true, Duration.ofMillis(2), 100);
 
     @Before
     public void setup() {
         logger.info("Setting up test environment");
         this.mockMvc = MockMvcBuilders.standaloneSetup(productService).build();
+        ReflectionTestUtils.setField(productService, "defaultPageSize", 100);
+        ReflectionTestUtils.setField(productService, "maxPageSize", 1000);
+        ReflectionTestUtils.setField(productService, "changesSettleTime", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(productService, "multiGetMaxIds", 5);
+        ReflectionTestUtils.setField(productService, "multiGetChunkSize", 2);
     }
 
-    ProductDto productdto = ProductDto.builder().product_id(1L).product_name("Apple").price("45").build();
-    Product product = Product.builder().product_id(1L).product_name("Apple").price("45").build();
+    ProductDto productdto = ProductDto.builder().product_id(1L).product_name("Apple").price(new BigDecimal("45")).build();
+    Product product = Product.builder().product_id(1L).product_name("Apple").price(new BigDecimal("45")).build();
 
     @Test
     @Transactional
     public void test_adduser() {
         logger.info("Starting test for adding a user product");
 
-        Mockito.when(modelMapper.map(productdto, Product.class)).thenReturn(product);
-        Mockito.when(productRepository.save(product)).thenReturn(product);
-        Mockito.when(modelMapper.map(product, ProductDto.class)).thenReturn(productdto);
+        Mockito.when(productRepository.save(any(Product.class))).thenReturn(product);
 
         ProductDto result = productService.createProduct(productdto);
         logger.info("Product creation returned: {}", result);
 
         assertNotNull(result, "The returned ProductDto should not be null");
         assertEquals(result.getProduct_id(), productdto.getProduct_id());
-        verify(modelMapper).map(productdto, Product.class);
-        verify(productRepository).save(product);
-        verify(modelMapper).map(product, ProductDto.class);
+        verify(productMapper).toEntity(productdto);
+        verify(productRepository).save(any(Product.class));
+        verify(productMapper).toDto(product);
         assertEquals(productdto, result, "The returned ProductDto should match the expected one");
         logger.info("Test for adding a user product completed successfully");
 
@@ -78,27 +119,41 @@ public class TestProductService {
     public void test_getProductById() throws ProductNotFoundException, InvalidProductIdException {
         logger.info("Starting test getting user product by id");
         Mockito.when(productRepository.findById(product.getProduct_id())).thenReturn(Optional.ofNullable(product));
-        Mockito.when(modelMapper.map(product, ProductDto.class)).thenReturn(productdto);
 
         ProductDto result = productService.getProductById(product.getProduct_id());
         logger.info("");
         assertNotNull(result, "Product result can't be null");
         assertEquals(product.getProduct_name(), result.getProduct_name(), "product name should be same");
-        verify(modelMapper).map(product, ProductDto.class);
+        verify(productMapper).toDto(product);
         verify(productRepository).findById(product.getProduct_id());
     }
 
+    @Test
+    public void test_getProductById_fromSnapshot() throws ProductNotFoundException, InvalidProductIdException {
+        when(productSnapshot.isServing()).thenReturn(true);
+        when(productSnapshot.get(1L)).thenReturn(productdto);
+        assertEquals(productdto, productService.getProductById(1L));
+        verify(productRepository, never()).findById(any());
+    }
+
+    @Test
+    public void test_getProductById_snapshotMiss_readsDatabase() throws ProductNotFoundException, InvalidProductIdException {
+        when(productSnapshot.isServing()).thenReturn(true);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        assertEquals("Apple", productService.getProductById(1L).getProduct_name());
+        verify(productSnapshot).get(1L);
+    }
+
     @Test
     @Transactional
     public void test_convertToEntity() {
         logger.info("Starting test convert  ProductDto to Product");
-        Mockito.when(modelMapper.map(productdto, Product.class)).thenReturn(product);
         Product actualProduct = productService.convertToEntity(productdto);
         logger.info("converting ProductDto is successful");
         assertNotNull(actualProduct, "Product result can't be null");
         assertEquals(product.getProduct_id(), actualProduct.getProduct_id(), "The returned Product ID should match the expected one");
         assertEquals(product.getProduct_name(), actualProduct.getProduct_name(), "The returned Product name should match the expected one");
-        verify(modelMapper).map(productdto, Product.class);
+        verify(productMapper).toEntity(productdto);
         verify(productService, times(1)).convertToEntity(productdto);
     }
 
@@ -118,43 +173,51 @@ public class TestProductService {
         Product product2 = new Product();
         product2.setProduct_id(2L);
         product2.setProduct_name("Banana");
-        product2.setPrice("30");
+        product2.setPrice(new BigDecimal("30"));
 
         ProductDto productDto2 = new ProductDto();
         productDto2.setProduct_id(2L);
         productDto2.setProduct_name("Banana");
-        productDto2.setPrice("30");
+        productDto2.setPrice(new BigDecimal("30"));
         List<Product> productList = List.of(product, product2);
         List<ProductDto> productDtoList = List.of(productdto, productDto2);
 
         Mockito.when(productRepository.findAll()).thenReturn(productList);
-        for (int i = 0; i < productList.size(); i++) {
-            when(modelMapper.map(productList.get(i), ProductDto.class)).thenReturn(productDtoList.get(i));
-        }
         List<ProductDto> actualProductlist = productService.getAllProduct();
         assertEquals(productdto.product_id, actualProductlist.get(0).product_id, "The return Product Id should match to expected one ");
+        assertEquals(productDtoList, actualProductlist, "Every product should be mapped in order");
+        verify(productMapper).toDtoList(productList);
         verify(productService).getAllProduct();//by using spy we can check this method was called or not
     }
 
+    @Test
+    public void test_getAllProducts_fromSnapshot() {
+        when(productSnapshot.isServing()).thenReturn(true);
+        when(productSnapshot.getAll()).thenReturn(List.of(productdto));
+        assertEquals(List.of(productdto), productService.getAllProduct());
+        verify(productRepository, never()).findAll();
+    }
+
     @Test
     @Transactional
     public void test_deleteById() throws ProductNotFoundException {
         logger.info("Starting test for deleting product by using Product ID");
-        Mockito.when(productRepository.existsById(productdto.getProduct_id())).thenReturn(true);
+        Mockito.when(productRepository.deleteProduct(productdto.getProduct_id())).thenReturn(1);
         productService.deleteById(productdto.getProduct_id());
         logger.info("Product is successfully deleted by using Product Id");
-        verify(productRepository).deleteById(productdto.getProduct_id());
+        verify(productRepository).deleteProduct(productdto.getProduct_id());
+        verify(productRepository, never()).existsById(any());
     }
 
     @Test
     @Transactional
     public void test_deleteById_IfProduct_not_Exits() throws ProductNotFoundException {
         logger.info("Starting test for deleting product by using Product ID");
-        Mockito.when(productRepository.existsById(productdto.getProduct_id())).thenReturn(false);
+        Mockito.when(productRepository.deleteProduct(productdto.getProduct_id())).thenReturn(0);
         ProductNotFoundException productNotFoundException = assertThrows(ProductNotFoundException.class, () -> productService.deleteById(productdto.getProduct_id()));
         assertEquals("Product with ID " + productdto.getProduct_id() + " not found.", productNotFoundException.getMessage());
-        // Verify deleteById was never called because the product doesn't exist
-        verify(productRepository, Mockito.never()).deleteById(productdto.getProduct_id());
+        // No change event for a product that doesn't exist
+        verify(eventPublisher, Mockito.never()).publishEvent(any(ProductChangedEvent.class));
     }
 
     @Test
@@ -181,7 +244,7 @@ public class TestProductService {
         InvalidProductIdException invalidProductIdException = assertThrows(InvalidProductIdException.class, () -> productService.updateRecord(productdto, 3L));
         assertEquals("Product with ID 3 not found.", invalidProductIdException.getMessage());
         assertEquals(HttpStatus.NOT_FOUND, invalidProductIdException.getHttpStatus());
-        verify(productRepository).existsById(3L);
+        verify(productRepository).updateProduct(3L, "Apple", new BigDecimal("45"));
         verify(productRepository, Mockito.never()).save(any(Product.class));
     }
 
@@ -189,18 +252,19 @@ public class TestProductService {
     @Transactional
     public void test_updateRecord() throws InvalidProductIdException {
         logger.info("Starting  test for Update");
-        Mockito.when(productRepository.existsById(1l)).thenReturn(true);
-        Mockito.when(modelMapper.map(productdto, Product.class)).thenReturn(product);
-        Mockito.when(productRepository.save(product)).thenReturn(product); // Mock repository save behavior
-        Mockito.when(modelMapper.map(product, ProductDto.class)).thenReturn(productdto);
+        Mockito.when(productRepository.updateProduct(1l, "Apple", new BigDecimal("45"))).thenReturn(1); // one row updated
         ProductDto updateProduct = productService.updateRecord(productdto, 1l);
         assertEquals(updateProduct.getProduct_id(), productdto.getProduct_id());
         logger.info("Product  is updated");
         assertNotNull(updateProduct, "Update project can't be null");
-        verify(productRepository).existsById(1l);
-        verify(modelMapper).map(productdto, Product.class);
-        verify(productRepository).save(product);
-        verify(modelMapper).map(product, ProductDto.class);
+        verify(productRepository).updateProduct(1l, "Apple", new BigDecimal("45"));
+        verify(productMapper).toEntity(productdto);
+        verify(productMapper).toDto(product);
+        // single statement: the row is neither checked nor read before the update
+        verify(productRepository, never()).existsById(any());
+        verify(productRepository, never()).findById(any());
+        verify(productRepository, never()).findVersionById(any());
+        verify(productRepository, never()).save(any(Product.class));
 
     }
 
@@ -251,21 +315,16 @@ public class TestProductService {
         Product product = Product.builder()
                 .product_id(1L)
                 .product_name("Banana")
-                .price("30")
+                .price(new BigDecimal("30"))
                 .build();
         ProductDto productdto = ProductDto.builder()
                 .product_id(1L)
                 .product_name("Orange")
-                .price("89")
+                .price(new BigDecimal("89"))
                 .build();
 
         Long productId = 1L;
-        Mockito.when(productRepository.existsById(productId)).thenReturn(true); //You Can use This also by mocking This id is present
-//        Mockito.when(modelMapper.map(productdto, Product.class)).thenReturn(product);
-        Mockito.when(productRepository.findById(productdto.product_id)).thenReturn(Optional.ofNullable(product));
         when(productRepository.findById(productId)).thenReturn(Optional.of(product)); // Mock repository fetch
-        when(productRepository.save(product)).thenReturn(product); // Mock save operation
-        when(modelMapper.map(product, ProductDto.class)).thenReturn(productdto); // Convert back to dto
         ProductDto updatedProduct = productService.partialUpdate(productdto, productId);
         assertEquals(productdto.getProduct_name(), updatedProduct.getProduct_name(), "Product name Should be same");
         assertEquals(productdto.getPrice(), updatedProduct.getPrice(), "Product price Should be same");
@@ -283,60 +342,27 @@ public class TestProductService {
         Product existingProduct = Product.builder()
                 .product_id(1L)
                 .product_name("Banana")
-                .price("30")
+                .price(new BigDecimal("30"))
                 .build();
-        // Prepare DTO with partial updates
-        ProductDto newProductDto = ProductDto.builder()
-                .product_id(1L)
-                .product_name("Orange") // New name
-                .price("30")
-                .build();
-
         Long productId = 1L;
-        Product updatedProduct = new Product();
-        // Mock repository behavior
-        when(productRepository.existsById(productId)).thenReturn(true);
+        // Mock repository behavior: the managed entity is changed in place, no save needed
         when(productRepository.findById(productId)).thenReturn(Optional.of(existingProduct));
 
-        // Mock the save method to return the updated product (reflecting the partial updates)
-        when(productRepository.save(any(Product.class))).thenAnswer(invocation -> {
-             // Create a new product instance for the update
-            // Set the updated fields from productDto or keep the existing ones
-            if (productDto.getProduct_name() != null) {
-                updatedProduct.setProduct_name(productDto.getProduct_name());  // Update the name if present in the dto
-            } else {
-                updatedProduct.setProduct_name(existingProduct.getProduct_name());  // Otherwise, keep the existing one
-            }
-
-            if (productDto.getPrice() != null) {
-                updatedProduct.setPrice(productDto.getPrice());  // Update the price if present in the dto
-            } else {
-                updatedProduct.setPrice(existingProduct.getPrice());  // Otherwise, keep the existing one
-            }
-
-            // Set product_id and other relevant fields
-            updatedProduct.setProduct_id(existingProduct.getProduct_id());
-            // Optionally set other fields here (if any)
-            return updatedProduct;  // Return the updated product entity
-        });
-
-        // Mock modelMapper to return the ProductDto
-        when(modelMapper.map(updatedProduct,ProductDto.class)).thenReturn(newProductDto);
-
         // Call the service method
         ProductDto updatedProductDto = productService.partialUpdate(productDto, productId);
 
         // Assertions
         assertEquals("Orange", updatedProductDto.getProduct_name(), "Product name should be updated");
-        assertEquals("30", updatedProductDto.getPrice(), "Product price should remain the same");
+        assertEquals(new BigDecimal("30"), updatedProductDto.getPrice(), "Product price should remain the same");
+        assertEquals("Orange", existingProduct.getProduct_name(), "Managed entity carries the change for dirty checking");
 
         // Verify that the repository methods were called correctly
-        verify(productRepository).existsById(productId);
         verify(productRepository).findById(productId);
-        verify(productRepository).save(any(Product.class)); // Verify save is called with the updated product
+        verify(productRepository, never()).existsById(productId);
+        verify(productRepository, never()).save(any(Product.class));
 
         // Verify that the product's price has not been updated (still "30")
-        assertEquals("30", existingProduct.getPrice(), "Price should remain unchanged");
+        assertEquals(new BigDecimal("30"), existingProduct.getPrice(), "Price should remain unchanged");
     }
     @Test
     public void testProductNotFoundById() {
@@ -353,4 +379,279 @@ public class TestProductService {
         assertEquals("Product is not Found with productId:"+productId, exception.getMessage());
     }
 
-}
\ No newline at end of file
+    @Test
+    public void test_getProductPage_hasNextPage() {
+        logger.info("Starting test for keyset page with a following page");
+        Product product2 = Product.builder().product_id(2L).product_name("Banana").price(new BigDecimal("30")).build();
+        ProductDto productDto2 = ProductDto.builder().product_id(2L).product_name("Banana").price(new BigDecimal("30")).build();
+        when(productRepository.findPageAfter(Long.MIN_VALUE, PageRequest.of(0, 2))).thenReturn(List.of(product, product2));
+
+        ProductPage page = productService.getProductPage(null, 1);
+
+        assertEquals(1, page.getSize(), "Page should be cut to the requested size");
+        assertEquals(productdto, page.getContent().get(0));
+        assertEquals(1L, ProductCursor.decode(page.getNext_cursor()), "Cursor should point at the last returned id");
+        verify(productMapper, never()).toDto(product2);
+    }
+
+    @Test
+    public void test_getProductPage_lastPage() {
+        logger.info("Starting test for the last keyset page");
+        when(productRepository.findPageAfter(1L, PageRequest.of(0, 101))).thenReturn(List.of());
+
+        ProductPage page = productService.getProductPage(ProductCursor.encode(1L), null);
+
+        assertEquals(0, page.getSize());
+        assertNull(page.getNext_cursor(), "Last page must not return a cursor");
+    }
+
+    @Test
+    public void test_getProductPage_invalidCursor() {
+        InvalidProductDataException exception = assertThrows(InvalidProductDataException.class,
+                () -> productService.getProductPage("not-a-cursor", 10));
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getHttpStatus());
+        verify(productRepository, never()).findPageAfter(any(), any());
+    }
+
+    @Test
+    public void test_getProductPage_byPriceAscending() {
+        logger.info("Starting test for a price ordered page");
+        Product product2 = Product.builder().product_id(2L).product_name("Banana").price(new BigDecimal("50")).build();
+        when(productRepository.findPageByPriceAsc(new BigDecimal("40"), new BigDecimal("99999999999999999.99"),
+                new BigDecimal("40"), Long.MIN_VALUE, PageRequest.of(0, 2))).thenReturn(List.of(product, product2));
+
+        ProductPage page = productService.getProductPage(null, 1, new BigDecimal("40"), null, "price");
+
+        assertEquals(productdto, page.getContent().get(0));
+        ProductCursor.PriceKey next = ProductCursor.decodePriceKey(page.getNext_cursor());
+        assertEquals(new BigDecimal("45"), next.price());
+        assertEquals(1L, next.productId());
+    }
+
+    @Test
+    public void test_getProductPage_invalidPriceRange() {
+        InvalidProductDataException exception = assertThrows(InvalidProductDataException.class,
+                () -> productService.getProductPage(null, 10, new BigDecimal("50"), new BigDecimal("10"), "price"));
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getHttpStatus());
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    public void test_getProductVersion_withoutLoadingProduct() throws ProductNotFoundException {
+        when(productRepository.findVersionById(1L)).thenReturn(Optional.of(5L));
+
+        assertEquals(5L, productService.getProductVersion(1L));
+        verify(productRepository, never()).findById(any());
+    }
+
+    @Test
+    public void test_getProductVersion_fromCache() throws ProductNotFoundException, InvalidProductIdException {
+        product.setVersion(2L);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        productService.getProductById(1L);
+
+        assertEquals(2L, productService.getProductVersion(1L));
+        verify(productRepository, never()).findVersionById(any());
+    }
+
+    @Test
+    public void test_getProductVersion_notFound() {
+        when(productRepository.findVersionById(99L)).thenReturn(Optional.empty());
+        assertThrows(ProductNotFoundException.class, () -> productService.getProductVersion(99L));
+    }
+
+    @Test
+    public void test_catalogVersion_changesOnWrite() {
+        String before = productService.getCatalogVersion();
+        productCatalogVersion.onProductChanged(ProductChangedEvent.deleted(List.of(1L)));
+        assertNotEquals(before, productService.getCatalogVersion());
+    }
+
+    @Test
+    public void test_getProductById_servedFromCache() throws ProductNotFoundException, InvalidProductIdException {
+        logger.info("Starting test for cached product lookup");
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+
+        ProductDto first = productService.getProductById(1L);
+        first.setProduct_name("changed by caller");
+        ProductDto second = productService.getProductById(1L);
+
+        assertEquals("Apple", second.getProduct_name(), "Cached entry must not be affected by callers");
+        verify(productRepository, times(1)).findById(1L);
+        assertEquals(1, productService.getCacheStats().getHit_count());
+        assertEquals(1, productService.getCacheStats().getMiss_count());
+    }
+
+    @Test
+    public void test_getProductById_reloadedAfterWrite() throws ProductNotFoundException, InvalidProductIdException {
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        productService.getProductById(1L);
+
+        productCache.onProductChanged(ProductChangedEvent.deleted(List.of(1L)));
+        productService.getProductById(1L);
+
+        verify(productRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    public void test_deleteById_publishesChange() throws ProductNotFoundException {
+        when(productRepository.deleteProduct(1L)).thenReturn(1);
+        productService.deleteById(1L);
+        verify(eventPublisher).publishEvent(any(ProductChangedEvent.class));
+    }
+
+    @Test
+    public void test_partialUpdate_cannotChangeProductId() {
+        ProductDto productDto = ProductDto.builder().product_id(5L).product_name("Orange").build();
+        InvalidProductDataException exception = assertThrows(InvalidProductDataException.class,
+                () -> productService.partialUpdate(productDto, 1L));
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getHttpStatus());
+        verify(productRepository, never()).findById(any());
+    }
+
+    @Test
+    public void test_updateRecord_ifMatch() throws InvalidProductIdException {
+        when(productRepository.updateProductIfVersion(1L, "Apple", new BigDecimal("45"), 3L)).thenReturn(1);
+        ProductDto updated = productService.updateRecord(productdto, 1L, 3L);
+        assertEquals(4L, updated.getVersion());
+        verify(productRepository, never()).updateProduct(any(), any(), any());
+        verify(productRepository, never()).findVersionById(any());
+    }
+
+    @Test
+    public void test_updateRecord_ifMatchFailed() {
+        when(productRepository.updateProductIfVersion(1L, "Apple", new BigDecimal("45"), 3L)).thenReturn(0);
+        when(productRepository.findVersionById(1L)).thenReturn(Optional.of(4L));
+        ProductVersionConflictException exception = assertThrows(ProductVersionConflictException.class,
+                () -> productService.updateRecord(productdto, 1L, 3L));
+        assertEquals(HttpStatus.PRECONDITION_FAILED, exception.getHttpStatus());
+        assertEquals(4L, exception.getCurrentVersion());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    public void test_updateRecord_staleBodyVersion_notFound() {
+        ProductDto stale = ProductDto.builder().product_name("Apple").price(new BigDecimal("45")).version(3L).build();
+        when(productRepository.updateProductIfVersion(1L, "Apple", new BigDecimal("45"), 3L)).thenReturn(0);
+        when(productRepository.findVersionById(1L)).thenReturn(Optional.empty());
+        InvalidProductIdException exception = assertThrows(InvalidProductIdException.class,
+                () -> productService.updateRecord(stale, 1L, null));
+        assertEquals(HttpStatus.NOT_FOUND, exception.getHttpStatus());
+    }
+
+    @Test
+    public void test_partialUpdate_staleBodyVersion() {
+        ProductDto patch = ProductDto.builder().product_name("Orange").version(3L).build();
+        Product existing = Product.builder().product_id(1L).product_name("Apple").price(new BigDecimal("45")).version(4L).build();
+        when(productRepository.findById(1L)).thenReturn(Optional.of(existing));
+        ProductVersionConflictException exception = assertThrows(ProductVersionConflictException.class,
+                () -> productService.partialUpdate(patch, 1L, null));
+        assertEquals(HttpStatus.CONFLICT, exception.getHttpStatus());
+        assertEquals("Apple", existing.getProduct_name());
+        verify(productRepository, never()).flush();
+    }
+
+    @Test
+    public void test_partialUpdate_ifMatch_concurrentWrite() {
+        ProductDto patch = ProductDto.builder().product_name("Orange").build();
+        Product existing = Product.builder().product_id(1L).product_name("Apple").price(new BigDecimal("45")).version(3L).build();
+        when(productRepository.findById(1L)).thenReturn(Optional.of(existing));
+        doThrow(new ObjectOptimisticLockingFailureException(Product.class, 1L)).when(productRepository).flush();
+        ProductVersionConflictException exception = assertThrows(ProductVersionConflictException.class,
+                () -> productService.partialUpdate(patch, 1L, 3L));
+        assertEquals(HttpStatus.PRECONDITION_FAILED, exception.getHttpStatus());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    public void test_partialUpdate_concurrentWrite_isRetryable() {
+        ProductDto patch = ProductDto.builder().product_name("Orange").build();
+        Product existing = Product.builder().product_id(1L).product_name("Apple").price(new BigDecimal("45")).version(3L).build();
+        when(productRepository.findById(1L)).thenReturn(Optional.of(existing));
+        doThrow(new ObjectOptimisticLockingFailureException(Product.class, 1L)).when(productRepository).flush();
+        // without a precondition the failure propagates unchanged so @Retryable re-runs the patch
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> productService.partialUpdate(patch, 1L, null));
+    }
+
+    @Test
+    public void test_getChangesSince_splitsTombstones() {
+        Instant modified = Instant.parse("2026-01-01T10:00:00Z");
+        Product apple = new Product(1L, "Apple", new BigDecimal("45"), 2L, modified, false);
+        Product removed = new Product(2L, "Banana", new BigDecimal("30"), 1L, modified, true);
+        Product cherry = new Product(3L, "Cherry", new BigDecimal("9"), 0L, modified.plusMillis(1), false);
+        when(productRepository.findModifiedAfter(eq(Instant.EPOCH), eq(Long.MIN_VALUE), any(), eq(PageRequest.of(0, 3))))
+                .thenReturn(List.of(apple, removed, cherry));
+
+        ProductChanges changes = productService.getChangesSince(null, 2);
+
+        assertEquals(List.of(new ProductDto(1L, "Apple", new BigDecimal("45"), 2L)), changes.getChanged());
+        assertEquals(List.of(2L), changes.getDeleted());
+        assertTrue(changes.isHas_more());
+        assertEquals(new ProductCursor.ChangeKey(modified, 2L), ProductCursor.decodeChangeKey(changes.getNext_since()));
+    }
+
+    @Test
+    public void test_getChangesSince_caughtUp_movesToSettleHorizon() {
+        String since = ProductCursor.encode(Instant.parse("2026-01-01T10:00:00Z"), 7L);
+        when(productRepository.findModifiedAfter(eq(Instant.parse("2026-01-01T10:00:00Z")), eq(7L), any(), any()))
+                .thenReturn(List.of());
+        Instant before = Instant.now().minusSeconds(5);
+
+        ProductChanges changes = productService.getChangesSince(since, null);
+
+        assertTrue(changes.getChanged().isEmpty());
+        assertFalse(changes.isHas_more());
+        ProductCursor.ChangeKey next = ProductCursor.decodeChangeKey(changes.getNext_since());
+        assertFalse(next.lastModified().isBefore(before), "Writes younger than the settle time stay ahead of the watermark");
+        assertEquals(Long.MAX_VALUE, next.productId());
+    }
+
+    @Test
+    public void test_getChangesSince_invalidWatermark() {
+        InvalidProductDataException exception = assertThrows(InvalidProductDataException.class,
+                () -> productService.getChangesSince("not a watermark", null));
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getHttpStatus());
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    public void test_getProductsByIds_chunksMissesAndCachesThem() throws InvalidProductIdException {
+        ProductDto apple = new ProductDto(1L, "Apple", new BigDecimal("45"), 0L);
+        ProductDto cherry = new ProductDto(3L, "Cherry", new BigDecimal("9"), 2L);
+        when(productRepository.findAllAsDtoByIdIn(anyList())).thenAnswer(invocation -> {
+            List<Long> chunk = invocation.getArgument(0);
+            return Stream.of(apple, cherry).filter(productDto -> chunk.contains(productDto.getProduct_id())).toList();
+        });
+
+        ProductMultiGet result = productService.getProductsByIds(List.of(3L, 1L, 3L, 99L));
+
+        assertEquals(List.of(cherry, apple), result.getProducts(), "Request order, duplicates resolved once");
+        assertEquals(List.of(99L), result.getMissing());
+        // three distinct ids in IN queries of at most two
+        verify(productRepository, times(2)).findAllAsDtoByIdIn(anyList());
+
+        result = productService.getProductsByIds(List.of(1L, 3L));
+        assertEquals(List.of(apple, cherry), result.getProducts());
+        verifyNoMoreInteractions(productRepository);
+    }
+
+    @Test
+    public void test_getProductsByIds_snapshotHitsSkipTheDatabase() throws InvalidProductIdException {
+        ProductDto apple = new ProductDto(1L, "Apple", new BigDecimal("45"), 0L);
+        when(productSnapshot.isServing()).thenReturn(true);
+        when(productSnapshot.get(1L)).thenReturn(apple);
+
+        ProductMultiGet result = productService.getProductsByIds(List.of(1L));
+
+        assertEquals(List.of(apple), result.getProducts());
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    public void test_getProductsByIds_tooManyIds() {
+        InvalidProductIdException exception = assertThrows(InvalidProductIdException.class,
+                () -> productService.getProductsByIds(List.of(1L, 2L, 3L, 4L, 5L, 6L)));
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getHttpStatus());
+        assertThrows(InvalidProductIdException.class, () -> productService.getProductsByIds(List.of(-1L)));
+    }
+}
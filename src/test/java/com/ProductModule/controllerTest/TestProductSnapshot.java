@@ -0,0 +1,128 @@
+package com.ProductModule.controllerTest;
+
+import com.ProductModule.Repository.ProductRepository;
+import com.ProductModule.cache.ProductSnapshot;
+import com.ProductModule.event.ProductChangedEvent;
+import com.ProductModule.mapper.ProductMapper;
+import com.ProductModule.payLoad.ProductDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TestProductSnapshot {
+    @Mock
+    public ProductRepository productRepository;
+
+    ProductDto apple = new ProductDto(1L, "Apple", new BigDecimal("45.50"), 0L);
+    ProductDto banana = new ProductDto(2L, "Banane à crème", new BigDecimal("30"), 3L);
+    ProductDto unnamed = new ProductDto(5L, null, null, 1L);
+
+    private ProductSnapshot loaded(int compactThreshold, ProductDto... products) {
+        ProductSnapshot productSnapshot = new ProductSnapshot(productRepository, new ProductMapper(), true, compactThreshold);
+        when(productRepository.streamAllAsDto()).thenReturn(Stream.of(products));
+        productSnapshot.load();
+        return productSnapshot;
+    }
+
+    @Test
+    public void test_load_servesPackedProducts() {
+        ProductSnapshot productSnapshot = loaded(100, apple, banana, unnamed);
+
+        assertTrue(productSnapshot.isServing());
+        assertEquals(apple, productSnapshot.get(1L));
+        assertEquals(banana, productSnapshot.get(2L), "Non-ASCII names survive the UTF-8 round trip");
+        assertEquals(unnamed, productSnapshot.get(5L));
+        assertNull(productSnapshot.get(3L));
+        assertEquals(3L, productSnapshot.version(2L));
+        assertEquals(List.of(apple, banana, unnamed), productSnapshot.getAll());
+    }
+
+    @Test
+    public void test_load_manyProducts() {
+        ProductDto[] products = LongStream.rangeClosed(1, 50_000)
+                .mapToObj(id -> new ProductDto(id * 7, "Product " + id, BigDecimal.valueOf(id, 2), id))
+                .toArray(ProductDto[]::new);
+        ProductSnapshot productSnapshot = loaded(100, products);
+
+        assertEquals(products[12_345], productSnapshot.get(products[12_345].getProduct_id()));
+        assertNull(productSnapshot.get(8L));
+        assertEquals(50_000, productSnapshot.getAll().size());
+    }
+
+    @Test
+    public void test_disabled_neverLoads() {
+        ProductSnapshot productSnapshot = new ProductSnapshot(productRepository, new ProductMapper(), false, 100);
+        productSnapshot.load();
+        productSnapshot.onProductChanged(ProductChangedEvent.deleted(List.of(1L)));
+
+        assertFalse(productSnapshot.isServing());
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    public void test_writes_areReadBackAndOverlaid() {
+        ProductSnapshot productSnapshot = loaded(100, apple, banana);
+        ProductDto renamed = new ProductDto(1L, "Green Apple", new BigDecimal("45.50"), 1L);
+        ProductDto created = new ProductDto(4L, "Cherry", new BigDecimal("9"), 0L);
+        when(productRepository.findAllAsDtoByIdIn(List.of(1L))).thenReturn(List.of(renamed));
+        when(productRepository.findAllAsDtoByIdIn(List.of(4L))).thenReturn(List.of(created));
+
+        // the PUT event does not know the stored version
+        productSnapshot.onProductChanged(ProductChangedEvent.updated(List.of(new ProductDto(1L, "Green Apple", new BigDecimal("45.50"), null))));
+        productSnapshot.onProductChanged(ProductChangedEvent.created(List.of(created)));
+        productSnapshot.onProductChanged(ProductChangedEvent.deleted(List.of(2L)));
+
+        assertEquals(renamed, productSnapshot.get(1L));
+        assertEquals(1L, productSnapshot.version(1L));
+        assertNull(productSnapshot.get(2L));
+        assertEquals(List.of(1L, 4L), productSnapshot.getAll().stream().map(ProductDto::getProduct_id).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void test_staleReadBack_isIgnored() {
+        ProductSnapshot productSnapshot = loaded(100, banana);
+        when(productRepository.findAllAsDtoByIdIn(List.of(2L))).thenReturn(List.of(new ProductDto(2L, "Old", new BigDecimal("1"), 2L)));
+
+        productSnapshot.onProductChanged(ProductChangedEvent.updated(List.of(banana)));
+
+        assertEquals(banana, productSnapshot.get(2L));
+    }
+
+    @Test
+    public void test_compaction_packsOverlay() {
+        ProductSnapshot productSnapshot = loaded(2, apple, banana);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        productSnapshot.bindTo(registry);
+        ProductDto created = new ProductDto(3L, "Cherry", new BigDecimal("9"), 0L);
+        when(productRepository.findAllAsDtoByIdIn(List.of(3L))).thenReturn(List.of(created));
+
+        productSnapshot.onProductChanged(ProductChangedEvent.deleted(List.of(1L)));
+        assertEquals(1, registry.get("product.snapshot.overlay").gauge().value());
+        productSnapshot.onProductChanged(ProductChangedEvent.created(List.of(created)));
+
+        assertEquals(0, registry.get("product.snapshot.overlay").gauge().value());
+        assertEquals(2, registry.get("product.snapshot.products").gauge().value());
+        assertNull(productSnapshot.get(1L));
+        assertEquals(List.of(banana, created), productSnapshot.getAll());
+    }
+
+    @Test
+    public void test_get_returnsCopy() {
+        ProductSnapshot productSnapshot = loaded(100, apple);
+        productSnapshot.get(1L).setProduct_name("Changed");
+
+        assertEquals("Apple", productSnapshot.get(1L).getProduct_name());
+    }
+}
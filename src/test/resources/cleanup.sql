@@ -1 +1,2 @@
 DELETE FROM Product;
+DELETE FROM product_event;
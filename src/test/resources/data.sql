@@ -13,8 +13,13 @@ DROP TABLE IF EXISTS product;
 CREATE TABLE IF NOT EXISTS product (
     product_id BIGINT PRIMARY KEY,  -- Removed AUTO_INCREMENT
     product_name VARCHAR(255),
-    price DOUBLE
+    price DECIMAL(19, 2),
+    version BIGINT DEFAULT 0 NOT NULL,
+    last_modified TIMESTAMP(6) WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP(6) NOT NULL,
+    deleted BOOLEAN DEFAULT FALSE NOT NULL
 );
+CREATE INDEX idx_product_price ON product (price, product_id);
+CREATE INDEX idx_product_last_modified ON product (last_modified, product_id);
 
 INSERT INTO product (product_id, product_name, price) VALUES (1, 'Test Product 1', 100.0);
 INSERT INTO product (product_id, product_name, price) VALUES (2, 'Test Product 2', 200.0);